@@ -0,0 +1,165 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The benchmarks of the hot paths of the activation phase. The concrete
+ * subclasses define the boards and the number of players, on which the
+ * benchmarks are run. The benchmarks are located in the controller package,
+ * so that they have access to the package visible field actions of the
+ * {@link GameController}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public abstract class ActivationBenchmark {
+
+    // high enough so that nobody wins and the games go on forever
+    private static final int NO_WINNING = 1_000_000;
+
+    private static final Heading[] HEADINGS = Heading.values();
+
+    private Board board;
+    private GameEngine engine;
+    private GameController gameController;
+
+    private Player[] players;
+    private Space[] startSpaces;
+    private Heading[] startHeadings;
+
+    // a separate board with a line of players, which are pushed along a row
+    private Board pushBoard;
+    private GameController pushController;
+    private Player pusher;
+
+    /**
+     * Creates the board (without players) the benchmark should run on.
+     *
+     * @return the board
+     */
+    protected abstract Board createBoard();
+
+    /**
+     * Get the number of players for the benchmark.
+     *
+     * @return the number of players
+     */
+    protected abstract int getPlayerCount();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        board = createBoard();
+        board.setNoOfCheckpoints(NO_WINNING);
+        int playerCount = Math.min(getPlayerCount(), board.width * board.height / 2);
+        players = new Player[playerCount];
+        startSpaces = new Space[playerCount];
+        startHeadings = new Heading[playerCount];
+        int spaces = board.width * board.height;
+        for (int i = 0; i < playerCount; i++) {
+            // spread the players evenly over the board
+            int index = (int) ((long) i * spaces / playerCount);
+            Player player = new Player(board, "red", "Player " + (i + 1));
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(index % board.width, index / board.width));
+            player.setHeading(HEADINGS[i % HEADINGS.length]);
+            players[i] = player;
+            startSpaces[i] = player.getSpace();
+            startHeadings[i] = player.getHeading();
+        }
+        engine = new GameEngine(board);
+        gameController = engine.gameController;
+
+        pushBoard = new Board(board.width, board.height);
+        pushController = new GameController(pushBoard);
+        int chainLength = Math.min(playerCount, pushBoard.width - 1);
+        for (int i = 0; i < chainLength; i++) {
+            Player player = new Player(pushBoard, "blue", "Pushed " + (i + 1));
+            pushBoard.addPlayer(player);
+            player.setSpace(pushBoard.getSpace(i, 0));
+            player.setHeading(Heading.EAST);
+        }
+        pusher = pushBoard.getPlayer(0);
+    }
+
+    /**
+     * Executes the next register of the next player, like the "Execute Current
+     * Register" button does. When the activation phase is over, the next round is
+     * programmed first. The cost of dealing the cards and of the field actions at
+     * the end of each round is amortized over the steps of the round.
+     */
+    @Benchmark
+    public void executeNextStep() {
+        if (board.getPhase() == Phase.PLAYER_INTERACTION) {
+            gameController.turnRightOrLeft(board.getCurrentPlayer(), "Right");
+        }
+        if (board.getPhase() != Phase.ACTIVATION) {
+            engine.programRound();
+        }
+        if (board.getPhase() == Phase.ACTIVATION) {
+            gameController.executeStep();
+        }
+    }
+
+    /**
+     * Moves the first player of a line of players forward, which pushes all
+     * other players of the line. Since the board wraps around at its edges,
+     * the line keeps on moving along the row.
+     */
+    @Benchmark
+    public void pushChain() {
+        pushController.moveForward(pusher);
+    }
+
+    /**
+     * Computes the neighbours of all spaces of the board in all directions.
+     */
+    @Benchmark
+    public void getNeighbour(Blackhole blackhole) {
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                Space space = board.getSpace(x, y);
+                for (Heading heading : HEADINGS) {
+                    blackhole.consume(board.getNeighbour(space, heading));
+                }
+            }
+        }
+    }
+
+    /**
+     * Puts all players back on their start spaces and executes the field actions
+     * (including the conveyor belts). Subtract the result of
+     * {@link #resetPlayers()} for the cost of the field actions alone.
+     */
+    @Benchmark
+    public void executeFieldActions() {
+        resetPlayers();
+        gameController.executeFieldActions();
+    }
+
+    /**
+     * The baseline for {@link #executeFieldActions()}: puts all players back on
+     * their start spaces.
+     */
+    @Benchmark
+    public void resetPlayers() {
+        for (int i = 0; i < players.length; i++) {
+            players[i].setSpace(null);
+        }
+        for (int i = 0; i < players.length; i++) {
+            players[i].setSpace(startSpaces[i]);
+            players[i].setHeading(startHeadings[i]);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The activation benchmarks on the boards of the {@link BoardFactory} with
+ * the number of players that can play a game in the GUI.
+ */
+public class FactoryBoardBenchmark extends ActivationBenchmark {
+
+    @Param({"Advanced board", "Belts belts belts board", "Conflicting conveyors board"})
+    public String boardName;
+
+    @Param({"2", "4", "6"})
+    public int players;
+
+    @Override
+    protected Board createBoard() {
+        return BoardFactory.getInstance().createBoard(boardName);
+    }
+
+    @Override
+    protected int getPlayerCount() {
+        return players;
+    }
+
+}
@@ -0,0 +1,51 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The activation benchmarks on generated square boards of different sizes
+ * with many players. Every second row of the board is a conveyor belt
+ * (alternately running east and west), and some spaces have walls. Note
+ * that at most half of the spaces of a board are occupied by players.
+ */
+public class SyntheticBoardBenchmark extends ActivationBenchmark {
+
+    @Param({"16", "64", "200"})
+    public int size;
+
+    @Param({"100", "1000"})
+    public int players;
+
+    @Override
+    protected Board createBoard() {
+        Board board = new Board(size, size, "Synthetic board " + size);
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                Space space = board.getSpace(x, y);
+                if (y % 2 == 1) {
+                    space.getActions().add(ConveyorBelt.of(y % 4 == 1 ? Heading.EAST : Heading.WEST));
+                }
+                if ((x + y) % 7 == 0) {
+                    space.addWall(Heading.NORTH);
+                }
+                if ((x * 3 + y) % 11 == 0) {
+                    space.addWall(Heading.EAST);
+                }
+            }
+        }
+        for (int i = 1; i <= 4; i++) {
+            board.getSpace(i * size / 5, i * size / 5).getActions().addFirst(Checkpoint.of(i));
+        }
+        ConveyorConflictIndex.build(board);
+        return board;
+    }
+
+    @Override
+    protected int getPlayerCount() {
+        return players;
+    }
+
+}
@@ -0,0 +1,83 @@
+package dk.dtu.compute.se.pisd.designpatterns.observer;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A scope in which the change notifications of subjects are collected instead
+ * of being delivered right away. When the scope is closed, the observers of
+ * every changed subject are notified exactly once, in the order in which the
+ * subjects were changed first. A scope is meant to be used in a
+ * try-with-resources statement:
+ * <pre>
+ * try (ChangeScope scope = ChangeScope.open()) {
+ *     // change any number of subjects
+ * }
+ * </pre>
+ * Scopes belong to the thread which opened them; changes made by other threads
+ * are notified as usual. Scopes can be nested, in which case the notifications
+ * are delivered when the outermost scope is closed.
+ */
+final public class ChangeScope implements AutoCloseable {
+
+	private static final ThreadLocal<ChangeScope> current = new ThreadLocal<>();
+
+	private final Set<Subject> changed = new LinkedHashSet<>();
+
+	private int depth = 0;
+
+	private ChangeScope() {
+	}
+
+	/**
+	 * Opens a change scope for the current thread. If the thread has an
+	 * open scope already, the new scope is nested in it.
+	 *
+	 * @return the scope, which must be closed by the same thread
+	 */
+	public static ChangeScope open() {
+		ChangeScope scope = current.get();
+		if (scope == null) {
+			scope = new ChangeScope();
+			current.set(scope);
+		}
+		scope.depth++;
+		return scope;
+	}
+
+	/**
+	 * Closes this scope. When the outermost scope is closed, the observers of
+	 * all changed subjects are notified. Changes made by the observers
+	 * during this notification are delivered immediately again.
+	 */
+	@Override
+	public void close() {
+		if (depth <= 0) {
+			throw new IllegalStateException("The change scope is closed already");
+		}
+		if (--depth > 0) {
+			return;
+		}
+		current.remove();
+		for (Subject subject: changed) {
+			subject.deliverChange();
+		}
+		changed.clear();
+	}
+
+	/**
+	 * Records the change of a subject in the open scope of the current thread.
+	 *
+	 * @param subject the changed subject
+	 * @return true if the change was recorded, false if there is no open scope
+	 */
+	static boolean defer(Subject subject) {
+		ChangeScope scope = current.get();
+		if (scope == null) {
+			return false;
+		}
+		scope.changed.add(subject);
+		return true;
+	}
+
+}
@@ -21,11 +21,9 @@
  */
 package dk.dtu.compute.se.pisd.designpatterns.observer;
 
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
-
-// import java.util.HashSet;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.ref.WeakReference;
 
 /**
  * This is the subject of the observer design pattern roughly following
@@ -36,14 +34,29 @@ import java.util.WeakHashMap;
  */
 public abstract class Subject {
 	
-	private Set<Observer> observers =
-			Collections.newSetFromMap(new WeakHashMap<>());
+	private static final WeakReference<?>[] NO_OBSERVERS = new WeakReference<?>[0];
+
+	private static final VarHandle OBSERVERS;
+
+	static {
+		try {
+			OBSERVERS = MethodHandles.lookup().findVarHandle(Subject.class, "observers", WeakReference[].class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private volatile WeakReference<?>[] observers = NO_OBSERVERS;
 	// Note: In JavaFX, the views do not have a way to know when they are
 	// removed from the window, and therefore cannot always unregister
 	// themselves from subjects they observe before the views become garbage.
-	// Therefore, the set of observers are maintained as a weak set, so
+	// Therefore, the observers are maintained as weak references, so
 	// that these observers are implicitly removed, when the observers
 	// would be garbage (if not for these references)!
+	// The array is never changed; attaching and detaching replace it by a
+	// new array (with compare and set), so that the observers can be
+	// notified without locking while other threads attach or detach
+	// observers (even the observers which are being notified).
 
 	/**
 	 * This methods allows an observer to register with the subject
@@ -52,7 +65,16 @@ public abstract class Subject {
 	 * @param observer the observer who registers
 	 */
 	final public void attach(Observer observer) {
-		observers.add(observer);
+		WeakReference<?>[] current;
+		WeakReference<?>[] updated;
+		do {
+			current = observers;
+			if (indexOf(current, observer) >= 0) {
+				return;
+			}
+			updated = copyLive(current, null, 1);
+			updated[updated.length - 1] = new WeakReference<>(observer);
+		} while (!OBSERVERS.compareAndSet(this, current, updated));
 	}
 	
 	/**
@@ -62,18 +84,83 @@ public abstract class Subject {
 	 * @param observer the observer who unregisters
 	 */
 	final public void detach(Observer observer) {
-		observers.remove(observer);
+		WeakReference<?>[] current;
+		WeakReference<?>[] updated;
+		do {
+			current = observers;
+			if (indexOf(current, observer) < 0) {
+				return;
+			}
+			updated = copyLive(current, observer, 0);
+		} while (!OBSERVERS.compareAndSet(this, current, updated));
 	}
 	
 	/**
 	 * This method must be called from methods of concrete subclasses
 	 * of this subject class whenever its state is changed (in a way
-	 * relevant for the observer).
+	 * relevant for the observer). Within an open {@link ChangeScope},
+	 * the observers are notified only when the scope is closed.
 	 */
 	final protected void notifyChange() {
-		for (Observer observer: observers) {
-			observer.update(this);
+		if (observers.length == 0 || ChangeScope.defer(this)) {
+			return;
+		}
+		deliverChange();
+	}
+
+	/**
+	 * Notifies all observers of this subject.
+	 */
+	final void deliverChange() {
+		WeakReference<?>[] current = observers;
+		boolean released = false;
+		for (WeakReference<?> reference: current) {
+			Observer observer = (Observer) reference.get();
+			if (observer != null) {
+				observer.update(this);
+			} else {
+				released = true;
+			}
+		}
+		if (released) {
+			// try once to drop the observers which are garbage; if some other
+			// thread changed the observers in the meantime, it drops them
+			OBSERVERS.compareAndSet(this, current, copyLive(current, null, 0));
+		}
+	}
+
+	private static int indexOf(WeakReference<?>[] references, Observer observer) {
+		for (int i = 0; i < references.length; i++) {
+			if (references[i].get() == observer) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Copies the references to the observers, which are not garbage yet,
+	 * leaving out the given observer and leaving the given number of
+	 * free entries at the end of the copy.
+	 */
+	private static WeakReference<?>[] copyLive(WeakReference<?>[] references, Observer removed, int free) {
+		WeakReference<?>[] copy = new WeakReference<?>[references.length + free];
+		int size = 0;
+		for (WeakReference<?> reference: references) {
+			Object observer = reference.get();
+			if (observer != null && observer != removed) {
+				copy[size++] = reference;
+			}
+		}
+		if (size + free == copy.length) {
+			return copy;
+		}
+		if (size + free == 0) {
+			return NO_OBSERVERS;
 		}
+		WeakReference<?>[] trimmed = new WeakReference<?>[size + free];
+		System.arraycopy(copy, 0, trimmed, 0, size);
+		return trimmed;
 	}
 
 }
@@ -24,8 +24,15 @@ package dk.dtu.compute.se.pisd.roborally.controller;
 import dk.dtu.compute.se.pisd.designpatterns.observer.Observer;
 import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
 import dk.dtu.compute.se.pisd.roborally.RoboRally;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEventLog;
+import dk.dtu.compute.se.pisd.roborally.dal.GameInDB;
+import dk.dtu.compute.se.pisd.roborally.dal.IRepository;
+import dk.dtu.compute.se.pisd.roborally.dal.RepositoryAccess;
+import dk.dtu.compute.se.pisd.roborally.dal.SaveQueue;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
 import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.view.LoadGameDialog;
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -51,6 +58,19 @@ public class AppController implements Observer {
 
     private GameController gameController;
 
+    // the games are saved in the background, so that saving does not block the GUI
+    final private SaveQueue saveQueue = new SaveQueue(RepositoryAccess::getRepository);
+
+    // the log of the events of the current game, which is saved with the game;
+    // the log is compacted, so that it does not grow with the length of the game
+    private GameEventLog eventLog;
+
+    // once the current game was saved, it is saved automatically after every
+    // register (step) and every phase
+    private boolean autosave;
+    private Phase autosavedPhase;
+    private int autosavedStep;
+
     public AppController(@NotNull RoboRally roboRally) {
         this.roboRally = roboRally;
     }
@@ -96,6 +116,7 @@ public class AppController implements Observer {
 
         Board board = BoardFactory.getInstance().createBoard(boardNameResult.get());
         gameController = new GameController(board);
+        gameController.setOutcomeListener(this::showWinner);
         int playerCount = playerCountResult.get();
         for (int i = 0; i < playerCount; i++) {
             Player player = new Player(board, PLAYER_COLORS.get(i), "Player " + (i + 1));
@@ -103,19 +124,92 @@ public class AppController implements Observer {
             player.setSpace(board.getSpace(i % board.width, i));
         }
 
+        autosave = false;
+        board.attach(this);
+
+        // the log is attached before the first round, so that it records all
+        // events of the game from its start
+        eventLog = createEventLog();
+        eventLog.attach(gameController);
+
         gameController.startProgrammingPhase();
         roboRally.createBoardView(gameController);
     }
 
+    private static GameEventLog createEventLog() {
+        return new GameEventLog(GameEventLog.DEFAULT_SNAPSHOT_ROUNDS, GameEventLog.DEFAULT_SNAPSHOT_EVENTS, true);
+    }
+
+    /**
+     * Shows a popup window with the winner of the game.
+     *
+     * @param gameController the controller of the finished game
+     * @param winner the winner of the game
+     */
+    private void showWinner(@NotNull GameController gameController, @NotNull Player winner) {
+        Alert alert = new Alert(AlertType.INFORMATION);
+        alert.setContentText(winner.getName() + " is the winner!");
+        alert.show();
+    }
+
+    /**
+     * Saves the current game in the database. The game is saved in the
+     * background, so this does not wait for the game to be written. From
+     * now on, the game is saved automatically after every step.
+     */
     public void saveGame() {
-        // TODO V4a: needs to be implemented
+        if (gameController != null) {
+            Board board = gameController.board;
+            autosave = true;
+            autosavedPhase = board.getPhase();
+            autosavedStep = board.getStep();
+            saveQueue.save(board, eventLog);
+        }
     }
 
+    /**
+     * Lets the user choose a saved game from the database and loads it. The
+     * saved games are listed page by page.
+     */
     public void loadGame() {
-        // TODO V4a: needs to be implemented
-        // for now, we just create a new game
         if (gameController == null) {
-            newGame();
+            IRepository repository;
+            try {
+                repository = RepositoryAccess.getRepository();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                Alert alert = new Alert(AlertType.ERROR);
+                alert.setContentText("The database is not available!");
+                alert.show();
+                return;
+            }
+
+            Optional<GameInDB> result = new LoadGameDialog(repository).showAndWait();
+            if (result.isEmpty()) {
+                return;
+            }
+            Board board = repository.loadGameFromDB(result.get().id);
+            if (board == null) {
+                Alert alert = new Alert(AlertType.ERROR);
+                alert.setContentText("The game " + result.get() + " could not be loaded!");
+                alert.show();
+                return;
+            }
+
+            gameController = new GameController(board);
+            gameController.setOutcomeListener(this::showWinner);
+            board.attach(this);
+            // the log of the loaded game continues with the events after
+            // loading; games saved without a log get a new log
+            eventLog = createEventLog();
+            eventLog.restore(repository.loadEventLogFromDB(result.get().id));
+            eventLog.attach(gameController);
+            // a loaded game is in the database already, so it is saved automatically
+            autosave = true;
+            autosavedPhase = board.getPhase();
+            autosavedStep = board.getStep();
+
+            roboRally.createBoardView(gameController);
         }
     }
 
@@ -134,7 +228,9 @@ public class AppController implements Observer {
             // here we save the game (without asking the user).
             saveGame();
 
+            gameController.board.detach(this);
             gameController = null;
+            eventLog = null;
             roboRally.createBoardView(null);
             return true;
         }
@@ -156,6 +252,9 @@ public class AppController implements Observer {
         // If the user did not cancel, the RoboRally application will exit
         // after the option to save the game
         if (gameController == null || stopGame()) {
+            // make sure that the saved games are written before exiting
+            saveQueue.close();
+            RepositoryAccess.close();
             Platform.exit();
         }
     }
@@ -166,7 +265,12 @@ public class AppController implements Observer {
 
     @Override
     public void update(Subject subject) {
-        // XXX do nothing for now
+        if (autosave && gameController != null && subject == gameController.board) {
+            Board board = gameController.board;
+            if (board.getPhase() != autosavedPhase || board.getStep() != autosavedStep) {
+                saveGame();
+            }
+        }
     }
 
 }
@@ -1,13 +1,19 @@
 package dk.dtu.compute.se.pisd.roborally.controller;
 
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
 import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Space;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A factory for creating boards. The factory itself is implemented as a singleton.
+ * The layout of every board (see {@link BoardLayout}) is set up only once, when
+ * a board with this name is created for the first time; all boards with the
+ * same name share this layout.
  *
  * @author Ekkart Kindler, ekki@dtu.dk
  */
@@ -32,6 +38,11 @@ public class BoardFactory {
     private final int CONFLICTING_CONVEYORS_BOARD_WIDTH = 15;
     private final int CONFLICTING_CONVEYORS_BOARD_HEIGHT = 8;
 
+    /**
+     * The layouts of the boards, which were created already, by their name.
+     */
+    private final Map<String, BoardLayout> layouts = new ConcurrentHashMap<>();
+
     /**
      * Constructor for BoardFactory. It is private in order to make the factory a singleton.
      */
@@ -44,7 +55,7 @@ public class BoardFactory {
      *
      * @return the single instance of the BoardFactory
      */
-    public static BoardFactory getInstance() {
+    public static synchronized BoardFactory getInstance() {
         if (instance == null) {
             instance = new BoardFactory();
         }
@@ -68,6 +79,21 @@ public class BoardFactory {
      * @return the new board corresponding to that name
      */
     public Board createBoard(String name) {
+        return getLayout(name).createBoard();
+    }
+
+    /**
+     * Get the layout of the board with the given name. The layout is
+     * set up when it is requested for the first time.
+     *
+     * @param name the given name of the board
+     * @return the layout of the board with that name
+     */
+    public BoardLayout getLayout(String name) {
+        return layouts.computeIfAbsent(name, this::createLayout);
+    }
+
+    private BoardLayout createLayout(String name) {
         Board board;
         switch (name) {
             case (SIMPLE_BOARD_NAME):
@@ -90,7 +116,8 @@ public class BoardFactory {
                 throw new IllegalArgumentException("Unrecognized board name");
         }
 
-        return board;
+        ConveyorConflictIndex.build(board);
+        return BoardLayout.of(board);
     }
 
     /**
@@ -110,44 +137,39 @@ public class BoardFactory {
     private void setupAdvancedBoard(Board board) {
         // add some walls, actions and checkpoints to some spaces
         Space space = board.getSpace(0, 0);
-        space.getWalls().add(Heading.SOUTH);
-        ConveyorBelt action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        space.addWall(Heading.SOUTH);
+        ConveyorBelt action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(1, 0);
-        space.getWalls().add(Heading.NORTH);
-        action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        space.addWall(Heading.NORTH);
+        action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(1, 1);
-        space.getWalls().add(Heading.WEST);
-        action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        space.addWall(Heading.WEST);
+        action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(6, 4);
-        space.getWalls().add(Heading.EAST);
+        space.addWall(Heading.EAST);
 
 
         space = board.getSpace(5, 5);
-        space.getWalls().add(Heading.SOUTH);
-        action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        space.addWall(Heading.SOUTH);
+        action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(6, 5);
-        action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
 
         space = board.getSpace(7, 5);
-        Checkpoint act = new Checkpoint(1);
+        Checkpoint act = Checkpoint.of(1);
         space.getActions().add(act);
 
         space = board.getSpace(4, 4);
-        act = new Checkpoint(2);
+        act = Checkpoint.of(2);
         space.getActions().add(act);
 
         board.setNoOfCheckpoints(2);
@@ -166,49 +188,47 @@ public class BoardFactory {
             for (int j = 0; j < CONVEYOR_BOARD_HEIGHT; j++) {
                 space = board.getSpace(i, j);
                 if (j < 3 && !(i == 5 && j == 0)) {
-                    beltAction = new ConveyorBelt();
-                    beltAction.setHeading(Heading.NORTH);
+                    beltAction = ConveyorBelt.of(Heading.NORTH);
                     space.getActions().add(beltAction);
                     }
                 if (j == 0){
-                    space.getWalls().add(Heading.NORTH);
+                    space.addWall(Heading.NORTH);
                 }
                 if (j > 4 && !(i == 6 && j == 7)) {
                     space = board.getSpace(i, j);
-                    beltAction = new ConveyorBelt();
-                    beltAction.setHeading(Heading.SOUTH);
+                    beltAction = ConveyorBelt.of(Heading.SOUTH);
                     space.getActions().add(beltAction);
                 }
                 if (j == 7) {
-                    space.getWalls().add(Heading.SOUTH);
+                    space.addWall(Heading.SOUTH);
                 }
             }
         }
         space = board.getSpace(9, 4);
-        checkpointAction = new Checkpoint(2);
+        checkpointAction = Checkpoint.of(2);
         space.getActions().add(checkpointAction);
 
         space = board.getSpace(5, 0);
-        checkpointAction = new Checkpoint(3);
+        checkpointAction = Checkpoint.of(3);
         space.getActions().add(checkpointAction);
 
         space = board.getSpace(6, 7);
-        checkpointAction = new Checkpoint(1);
+        checkpointAction = Checkpoint.of(1);
         space.getActions().add(checkpointAction);
 
         space = board.getSpace(2, 3);
-        checkpointAction = new Checkpoint(4);
+        checkpointAction = Checkpoint.of(4);
         space.getActions().add(checkpointAction);
 
         space = board.getSpace(2, 3);
-        space.getWalls().add(Heading.EAST);
+        space.addWall(Heading.EAST);
         space = board.getSpace(2, 4);
-        space.getWalls().add(Heading.EAST);
+        space.addWall(Heading.EAST);
 
         space = board.getSpace(9, 3);
-        space.getWalls().add(Heading.WEST);
+        space.addWall(Heading.WEST);
         space = board.getSpace(9, 4);
-        space.getWalls().add(Heading.WEST);
+        space.addWall(Heading.WEST);
 
         board.setNoOfCheckpoints(4);
     }
@@ -223,14 +243,10 @@ public class BoardFactory {
         Space s2 = board.getSpace(0, 1);
         Space s3 = board.getSpace(0, 4);
         Space s4 = board.getSpace(14, 5);
-        ConveyorBelt c1 = new ConveyorBelt();
-        c1.setHeading(Heading.WEST);
-        ConveyorBelt c2 = new ConveyorBelt();
-        c2.setHeading(Heading.NORTH);
-        ConveyorBelt c3 = new ConveyorBelt();
-        c3.setHeading(Heading.WEST);
-        ConveyorBelt c4 = new ConveyorBelt();
-        c4.setHeading(Heading.NORTH);
+        ConveyorBelt c1 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c2 = ConveyorBelt.of(Heading.NORTH);
+        ConveyorBelt c3 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c4 = ConveyorBelt.of(Heading.NORTH);
         s1.getActions().add(c1);
         s2.getActions().add(c2);
         s3.getActions().add(c3);
@@ -5,17 +5,35 @@ import dk.dtu.compute.se.pisd.roborally.model.Space;
 import dk.dtu.compute.se.pisd.roborally.model.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This class represents a checkpoint on a space
  */
 public class Checkpoint extends FieldAction {
 
+    // the shared checkpoints by their sequence
+    private static final Map<Integer, Checkpoint> SHARED = new ConcurrentHashMap<>();
+
     private final int sequence;
 
-    public Checkpoint(int sequence) {
+    private Checkpoint(int sequence) {
         this.sequence = sequence;
     }
 
+    /**
+     * Returns the shared checkpoint with the given sequence. Since a
+     * checkpoint cannot be changed, the same checkpoint can be put on
+     * any number of boards.
+     *
+     * @param sequence the sequence of the checkpoint
+     * @return the shared checkpoint with this sequence
+     */
+    public static Checkpoint of(int sequence) {
+        return SHARED.computeIfAbsent(sequence, Checkpoint::new);
+    }
+
     /**
      * Get the sequence for this checkpoint
      * @return the sequence
@@ -39,7 +57,7 @@ public class Checkpoint extends FieldAction {
     public boolean doAction(@NotNull GameController gameController, @NotNull Space space) {
         Player currentPlayer = space.getPlayer();
         if (currentPlayer.getNextCheckpoint() == this.getSequence()) {
-            currentPlayer.incrementNextCheckpoint();
+            gameController.reachCheckpoint(currentPlayer);
             if (gameController.isPlayerAWinner(currentPlayer)) {
                 gameController.startWinning(currentPlayer);
             }
@@ -36,37 +36,80 @@ import java.util.List;
  */
 public class ConveyorBelt extends FieldAction {
 
-    private Heading heading;
+    private static final Heading[] HEADINGS = Heading.values();
 
-    public Heading getHeading() {
-        return heading;
+    // the shared conveyor belts for all headings, indexed by the ordinal of the heading
+    private static final ConveyorBelt[] SHARED = new ConveyorBelt[HEADINGS.length];
+
+    static {
+        for (Heading heading : HEADINGS) {
+            SHARED[heading.ordinal()] = new ConveyorBelt(heading);
+        }
     }
 
-    public void setHeading(Heading heading) {
+    final private Heading heading;
+
+    private ConveyorBelt(@NotNull Heading heading) {
         this.heading = heading;
     }
 
+    /**
+     * Returns the shared conveyor belt with the given heading. Since a
+     * conveyor belt cannot be changed, the same conveyor belt can be put on
+     * any number of spaces of any number of boards.
+     *
+     * @param heading the heading of the conveyor belt
+     * @return the shared conveyor belt with this heading
+     */
+    public static ConveyorBelt of(@NotNull Heading heading) {
+        return SHARED[heading.ordinal()];
+    }
+
+    public Heading getHeading() {
+        return heading;
+    }
+
     /**
      * Implementation of the action of a conveyor belt.
      * Pushes players on the conveyor belt one space in the heading of the belt.
+     * Note that at the end of a round, the {@link GameController} moves all players
+     * on conveyor belts at once, so that a player can also follow another player
+     * on a belt (see {@link ConveyorResolver}).
+     *
+     * @return true if the player was moved, false otherwise
      */
     @Override
     public boolean doAction(@NotNull GameController gameController, @NotNull Space space) {
-        // get other spaces with conveyors that point to the same target space
-        ArrayList<Space> conflictingSpaces = getConflictingConveyorSpaces(space);
-
         // if any of the conflicting spaces are occupied by a player, the move is impossible
-        for (Space conflictingSpace : conflictingSpaces) {
-            if (conflictingSpace.getPlayer() != null) {
-                return false;
-            }
+        if (hasOccupiedConflict(space)) {
+            gameController.countBlockedConveyorMove();
+            return false;
         }
 
         Player currentPlayer = space.getPlayer();
-        Heading heading = this.heading;
-        boolean gotPushed = gameController.moveInDirection(currentPlayer, heading);
+        boolean gotPushed = gameController.moveInDirection(currentPlayer, this.heading);
         if (!gotPushed) {
-            gameController.addToConveyorRetryQueue(currentPlayer);
+            gameController.countBlockedConveyorMove();
+        }
+        return gotPushed;
+    }
+
+    /**
+     * Checks whether any other space with a conveyor belt, which points to the same
+     * target space as the conveyor belt on the given space, is occupied by a player.
+     *
+     * @param space a space with a conveyor belt
+     * @return true if a conflicting space is occupied, false otherwise
+     */
+    static boolean hasOccupiedConflict(@NotNull Space space) {
+        ConveyorConflictIndex index = space.board.getConveyorConflictIndex();
+        if (index != null) {
+            return index.hasOccupiedConflict(space);
+        }
+        for (Space conflictingSpace : getConflictingConveyorSpaces(space)) {
+            if (conflictingSpace.getPlayer() != null) {
+                return true;
+            }
         }
         return false;
     }
@@ -0,0 +1,101 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * The conflicting conveyor spaces (see {@link ConveyorBelt#getConflictingConveyorSpaces(Space)})
+ * of all spaces of a board, which are computed once when the board is set up.
+ * Since conveyor belts and walls do not change while the game is running, the
+ * conveyor belts can look up their conflicts instead of computing them again
+ * in every round.
+ * <p>
+ * The index must be built after all walls and conveyor belts were added to the
+ * board. When the walls of the board change afterwards, the board drops the
+ * index, and the conflicts are computed again on every call. The index refers
+ * to the spaces by their coordinates only, so that it can be shared by all
+ * boards with the same {@link dk.dtu.compute.se.pisd.roborally.model.BoardLayout}.
+ */
+public class ConveyorConflictIndex {
+
+    private static final int[] NO_CONFLICT_INDICES = new int[0];
+
+    final private int height;
+
+    // the indices (x * height + y) of the conflicting spaces for every space,
+    // indexed by x * height + y
+    final private int[][] conflicts;
+
+    private ConveyorConflictIndex(@NotNull Board board) {
+        this.height = board.height;
+        this.conflicts = new int[board.width * board.height][];
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                List<Space> spaceConflicts = ConveyorBelt.getConflictingConveyorSpaces(board.getSpace(x, y));
+                int[] indices = spaceConflicts.isEmpty() ? NO_CONFLICT_INDICES : new int[spaceConflicts.size()];
+                for (int i = 0; i < indices.length; i++) {
+                    Space conflict = spaceConflicts.get(i);
+                    indices[i] = conflict.x * height + conflict.y;
+                }
+                conflicts[x * height + y] = indices;
+            }
+        }
+    }
+
+    /**
+     * Computes the conflicts of all conveyor belts of the board and sets
+     * the index for the board.
+     *
+     * @param board the board with all its walls and conveyor belts
+     * @return the index of the board
+     */
+    public static ConveyorConflictIndex build(@NotNull Board board) {
+        ConveyorConflictIndex index = new ConveyorConflictIndex(board);
+        board.setConveyorConflictIndex(index);
+        return index;
+    }
+
+    /**
+     * Get the number of spaces with conveyor belts, which point to the same
+     * target as the conveyor belt on the given space.
+     *
+     * @param space a space of a board of this index
+     * @return the number of conflicting spaces
+     */
+    int conflictCount(@NotNull Space space) {
+        return conflicts[space.x * height + space.y].length;
+    }
+
+    /**
+     * Get a conflicting space of the given space (see {@link #conflictCount(Space)}).
+     * Together, these methods look up the conflicts without allocating anything.
+     *
+     * @param space a space of a board of this index
+     * @param i the number of the conflict, from 0 to the number of conflicts - 1
+     * @return the conflicting space on the board of the given space
+     */
+    Space conflict(@NotNull Space space, int i) {
+        int index = conflicts[space.x * height + space.y][i];
+        return space.board.getSpace(index / height, index % height);
+    }
+
+    /**
+     * Checks whether any of the conflicting spaces of the given space is
+     * occupied by a player.
+     *
+     * @param space a space of a board of this index
+     * @return true if a conflicting space is occupied, false otherwise
+     */
+    boolean hasOccupiedConflict(@NotNull Space space) {
+        for (int index : conflicts[space.x * height + space.y]) {
+            if (space.board.getSpace(index / height, index % height).getPlayer() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
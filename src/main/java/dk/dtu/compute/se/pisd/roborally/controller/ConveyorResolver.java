@@ -0,0 +1,295 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Resolves the moves of all players on conveyor belts at the end of a round.
+ * <p>
+ * The conveyor belts are executed in passes: in the first pass, all players
+ * on belts are moved in the order of the players. A player whose target
+ * space is occupied waits for the next pass; a player for whom a
+ * conflicting belt (see {@link ConveyorBelt#getConflictingConveyorSpaces(Space)})
+ * is occupied is not moved at all. The waiting players are retried in
+ * alternating order (reverse order in the second pass, player order in
+ * the third, and so on), until a pass does not change anything. So, a
+ * player can follow a player in front of them on a belt, but players on a
+ * cycle of belts or in front of a wall are not moved.
+ * <p>
+ * Instead of retrying all waiting players in every pass, the resolver
+ * first computes for every player on a belt the spaces the move depends
+ * on (the target and the conflicting spaces). A waiting player is retried
+ * only when a player moves from or to one of these spaces, and only at the
+ * player's next turn in the pass order; this gives exactly the same result
+ * as retrying everyone. The moves are computed on a copy of the positions
+ * and are committed to the board in the end.
+ */
+class ConveyorResolver {
+
+    private static final byte WAITING = 0;
+    private static final byte MOVED = 1;
+    private static final byte DROPPED = 2;
+
+    private static final byte UNCHANGED = 0;
+    private static final byte OCCUPIED = 1;
+    private static final byte FREE = 2;
+
+    final private Board board;
+
+    // the players on conveyor belts (in player order) with their spaces and targets
+    private Player[] players = new Player[8];
+    private Space[] spaces = new Space[8];
+    private Space[] targets = new Space[8];
+    private byte[] states = new byte[8];
+    private int[] scheduled = new int[8];
+    private int size = 0;
+
+    // the conflicting spaces of player i are conflicts[conflictStart[i]] to
+    // conflicts[conflictStart[i + 1] - 1]
+    private Space[] conflicts = new Space[8];
+    private int[] conflictStart = new int[9];
+
+    // for every space (by index) the first player, whose move depends on the
+    // space; the other players are linked by dependencyNext
+    private final int[] firstDependency;
+    private int[] dependencyPlayer = new int[8];
+    private int[] dependencyNext = new int[8];
+    private int dependencyCount = 0;
+
+    // the occupation of the spaces, which were changed by the computed moves
+    private final byte[] occupation;
+
+    // the players who move, in the order of their moves
+    private int[] moves = new int[8];
+    private int moveCount = 0;
+
+    // the turns of the retries in the current and in the next pass; the
+    // retries of a pass are made in the order of their turns
+    private BitSet currentPass = new BitSet();
+    private BitSet nextPass = new BitSet();
+
+    ConveyorResolver(@NotNull Board board) {
+        this.board = board;
+        this.firstDependency = new int[board.width * board.height];
+        this.occupation = new byte[board.width * board.height];
+        Arrays.fill(firstDependency, -1);
+    }
+
+    /**
+     * Adds a player on a conveyor belt, who should be moved by the belt.
+     * The players must be added in the order of the players. If a player
+     * is added more than once, only the first belt is used.
+     *
+     * @param player the player on the belt
+     * @param space the space of the player
+     * @param belt the conveyor belt on the space
+     */
+    void add(@NotNull Player player, @NotNull Space space, @NotNull ConveyorBelt belt) {
+        if (size > 0 && players[size - 1] == player) {
+            return;
+        }
+        if (size == players.length) {
+            int capacity = 2 * size;
+            players = Arrays.copyOf(players, capacity);
+            spaces = Arrays.copyOf(spaces, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+            states = Arrays.copyOf(states, capacity);
+            scheduled = Arrays.copyOf(scheduled, capacity);
+            conflictStart = Arrays.copyOf(conflictStart, capacity + 1);
+            moves = new int[capacity];
+        }
+        Space target = board.getNeighbour(space, belt.getHeading());
+        players[size] = player;
+        spaces[size] = space;
+        targets[size] = target;
+        states[size] = WAITING;
+        scheduled[size] = 0;
+
+        // the conflicts are looked up in the index of the board, if there is one
+        conflictStart[size + 1] = conflictStart[size];
+        ConveyorConflictIndex index = board.getConveyorConflictIndex();
+        if (index != null) {
+            for (int c = 0, count = index.conflictCount(space); c < count; c++) {
+                addConflict(index.conflict(space, c));
+            }
+        } else {
+            for (Space conflictingSpace : ConveyorBelt.getConflictingConveyorSpaces(space)) {
+                addConflict(conflictingSpace);
+            }
+        }
+        if (target != null) {
+            addDependency(target, size);
+        }
+        size++;
+    }
+
+    /**
+     * Moves all added players, who can be moved by their conveyor belts, and
+     * clears this resolver for the next round.
+     *
+     * @return the number of players, who could not be moved
+     */
+    int resolve() {
+        return resolve(GameEventListener.NONE);
+    }
+
+    /**
+     * Moves all added players, who can be moved by their conveyor belts, and
+     * clears this resolver for the next round. The listener is informed about
+     * every move in the order in which the moves are made.
+     *
+     * @param listener the listener
+     * @return the number of players, who could not be moved
+     */
+    int resolve(@NotNull GameEventListener listener) {
+        // the first pass in player order, in which everybody has a turn
+        for (int i = 0; i < size; i++) {
+            retry(i, 1);
+        }
+        int pass = 2;
+        while (!nextPass.isEmpty()) {
+            BitSet retries = nextPass;
+            nextPass = currentPass;
+            currentPass = retries;
+            // the retries, which are scheduled during the pass, come after
+            // the current turn, so they are found by the same scan
+            for (int turn = currentPass.nextSetBit(0); turn >= 0; turn = currentPass.nextSetBit(turn + 1)) {
+                currentPass.clear(turn);
+                retry(turn(turn, pass), pass);
+            }
+            pass++;
+        }
+
+        // the moves are committed in the order in which they were computed,
+        // so the target space of every player is free when the player is moved
+        for (int k = 0; k < moveCount; k++) {
+            players[moves[k]].setSpace(targets[moves[k]]);
+            listener.conveyorMoved(players[moves[k]]);
+        }
+        int blocked = size - moveCount;
+        clear();
+        return blocked;
+    }
+
+    /**
+     * Executes the conveyor belt of a player at the player's turn in the given
+     * pass, based on the current occupation of the spaces.
+     */
+    private void retry(int player, int pass) {
+        if (states[player] != WAITING) {
+            return;
+        }
+        for (int c = conflictStart[player]; c < conflictStart[player + 1]; c++) {
+            if (isOccupied(conflicts[c])) {
+                states[player] = DROPPED;
+                return;
+            }
+        }
+        Space target = targets[player];
+        if (target != null && !isOccupied(target)) {
+            states[player] = MOVED;
+            moves[moveCount++] = player;
+            occupation[index(spaces[player])] = FREE;
+            occupation[index(target)] = OCCUPIED;
+            scheduleDependents(spaces[player], player, pass);
+            scheduleDependents(target, player, pass);
+        }
+    }
+
+    /**
+     * Schedules the waiting players, whose moves depend on the given space, for
+     * their next turn after the turn of the given player in the given pass.
+     */
+    private void scheduleDependents(Space space, int player, int pass) {
+        int currentTurn = turn(player, pass);
+        for (int d = firstDependency[index(space)]; d >= 0; d = dependencyNext[d]) {
+            int dependent = dependencyPlayer[d];
+            if (states[dependent] != WAITING) {
+                continue;
+            }
+            int turn = turn(dependent, pass);
+            if (turn > currentTurn) {
+                if (scheduled[dependent] != pass && pass > 1) {
+                    // in the first pass, everybody has a turn anyway
+                    scheduled[dependent] = pass;
+                    currentPass.set(turn);
+                }
+            } else if (scheduled[dependent] != pass + 1) {
+                scheduled[dependent] = pass + 1;
+                nextPass.set(turn(dependent, pass + 1));
+            }
+        }
+    }
+
+    /**
+     * The turn of a player in the pass is the index of the player in the odd
+     * passes and the reverse index in the even passes. Note that this
+     * function is its own inverse.
+     */
+    private int turn(int player, int pass) {
+        return pass % 2 == 1 ? player : size - 1 - player;
+    }
+
+    private boolean isOccupied(Space space) {
+        byte state = occupation[index(space)];
+        if (state == UNCHANGED) {
+            return space.getPlayer() != null;
+        }
+        return state == OCCUPIED;
+    }
+
+    /**
+     * Adds a conflicting space of the player, who is added.
+     */
+    private void addConflict(Space space) {
+        int end = conflictStart[size + 1];
+        if (end == conflicts.length) {
+            conflicts = Arrays.copyOf(conflicts, 2 * end);
+        }
+        conflicts[end] = space;
+        conflictStart[size + 1] = end + 1;
+        addDependency(space, size);
+    }
+
+    private void addDependency(Space space, int player) {
+        if (dependencyCount == dependencyPlayer.length) {
+            dependencyPlayer = Arrays.copyOf(dependencyPlayer, 2 * dependencyCount);
+            dependencyNext = Arrays.copyOf(dependencyNext, 2 * dependencyCount);
+        }
+        int index = index(space);
+        dependencyPlayer[dependencyCount] = player;
+        dependencyNext[dependencyCount] = firstDependency[index];
+        firstDependency[index] = dependencyCount++;
+    }
+
+    private int index(Space space) {
+        return space.x * board.height + space.y;
+    }
+
+    private void clear() {
+        for (int i = 0; i < size; i++) {
+            firstDependency[index(spaces[i])] = -1;
+            occupation[index(spaces[i])] = UNCHANGED;
+            if (targets[i] != null) {
+                firstDependency[index(targets[i])] = -1;
+                occupation[index(targets[i])] = UNCHANGED;
+            }
+            for (int c = conflictStart[i]; c < conflictStart[i + 1]; c++) {
+                firstDependency[index(conflicts[c])] = -1;
+            }
+        }
+        Arrays.fill(players, 0, size, null);
+        Arrays.fill(spaces, 0, size, null);
+        Arrays.fill(targets, 0, size, null);
+        Arrays.fill(conflicts, 0, conflictStart[size], null);
+        dependencyCount = 0;
+        moveCount = 0;
+        size = 0;
+    }
+
+}
@@ -21,12 +21,14 @@
  */
 package dk.dtu.compute.se.pisd.roborally.controller;
 
+import dk.dtu.compute.se.pisd.designpatterns.observer.ChangeScope;
 import dk.dtu.compute.se.pisd.roborally.controller.exception.ImpossibleMoveException;
 import dk.dtu.compute.se.pisd.roborally.model.*;
-import javafx.scene.control.Alert;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * ...
@@ -36,12 +38,91 @@ import java.util.ArrayList;
 public class GameController {
 
     final public Board board;
-    // arrays containing players that are on conveyor belts but could not be moved right away
-    private final ArrayList<Player> conveyorMovementRetryQueue = new ArrayList<>();
-    private ArrayList<Player> conveyorMovementRetryQueueCopy = new ArrayList<>();
+    // the random source of this game, which is used for shuffling the decks
+    private final RandomGenerator random;
+    // the seed of the random source; null if the random source was given
+    private final Long seed;
+    // moves the players on conveyor belts at the end of a round
+    private final ConveyorResolver conveyorResolver;
+    // number of times a conveyor belt could not move a player during this game
+    private int blockedConveyorMoves = 0;
+
+    // informed when the game is won; by default nothing happens, so that the
+    // controller can run without any GUI (the GUI registers its own listener)
+    private GameOutcomeListener outcomeListener = (gameController, winner) -> {};
+
+    // informed about all events of the game, e.g. for recording the game
+    private GameEventListener eventListener = GameEventListener.NONE;
 
+    /**
+     * Creates a controller for a board with a random seed.
+     *
+     * @param board the board of the game
+     */
     public GameController(@NotNull Board board) {
+        this(board, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a controller for a board, which deals the cards randomly
+     * from the given seed. Two games with the same seed and the same moves
+     * of the players are played exactly the same.
+     *
+     * @param board the board of the game
+     * @param seed the seed of the random source
+     */
+    public GameController(@NotNull Board board, long seed) {
+        this(board, new SplittableRandom(seed), seed);
+    }
+
+    /**
+     * Creates a controller for a board, which deals the cards with the
+     * given random source. The random source must not be used by other
+     * threads while the game is played.
+     *
+     * @param board the board of the game
+     * @param random the random source
+     */
+    public GameController(@NotNull Board board, @NotNull RandomGenerator random) {
+        this(board, random, null);
+    }
+
+    private GameController(Board board, RandomGenerator random, Long seed) {
         this.board = board;
+        this.random = random;
+        this.seed = seed;
+        this.conveyorResolver = new ConveyorResolver(board);
+    }
+
+    /**
+     * Get the seed, from which the cards of this game are dealt.
+     *
+     * @return the seed, or null if the controller was created with its own random source
+     */
+    public Long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Sets the listener which is informed when a player wins the game.
+     *
+     * @param outcomeListener the listener; if null, the outcome of the game is not reported
+     */
+    public void setOutcomeListener(GameOutcomeListener outcomeListener) {
+        if (outcomeListener == null) {
+            this.outcomeListener = (gameController, winner) -> {};
+        } else {
+            this.outcomeListener = outcomeListener;
+        }
+    }
+
+    /**
+     * Sets the listener which is informed about all events of the game.
+     *
+     * @param eventListener the listener; if null, the events are not reported
+     */
+    public void setEventListener(GameEventListener eventListener) {
+        this.eventListener = eventListener != null ? eventListener : GameEventListener.NONE;
     }
 
     /**
@@ -56,6 +137,7 @@ public class GameController {
         if (space.getPlayer() == null) {
             currentPlayer.getSpace().setPlayer(null);
             space.setPlayer(currentPlayer);
+            eventListener.playerMoved(currentPlayer);
             board.setCurrentPlayer(board.getNextPlayer());
         }
     }
@@ -81,46 +163,45 @@ public class GameController {
             }
         }
         pusher.setSpace(space);
+        eventListener.playerMoved(pusher);
     }
 
     /**
-     * Start the programming phase by clearing the programming fields
-     * for all players and generating random command cards in their
-     * card fields.
+     * Start the programming phase by putting the cards of all players
+     * on their discard piles and dealing new cards from their decks
+     * into their card fields.
      */
     public void startProgrammingPhase() {
-        board.setPhase(Phase.PROGRAMMING);
-        board.setCurrentPlayer(board.getPlayer(0));
-        board.setStep(0);
+        try (ChangeScope scope = ChangeScope.open()) {
+            board.setPhase(Phase.PROGRAMMING);
+            board.setCurrentPlayer(board.getPlayer(0));
+            board.setStep(0);
+            eventListener.roundStarted(board.getCounter());
 
-        for (int i = 0; i < board.getPlayersNumber(); i++) {
-            Player player = board.getPlayer(i);
-            if (player != null) {
-                for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
-                    CommandCardField field = player.getProgramField(j);
-                    field.setCard(null);
-                    field.setVisible(true);
-                }
-                for (int j = 0; j < Player.NO_CARDS; j++) {
-                    CommandCardField field = player.getCardField(j);
-                    field.setCard(generateRandomCommandCard());
-                    field.setVisible(true);
+            for (int i = 0; i < board.getPlayersNumber(); i++) {
+                Player player = board.getPlayer(i);
+                if (player != null) {
+                    Deck deck = player.getDeck();
+                    for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+                        CommandCardField field = player.getProgramField(j);
+                        deck.discard(field.getCard());
+                        field.setCard(null);
+                        field.setVisible(true);
+                    }
+                    for (int j = 0; j < Player.NO_CARDS; j++) {
+                        deck.discard(player.getCardField(j).getCard());
+                    }
+                    for (int j = 0; j < Player.NO_CARDS; j++) {
+                        CommandCardField field = player.getCardField(j);
+                        field.setCard(deck.draw(random));
+                        field.setVisible(true);
+                    }
+                    eventListener.cardsDealt(player);
                 }
             }
         }
     }
 
-    /**
-     * Generate a random command card
-     *
-     * @return a random command card
-     */
-    private CommandCard generateRandomCommandCard() {
-        Command[] commands = Command.values();
-        int random = (int) (Math.random() * commands.length);
-        return new CommandCard(commands[random]);
-    }
-
     /**
      * Finish the programming phase, moving to the activation
      * phase.
@@ -131,19 +212,21 @@ public class GameController {
         board.setPhase(Phase.ACTIVATION);
         board.setCurrentPlayer(board.getPlayer(0));
         board.setStep(0);
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            eventListener.programCommitted(board.getPlayer(i));
+        }
     }
 
     /**
-     * Ends the game, creates a popup window showing the winner
+     * Ends the game and informs the outcome listener about the winner
+     * (in the GUI, this shows a popup window with the winner).
      *
      * @param winner winner of the game
      */
     public void startWinning(Player winner) {
         board.setPhase(Phase.FINISHED);
-
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setContentText(winner.getName() + " is the winner!");
-        alert.show();
+        eventListener.gameWon(winner);
+        outcomeListener.onWinner(this, winner);
     }
 
     /**
@@ -203,29 +286,33 @@ public class GameController {
      * Execute the next command for the next player
      */
     private void executeNextStep() {
-        Player currentPlayer = board.getCurrentPlayer();
-        if (board.getPhase() == Phase.ACTIVATION && currentPlayer != null) {
-            int step = board.getStep();
-            if (step >= 0 && step < Player.NUMBER_OF_REGISTERS) {
-                CommandCard card = currentPlayer.getProgramField(step).getCard();
-                if (card != null) {
-                    Command command = card.command;
-                    if (command == Command.RIGHT_OR_LEFT) {
-                        // the Right or left case changes phase to interactive
-                        executeCommand(currentPlayer, command);
-                        return; // breaks the game loop execution till player interaction is done
-                    } else {
-                        executeCommand(currentPlayer, command);
+        // the views are updated only once for all changes of the step
+        try (ChangeScope scope = ChangeScope.open()) {
+            Player currentPlayer = board.getCurrentPlayer();
+            if (board.getPhase() == Phase.ACTIVATION && currentPlayer != null) {
+                int step = board.getStep();
+                if (step >= 0 && step < Player.NUMBER_OF_REGISTERS) {
+                    CommandCard card = currentPlayer.getProgramField(step).getCard();
+                    if (card != null) {
+                        Command command = card.command;
+                        eventListener.commandExecuted(currentPlayer, step, command);
+                        if (command == Command.RIGHT_OR_LEFT) {
+                            // the Right or left case changes phase to interactive
+                            executeCommand(currentPlayer, command);
+                            return; // breaks the game loop execution till player interaction is done
+                        } else {
+                            executeCommand(currentPlayer, command);
+                        }
                     }
+                    continueNextStep(currentPlayer);
+                } else {
+                    // this should not happen
+                    assert false;
                 }
-                continueNextStep(currentPlayer);
             } else {
                 // this should not happen
                 assert false;
             }
-        } else {
-            // this should not happen
-            assert false;
         }
     }
 
@@ -326,6 +413,7 @@ public class GameController {
      */
     public void turnRight(@NotNull Player player) {
         player.setHeading(player.getHeading().next());
+        eventListener.playerMoved(player);
     }
 
     /**
@@ -335,6 +423,7 @@ public class GameController {
      */
     public void turnLeft(@NotNull Player player) {
         player.setHeading(player.getHeading().prev());
+        eventListener.playerMoved(player);
     }
 
     /**
@@ -344,6 +433,7 @@ public class GameController {
      */
     public void uTurn(@NotNull Player player) {
         player.setHeading(player.getHeading().opposite());
+        eventListener.playerMoved(player);
     }
 
     /**
@@ -369,15 +459,20 @@ public class GameController {
      * @param direction the chosen direction the player want to turn
      */
     public void turnRightOrLeft(@NotNull Player player, String direction) {
-        if (direction.equals("Right")) {
-            turnRight(player);
-        } else if (direction.equals("Left")) {
-            turnLeft(player);
+        try (ChangeScope scope = ChangeScope.open()) {
+            if (direction.equals("Right")) {
+                turnRight(player);
+            } else if (direction.equals("Left")) {
+                turnLeft(player);
+            }
+            // resets the interactive player phase
+            board.setPhase(Phase.ACTIVATION);
+            eventListener.choiceMade(player);
+            continueNextStep(player);  // continue execution of the game loop
         }
-        // resets the interactive player phase
-        board.setPhase(Phase.ACTIVATION);
-        continueNextStep(player);  // continue execution of the game loop
-        if (!board.isStepMode()) {  // resumes the stepMode the game was in
+        // resumes the stepMode the game was in (unless the interactive card was
+        // the last one of the round, in which case the activation phase is over)
+        if (!board.isStepMode() && board.getPhase() == Phase.ACTIVATION) {
             continuePrograms();
         }
     }
@@ -414,6 +509,7 @@ public class GameController {
         if (neighbourSpace.getPlayer() == null) {
             player.getSpace().setPlayer(null);
             neighbourSpace.setPlayer(player);
+            eventListener.conveyorMoved(player);
             return true;
         } else {
             return false;
@@ -421,63 +517,44 @@ public class GameController {
     }
 
     /**
-     * Helper method for conveyor logic, adds player to the retry queue.
+     * Records that a conveyor belt could not move a player due to a
+     * conflict with another conveyor belt.
+     */
+    void countBlockedConveyorMove() {
+        blockedConveyorMoves++;
+    }
+
+    /**
+     * Get the number of times a conveyor belt could not move a player
+     * (because of a wall, another player or a conflicting conveyor belt)
+     * during this game.
      *
-     * @param player player who might be moved by conveyor belt
+     * @return the number of blocked conveyor moves
      */
-    public void addToConveyorRetryQueue(Player player) {
-        conveyorMovementRetryQueue.add(player);
+    public int getBlockedConveyorMoves() {
+        return blockedConveyorMoves;
     }
 
     /**
-     * Execute field actions for the spaces that has a player
+     * Execute field actions for the spaces that has a player. The conveyor belts are
+     * executed last and for all players at once, so that players on a belt can follow
+     * each other (see {@link ConveyorResolver}).
      */
-    private void executeFieldActions() {
-        conveyorMovementRetryQueue.clear();
-        conveyorMovementRetryQueueCopy.clear();
+    void executeFieldActions() {
         // Looping through the players to get the actions of the space they are on.
         for (int i = 0; i < board.getPlayersNumber(); i++) {
             Player currentPlayer = board.getPlayer(i);
             Space space = currentPlayer.getSpace();
             // execute all the actions for the given space.
             for (FieldAction action : space.getActions()) {
-                action.doAction(this, space);
-            }
-        }
-    }
-
-    /**
-     * if a player on the conveyor belt couldn't be moved right away they are checked again
-     */
-    private void processBlockedConveyorPlayers() {
-        while (!this.conveyorMovementRetryQueue.isEmpty()) {
-            /*
-             * This loop makes sure that players that were initially blocked while conveyor belt tried
-             * to move them get another chance to be moved.
-             * The GameController class creates a list of the players that couldn't be moved along with
-             * a copy that is used to check loop conditions.
-             * If the list of player that hasn't been moved is unchanged the loop terminates,
-             * otherwise it keeps running till there is no more players that should be moved by conveyor belt.
-             */
-
-            boolean listUnchanged = this.conveyorMovementRetryQueue.containsAll(this.conveyorMovementRetryQueueCopy) && this.conveyorMovementRetryQueueCopy.containsAll(this.conveyorMovementRetryQueue);
-            // if the list is of players is the same as in last iteration terminate loop.
-            if (listUnchanged) {
-                break;
-            }
-
-            this.conveyorMovementRetryQueueCopy = new ArrayList<>(this.conveyorMovementRetryQueue);
-            this.conveyorMovementRetryQueue.clear();
-
-            // loop through the list of player that have not performed conveyor belt action.
-            for (int i = conveyorMovementRetryQueueCopy.size() - 1; i >= 0; i--) {
-                Player player = conveyorMovementRetryQueueCopy.get(i);
-                Space space = player.getSpace();
-                for (FieldAction action : space.getActions()) {
+                if (action instanceof ConveyorBelt belt) {
+                    conveyorResolver.add(currentPlayer, space, belt);
+                } else {
                     action.doAction(this, space);
                 }
             }
         }
+        blockedConveyorMoves += conveyorResolver.resolve(eventListener);
     }
 
     /**
@@ -498,7 +575,6 @@ public class GameController {
                 board.setCurrentPlayer(board.getPlayer(0));
             } else {
                 executeFieldActions();
-                processBlockedConveyorPlayers();
                 if (board.getPhase() != Phase.FINISHED) {
                     board.setCounter(board.getCounter() + 1);
                     startProgrammingPhase();
@@ -507,6 +583,17 @@ public class GameController {
         }
     }
 
+    /**
+     * Moves on the player to their next checkpoint, when the player has
+     * reached a checkpoint.
+     *
+     * @param player the player who reached the checkpoint
+     */
+    void reachCheckpoint(@NotNull Player player) {
+        player.incrementNextCheckpoint();
+        eventListener.checkpointReached(player);
+    }
+
     /**
      * Checks if the player is a winner
      *
@@ -0,0 +1,209 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A headless engine for playing RoboRally games without any GUI. The engine
+ * wraps a {@link GameController} and its {@link Board} and plays complete rounds
+ * (programming, activation and field actions) on behalf of the players. It
+ * does not use any JavaFX classes, so that it can be used for running
+ * (many) simulated games, e.g. on a server.
+ * <p>
+ * In the programming phase, every player simply programs the first cards
+ * of their hand into the registers. When an interactive card is executed,
+ * the engine always chooses to turn right.
+ */
+public class GameEngine {
+
+    private final static List<String> PLAYER_COLORS = List.of("red", "green", "blue", "orange", "grey", "magenta");
+
+    final public GameController gameController;
+
+    final public Board board;
+
+    private Player winner;
+
+    /**
+     * Creates an engine for a board, which already has its players.
+     *
+     * @param board the board of the game
+     */
+    public GameEngine(@NotNull Board board) {
+        this(new GameController(board));
+    }
+
+    /**
+     * Creates an engine for a board, which already has its players, and
+     * deals the cards from the given seed. Since the engine always plays
+     * the same way, a game is fully determined by its board and its seed.
+     *
+     * @param board the board of the game
+     * @param seed the seed for dealing the cards
+     */
+    public GameEngine(@NotNull Board board, long seed) {
+        this(new GameController(board, seed));
+    }
+
+    private GameEngine(GameController gameController) {
+        this.board = gameController.board;
+        this.gameController = gameController;
+        this.gameController.setOutcomeListener((controller, winner) -> this.winner = winner);
+    }
+
+    /**
+     * Creates a new game on the board with the given name (see
+     * {@link BoardFactory#getBoardNames()}) with the given number of players.
+     *
+     * @param boardName the name of the board
+     * @param playerCount the number of players
+     * @return the engine for the new game
+     */
+    public static GameEngine createGame(@NotNull String boardName, int playerCount) {
+        return new GameEngine(createBoard(boardName, playerCount));
+    }
+
+    /**
+     * Creates a new game on the board with the given name with the given
+     * number of players, which deals the cards from the given seed.
+     *
+     * @param boardName the name of the board
+     * @param playerCount the number of players
+     * @param seed the seed for dealing the cards
+     * @return the engine for the new game
+     */
+    public static GameEngine createGame(@NotNull String boardName, int playerCount, long seed) {
+        return new GameEngine(createBoard(boardName, playerCount), seed);
+    }
+
+    private static Board createBoard(String boardName, int playerCount) {
+        Board board = BoardFactory.getInstance().createBoard(boardName);
+        if (playerCount < 1 || playerCount > board.width * board.height) {
+            throw new IllegalArgumentException("The board does not have space for " + playerCount + " players");
+        }
+        for (int i = 0; i < playerCount; i++) {
+            Player player = new Player(board, PLAYER_COLORS.get(i % PLAYER_COLORS.size()), "Player " + (i + 1));
+            board.addPlayer(player);
+            player.setSpace(getStartSpace(board, i));
+        }
+        return board;
+    }
+
+    /**
+     * Computes the start space of the player with the given number. This is the
+     * same space as the GUI uses, if that space exists and is free; otherwise,
+     * the first free space of the board is used.
+     */
+    private static Space getStartSpace(Board board, int playerNumber) {
+        Space space = board.getSpace(playerNumber % board.width, playerNumber);
+        if (space != null && space.getPlayer() == null) {
+            return space;
+        }
+        for (int y = 0; y < board.height; y++) {
+            for (int x = 0; x < board.width; x++) {
+                space = board.getSpace(x, y);
+                if (space.getPlayer() == null) {
+                    return space;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Plays one complete round of the game: the cards are dealt (if this
+     * was not done already), all players program their registers, and the
+     * programs and the field actions are executed.
+     *
+     * @return true if the game is still running after the round, false if it is finished
+     */
+    public boolean playRound() {
+        if (programRound()) {
+            gameController.executePrograms();
+            while (board.getPhase() == Phase.PLAYER_INTERACTION) {
+                gameController.turnRightOrLeft(board.getCurrentPlayer(), "Right");
+            }
+        }
+        return !isFinished();
+    }
+
+    /**
+     * Deals the cards (if this was not done already), programs the registers
+     * of all players and starts the activation phase.
+     *
+     * @return true if the activation phase was started, false if the game
+     *         was not in the programming phase
+     */
+    boolean programRound() {
+        if (board.getPhase() == Phase.INITIALISATION) {
+            gameController.startProgrammingPhase();
+        }
+        if (board.getPhase() != Phase.PROGRAMMING) {
+            return false;
+        }
+
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            programPlayer(board.getPlayer(i));
+        }
+        gameController.finishProgrammingPhase();
+        return true;
+    }
+
+    /**
+     * Plays rounds until the game is finished or the maximum number of
+     * rounds is reached.
+     *
+     * @param maxRounds the maximum number of rounds to play
+     * @return the number of rounds played
+     */
+    public int playGame(int maxRounds) {
+        int rounds = 0;
+        while (rounds < maxRounds && !isFinished()) {
+            playRound();
+            rounds++;
+        }
+        return rounds;
+    }
+
+    /**
+     * Moves the first cards of the player's hand into the player's registers.
+     *
+     * @param player the player to program
+     */
+    private void programPlayer(@NotNull Player player) {
+        int register = 0;
+        for (int i = 0; i < Player.NO_CARDS && register < Player.NUMBER_OF_REGISTERS; i++) {
+            CommandCardField cardField = player.getCardField(i);
+            if (cardField.getCard() != null) {
+                CommandCardField programField = player.getProgramField(register++);
+                programField.setCard(cardField.getCard());
+                cardField.setCard(null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the game is finished.
+     *
+     * @return true if the game is finished
+     */
+    public boolean isFinished() {
+        return board.getPhase() == Phase.FINISHED;
+    }
+
+    /**
+     * Get the winner of the game.
+     *
+     * @return the winner of the game, or null if nobody has won (yet)
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
+}
@@ -0,0 +1,92 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener which is informed by the {@link GameController} about
+ * everything that happens in a game: the dealt and programmed cards, the
+ * executed commands and all their effects on the players. It is called
+ * after the respective change was made to the board. The listener can,
+ * e.g., record the game in a log (see {@link dk.dtu.compute.se.pisd.roborally.dal.GameEventLog}).
+ * <p>
+ * All methods do nothing by default, so that a listener needs to implement
+ * only the events it is interested in.
+ */
+public interface GameEventListener {
+
+    /**
+     * A listener, which ignores all events.
+     */
+    GameEventListener NONE = new GameEventListener() {};
+
+    /**
+     * Called when a new round starts, before the cards are dealt.
+     *
+     * @param counter the number of the round
+     */
+    default void roundStarted(int counter) {}
+
+    /**
+     * Called when the cards were dealt into the card fields of a player.
+     *
+     * @param player the player
+     */
+    default void cardsDealt(@NotNull Player player) {}
+
+    /**
+     * Called for every player, when the programming phase is finished.
+     *
+     * @param player the player, whose registers are programmed
+     */
+    default void programCommitted(@NotNull Player player) {}
+
+    /**
+     * Called when the command of a register is executed, before its
+     * effects.
+     *
+     * @param player the player
+     * @param step the register
+     * @param command the command of the card in the register
+     */
+    default void commandExecuted(@NotNull Player player, int step, @NotNull Command command) {}
+
+    /**
+     * Called when a player was moved or turned by a command (or pushed by
+     * another player).
+     *
+     * @param player the player with the new space and heading
+     */
+    default void playerMoved(@NotNull Player player) {}
+
+    /**
+     * Called when a player has made the choice of an interactive command
+     * (the effect of the choice is reported by {@link #playerMoved(Player)}).
+     *
+     * @param player the player
+     */
+    default void choiceMade(@NotNull Player player) {}
+
+    /**
+     * Called when a player was moved by a conveyor belt.
+     *
+     * @param player the player with the new space
+     */
+    default void conveyorMoved(@NotNull Player player) {}
+
+    /**
+     * Called when a player has reached their next checkpoint.
+     *
+     * @param player the player with the number of the next checkpoint
+     */
+    default void checkpointReached(@NotNull Player player) {}
+
+    /**
+     * Called when a player has won the game.
+     *
+     * @param player the winner
+     */
+    default void gameWon(@NotNull Player player) {}
+
+}
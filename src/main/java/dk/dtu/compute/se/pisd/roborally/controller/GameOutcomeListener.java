@@ -0,0 +1,24 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener which is informed by the {@link GameController} when a game
+ * has been decided. The GUI uses it for showing a popup with the winner,
+ * while headless games (e.g. simulations) can just record the result.
+ * This way, the game logic does not depend on JavaFX.
+ */
+@FunctionalInterface
+public interface GameOutcomeListener {
+
+    /**
+     * Called when a player has reached the last checkpoint and the game
+     * is finished.
+     *
+     * @param gameController the controller of the finished game
+     * @param winner the player who won the game
+     */
+    void onWinner(@NotNull GameController gameController, @NotNull Player winner);
+
+}
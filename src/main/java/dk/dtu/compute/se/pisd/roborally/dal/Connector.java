@@ -30,10 +30,28 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 /**
- * ...
+ * The connector provides the connections to the database. It keeps a small
+ * pool of connections, so that several games can access the database at
+ * the same time: a connection is borrowed by {@link #getConnection()} and
+ * must be given back by {@link #releaseConnection(Connection)} after use.
+ * A connection is validated when it is borrowed from the pool, and
+ * connections, which were not used for some time, are closed when a
+ * connection is borrowed or released and regularly by a background timer. The size of
+ * the pool and the idle timeout can be configured in the file
+ * db.properties. The database schema is created only once, when the
+ * connector is created.
  *
  * @author Ekkart Kindler, ekki@dtu.dk
  *
@@ -45,26 +63,59 @@ class Connector {
 	private static final String  PROP_DB = "DATABASE";
 	private static final String  PROP_USERNAME = "USERNAME";
 	private static final String  PROP_PASSWORD = "PASSWORD";
+	private static final String  PROP_POOL_SIZE = "POOL_SIZE";
+	private static final String  PROP_POOL_IDLE_TIMEOUT = "POOL_IDLE_TIMEOUT";
 
 	private static final String PATH_TO_PROPFILE = "properties/db.properties";
 
+	private static final int DEFAULT_POOL_SIZE = 4;
+	private static final int DEFAULT_POOL_IDLE_TIMEOUT = 300;
+
+	// the number of seconds to wait for the validation of a connection
+	private static final int VALIDATION_TIMEOUT = 5;
+
 	private final String HOST;
 	private final int    PORT;
 	private final String DATABASE;
 	private final String USERNAME;
 	private final String PASSWORD;
 
+	private final int POOL_SIZE;
+	private final long POOL_IDLE_TIMEOUT_MILLIS;
+
     private static final String DELIMITER = ";;";
-    
-    private Connection connection;
-        
+
+	private final String url;
+
+	// limits the number of connections, which are borrowed at the same time
+	private final Semaphore permits;
+
+	// the connections, which are not in use; the most recently released
+	// connection is first. Access must be synchronized on the deque.
+	private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+
+	private boolean closed = false;
+
+	private record IdleConnection(Connection connection, long since) {}
+
+	// closes the idle connections regularly, also when the pool is not used
+	private final ScheduledExecutorService evictionTimer;
+
+	/**
+	 * Opens a new connection to the database.
+	 */
+	interface ConnectionFactory {
+		Connection open() throws SQLException;
+	}
+
+	private final ConnectionFactory connectionFactory;
+
+	// the current time in milliseconds, by which idle connections are evicted
+	private final LongSupplier clock;
+
     Connector() {
 		try {
-			ClassLoader classLoader = Connector.class.getClassLoader();
-			InputStream input = classLoader.getResourceAsStream(PATH_TO_PROPFILE);
-
-			Properties properties = new Properties();
-			properties.load(input);
+			Properties properties = loadProperties();
 
 			HOST = properties.getProperty(PROP_HOST);
 			String port = properties.getProperty(PROP_PORT);
@@ -80,16 +131,37 @@ class Connector {
 				throw new RuntimeException(
 						"Database access information are missing, incomplete or wrong in " +
 						"'db.properties' file.");
+
+			POOL_SIZE = Integer.parseInt(properties.getProperty(
+					PROP_POOL_SIZE, Integer.toString(DEFAULT_POOL_SIZE)).trim());
+			POOL_IDLE_TIMEOUT_MILLIS = 1000L * Integer.parseInt(properties.getProperty(
+					PROP_POOL_IDLE_TIMEOUT, Integer.toString(DEFAULT_POOL_IDLE_TIMEOUT)).trim());
+			if (POOL_SIZE < 1 || POOL_IDLE_TIMEOUT_MILLIS < 0) {
+				throw new RuntimeException(
+						"The pool size or the idle timeout in the 'db.properties' file are illegal.");
+			}
 		} catch (IOException | NumberFormatException e ) {
             throw new RuntimeException(e);
         }
 
-        try {
-			// String url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE;
-			String url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE + "?serverTimezone=UTC";
-			connection = DriverManager.getConnection(url, USERNAME, PASSWORD);
+		// with rewriteBatchedStatements, the driver sends a batch of statements
+		// to the database in a single round trip (see Repository); since the
+		// repository prepares its statements for every use of a connection,
+		// the driver should cache the prepared statements
+		url = "jdbc:mysql://" + HOST + ":" + PORT + "/" + DATABASE +
+				"?serverTimezone=UTC&rewriteBatchedStatements=true&cachePrepStmts=true";
+		permits = new Semaphore(POOL_SIZE, true);
+		connectionFactory = () -> DriverManager.getConnection(url, USERNAME, PASSWORD);
+		clock = System::currentTimeMillis;
+		evictionTimer = POOL_IDLE_TIMEOUT_MILLIS > 0 ? startEvictionTimer() : null;
 
-			createDatabaseSchema();
+        try {
+			Connection connection = getConnection();
+			try {
+				createDatabaseSchema(connection);
+			} finally {
+				releaseConnection(connection);
+			}
 		} catch (SQLException e) {
 			// TODO we should try to diagnose and fix some problems here and
 			//      exit in a more graceful way
@@ -97,8 +169,78 @@ class Connector {
 		}
     }
     
-    private void createDatabaseSchema() {
+	/**
+	 * Creates a connector, which opens its connections by the given factory
+	 * instead of the database in the file db.properties, e.g. for tests. The
+	 * database schema is not created, and the idle connections are closed
+	 * only when a connection is borrowed or released.
+	 *
+	 * @param poolSize the maximum number of connections in use
+	 * @param poolIdleTimeoutMillis the time after which an idle connection is closed
+	 * @param connectionFactory the factory for new connections
+	 */
+	Connector(int poolSize, long poolIdleTimeoutMillis, ConnectionFactory connectionFactory) {
+		this(poolSize, poolIdleTimeoutMillis, System::currentTimeMillis, connectionFactory);
+	}
+
+	/**
+	 * Creates a connector like {@link #Connector(int, long, ConnectionFactory)},
+	 * which measures the idle time of the connections by the given clock.
+	 *
+	 * @param poolSize the maximum number of connections in use
+	 * @param poolIdleTimeoutMillis the time after which an idle connection is closed
+	 * @param clock the current time in milliseconds
+	 * @param connectionFactory the factory for new connections
+	 */
+	Connector(int poolSize, long poolIdleTimeoutMillis, LongSupplier clock, ConnectionFactory connectionFactory) {
+		HOST = null;
+		PORT = 0;
+		DATABASE = null;
+		USERNAME = null;
+		PASSWORD = null;
+		url = null;
+		POOL_SIZE = poolSize;
+		POOL_IDLE_TIMEOUT_MILLIS = poolIdleTimeoutMillis;
+		permits = new Semaphore(POOL_SIZE, true);
+		this.connectionFactory = connectionFactory;
+		this.clock = clock;
+		evictionTimer = null;
+	}
+
+	/**
+	 * Starts a daemon thread, which closes the idle connections regularly.
+	 */
+	private ScheduledExecutorService startEvictionTimer() {
+		ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Connector eviction");
+			thread.setDaemon(true);
+			return thread;
+		});
+		timer.scheduleWithFixedDelay(this::evictIdleConnections,
+				POOL_IDLE_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		return timer;
+	}
 
+	/**
+	 * Loads the properties with the database access information from the
+	 * file db.properties.
+	 *
+	 * @return the properties
+	 * @throws IOException if the file could not be read
+	 */
+	static Properties loadProperties() throws IOException {
+		ClassLoader classLoader = Connector.class.getClassLoader();
+		try (InputStream input = classLoader.getResourceAsStream(PATH_TO_PROPFILE)) {
+			if (input == null) {
+				throw new IOException("The file '" + PATH_TO_PROPFILE + "' is missing.");
+			}
+			Properties properties = new Properties();
+			properties.load(input);
+			return properties;
+		}
+	}
+
+    private void createDatabaseSchema(Connection connection) {
     	String createTablesStatement =
 				IOUtil.readResource("schemas/createschema.sql");
 
@@ -128,8 +270,139 @@ class Connector {
 		}
     }
     
-    Connection getConnection() {
-    	return connection; 
-    }
-    
+	/**
+	 * Borrows a connection from the pool. If all connections are in use, this
+	 * waits until a connection is released. The connection is in auto-commit
+	 * mode and must be released by {@link #releaseConnection(Connection)}.
+	 *
+	 * @return a valid connection to the database
+	 * @throws SQLException if no connection to the database could be opened
+	 */
+	Connection getConnection() throws SQLException {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection", e);
+		}
+		try {
+			while (true) {
+				IdleConnection idle;
+				List<Connection> evicted = new ArrayList<>();
+				synchronized (idleConnections) {
+					if (closed) {
+						throw new SQLException("The connector is closed");
+					}
+					evictIdleConnections(evicted);
+					idle = idleConnections.pollFirst();
+				}
+				evicted.forEach(this::closeQuietly);
+				if (idle == null) {
+					return connectionFactory.open();
+				}
+				if (isValid(idle.connection())) {
+					return idle.connection();
+				}
+				closeQuietly(idle.connection());
+			}
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Gives a connection, which was borrowed by {@link #getConnection()},
+	 * back to the pool. A transaction, which was not committed, is rolled back.
+	 *
+	 * @param connection the connection
+	 */
+	void releaseConnection(Connection connection) {
+		try {
+			boolean reusable = false;
+			try {
+				if (!connection.isClosed()) {
+					if (!connection.getAutoCommit()) {
+						connection.rollback();
+						connection.setAutoCommit(true);
+					}
+					reusable = true;
+				}
+			} catch (SQLException e) {
+				// the connection is closed below
+			}
+
+			List<Connection> evicted = new ArrayList<>();
+			synchronized (idleConnections) {
+				if (reusable && !closed) {
+					idleConnections.offerFirst(new IdleConnection(connection, clock.getAsLong()));
+				} else {
+					evicted.add(connection);
+				}
+				evictIdleConnections(evicted);
+			}
+			evicted.forEach(this::closeQuietly);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * Closes all connections in the pool; connections, which are in use,
+	 * are closed when they are released.
+	 */
+	void close() {
+		if (evictionTimer != null) {
+			evictionTimer.shutdownNow();
+		}
+		List<Connection> connections = new ArrayList<>();
+		synchronized (idleConnections) {
+			closed = true;
+			for (IdleConnection idle : idleConnections) {
+				connections.add(idle.connection());
+			}
+			idleConnections.clear();
+		}
+		connections.forEach(this::closeQuietly);
+	}
+
+	/**
+	 * Closes the connections, which were not used for longer than the idle
+	 * timeout.
+	 */
+	private void evictIdleConnections() {
+		List<Connection> evicted = new ArrayList<>();
+		synchronized (idleConnections) {
+			evictIdleConnections(evicted);
+		}
+		evicted.forEach(this::closeQuietly);
+	}
+
+	/**
+	 * Removes the connections, which were not used for longer than the idle
+	 * timeout, from the pool and adds them to the given list. Since the most
+	 * recently used connections are at the front, these are at the end of the
+	 * deque. Must be called while synchronized on the idle connections.
+	 */
+	private void evictIdleConnections(List<Connection> evicted) {
+		long limit = clock.getAsLong() - POOL_IDLE_TIMEOUT_MILLIS;
+		while (!idleConnections.isEmpty() && idleConnections.peekLast().since() < limit) {
+			evicted.add(idleConnections.pollLast().connection());
+		}
+	}
+
+	private boolean isValid(Connection connection) {
+		try {
+			return connection.isValid(VALIDATION_TIMEOUT);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {}
+	}
+
 }
@@ -0,0 +1,67 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An event of a game, as it is recorded in a {@link GameEventLog}. The
+ * players are identified by their number on the board. The events contain
+ * the state of the game after the event (e.g. the new position of a moved
+ * player), so that a game can be replayed from its events without a
+ * controller and without any random source (see {@link GameReplay}).
+ * <p>
+ * The arrays of the events contain the commands of the cards in the card
+ * fields of a player (null for fields without a card); they must not be
+ * changed.
+ */
+public sealed interface GameEvent {
+
+    /**
+     * A new round was started.
+     */
+    record RoundStarted(int counter) implements GameEvent {}
+
+    /**
+     * The registers of a player were emptied and new cards were dealt into
+     * the card fields of the player.
+     */
+    record CardsDealt(int player, @NotNull Command[] cards) implements GameEvent {}
+
+    /**
+     * The programming phase was finished with the given program and the
+     * remaining cards in the hand of a player.
+     */
+    record ProgramCommitted(int player, @NotNull Command[] program, @NotNull Command[] cards) implements GameEvent {}
+
+    /**
+     * The command in a register of a player was executed.
+     */
+    record CommandExecuted(int player, int step, @NotNull Command command) implements GameEvent {}
+
+    /**
+     * A player was moved or turned by a command.
+     */
+    record PlayerMoved(int player, int x, int y, @NotNull Heading heading) implements GameEvent {}
+
+    /**
+     * A player made the choice of an interactive command.
+     */
+    record ChoiceMade(int player) implements GameEvent {}
+
+    /**
+     * A player was moved by a conveyor belt.
+     */
+    record ConveyorMoved(int player, int x, int y) implements GameEvent {}
+
+    /**
+     * A player reached a checkpoint and has the given next checkpoint now.
+     */
+    record CheckpointReached(int player, int nextCheckpoint) implements GameEvent {}
+
+    /**
+     * A player won the game.
+     */
+    record GameWon(int player) implements GameEvent {}
+
+}
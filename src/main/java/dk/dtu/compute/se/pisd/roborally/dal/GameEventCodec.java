@@ -0,0 +1,167 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CardsDealt;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CheckpointReached;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ChoiceMade;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CommandExecuted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ConveyorMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.GameWon;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.PlayerMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ProgramCommitted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.RoundStarted;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import static dk.dtu.compute.se.pisd.roborally.dal.GameSnapshotCodec.getCount;
+import static dk.dtu.compute.se.pisd.roborally.dal.GameSnapshotCodec.getEnum;
+import static dk.dtu.compute.se.pisd.roborally.dal.GameSnapshotCodec.getInt;
+import static dk.dtu.compute.se.pisd.roborally.dal.GameSnapshotCodec.putEnum;
+import static dk.dtu.compute.se.pisd.roborally.dal.GameSnapshotCodec.putInt;
+
+/**
+ * Encodes a {@link GameEvent} in a compact binary format and decodes it
+ * again. An encoded event is a single byte for the type of the event
+ * followed by its values, which are written like the values of the
+ * {@link GameSnapshotCodec} (variable length integers and single bytes for
+ * enums). So, most events take three to five bytes.
+ * <p>
+ * The codec does not keep any state, so it can be used by several threads
+ * at the same time.
+ */
+public final class GameEventCodec {
+
+    final private static byte ROUND_STARTED = 1;
+    final private static byte CARDS_DEALT = 2;
+    final private static byte PROGRAM_COMMITTED = 3;
+    final private static byte COMMAND_EXECUTED = 4;
+    final private static byte PLAYER_MOVED = 5;
+    final private static byte CHOICE_MADE = 6;
+    final private static byte CONVEYOR_MOVED = 7;
+    final private static byte CHECKPOINT_REACHED = 8;
+    final private static byte GAME_WON = 9;
+
+    final private static Heading[] HEADINGS = Heading.values();
+    final private static Command[] COMMANDS = Command.values();
+
+    private GameEventCodec() {
+    }
+
+    /**
+     * Encodes an event into a buffer, starting at the position of the
+     * buffer. After that, the position of the buffer is behind the encoded
+     * event.
+     *
+     * @param event the event
+     * @param buffer the buffer
+     * @throws BufferOverflowException if the buffer does not have enough room
+     */
+    public static void encode(@NotNull GameEvent event, @NotNull ByteBuffer buffer) {
+        switch (event) {
+            case RoundStarted e -> {
+                buffer.put(ROUND_STARTED);
+                putInt(buffer, e.counter());
+            }
+            case CardsDealt e -> {
+                buffer.put(CARDS_DEALT);
+                putInt(buffer, e.player());
+                putCommands(buffer, e.cards());
+            }
+            case ProgramCommitted e -> {
+                buffer.put(PROGRAM_COMMITTED);
+                putInt(buffer, e.player());
+                putCommands(buffer, e.program());
+                putCommands(buffer, e.cards());
+            }
+            case CommandExecuted e -> {
+                buffer.put(COMMAND_EXECUTED);
+                putInt(buffer, e.player());
+                putInt(buffer, e.step());
+                putEnum(buffer, e.command());
+            }
+            case PlayerMoved e -> {
+                buffer.put(PLAYER_MOVED);
+                putInt(buffer, e.player());
+                putInt(buffer, e.x());
+                putInt(buffer, e.y());
+                putEnum(buffer, e.heading());
+            }
+            case ChoiceMade e -> {
+                buffer.put(CHOICE_MADE);
+                putInt(buffer, e.player());
+            }
+            case ConveyorMoved e -> {
+                buffer.put(CONVEYOR_MOVED);
+                putInt(buffer, e.player());
+                putInt(buffer, e.x());
+                putInt(buffer, e.y());
+            }
+            case CheckpointReached e -> {
+                buffer.put(CHECKPOINT_REACHED);
+                putInt(buffer, e.player());
+                putInt(buffer, e.nextCheckpoint());
+            }
+            case GameWon e -> {
+                buffer.put(GAME_WON);
+                putInt(buffer, e.player());
+            }
+        }
+    }
+
+    /**
+     * Decodes an event from a buffer, starting at the position of the
+     * buffer. After that, the position of the buffer is behind the event.
+     *
+     * @param buffer the buffer
+     * @return the event
+     * @throws IllegalArgumentException if the data is not a valid event
+     */
+    public static GameEvent decode(@NotNull ByteBuffer buffer) {
+        try {
+            byte type = buffer.get();
+            return switch (type) {
+                case ROUND_STARTED -> new RoundStarted(getInt(buffer));
+                case CARDS_DEALT -> new CardsDealt(getInt(buffer), getCommands(buffer));
+                case PROGRAM_COMMITTED -> new ProgramCommitted(getInt(buffer), getCommands(buffer), getCommands(buffer));
+                case COMMAND_EXECUTED -> new CommandExecuted(getInt(buffer), getInt(buffer),
+                        notNull(getEnum(buffer, COMMANDS)));
+                case PLAYER_MOVED -> new PlayerMoved(getInt(buffer), getInt(buffer), getInt(buffer),
+                        notNull(getEnum(buffer, HEADINGS)));
+                case CHOICE_MADE -> new ChoiceMade(getInt(buffer));
+                case CONVEYOR_MOVED -> new ConveyorMoved(getInt(buffer), getInt(buffer), getInt(buffer));
+                case CHECKPOINT_REACHED -> new CheckpointReached(getInt(buffer), getInt(buffer));
+                case GAME_WON -> new GameWon(getInt(buffer));
+                default -> throw new IllegalArgumentException("Unknown type " + type + " of game event");
+            };
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The game event is truncated", e);
+        }
+    }
+
+    private static <T> T notNull(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The game event has a missing value");
+        }
+        return value;
+    }
+
+    private static void putCommands(ByteBuffer buffer, Command[] commands) {
+        putInt(buffer, commands.length);
+        for (Command command : commands) {
+            putEnum(buffer, command);
+        }
+    }
+
+    private static Command[] getCommands(ByteBuffer buffer) {
+        Command[] commands = new Command[getCount(buffer)];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = getEnum(buffer, COMMANDS);
+        }
+        return commands;
+    }
+
+}
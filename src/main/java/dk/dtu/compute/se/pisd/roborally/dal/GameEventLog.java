@@ -0,0 +1,560 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameController;
+import dk.dtu.compute.se.pisd.roborally.controller.GameEventListener;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CardsDealt;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CheckpointReached;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ChoiceMade;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CommandExecuted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ConveyorMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.GameWon;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.PlayerMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ProgramCommitted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.RoundStarted;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A log of all events of a game, which records the game while it is played.
+ * The log is attached to the {@link GameController} of the game as its
+ * {@link GameEventListener}; the events are encoded by the
+ * {@link GameEventCodec} into a single growing byte buffer. In addition,
+ * the log keeps encoded {@link GameSnapshot}s of the game, which are taken
+ * when the log is attached and whenever {@link #takeSnapshot()} is called.
+ * A {@link GameReplay} restores the state of the game after any event from
+ * the latest snapshot before that event and the events after the snapshot.
+ * <p>
+ * In order to bound the time for replaying a long game, the log takes a
+ * snapshot by itself every given number of rounds or events (whichever
+ * comes first). The listener methods are called while the controller
+ * changes the board, so the board is not always in the state after some
+ * number of events. Therefore, the log applies every recorded event to a
+ * board of its own (as a {@link GameReplay} would), and all snapshots after
+ * the first one are taken from that board. So, a snapshot at some event
+ * index is exactly the state, to which a replay of the events before that
+ * index restores the game, and snapshots do not change the result of
+ * seeking any point of the game. If the log is
+ * compacting, all events and snapshots before the latest snapshot are
+ * discarded whenever a snapshot is taken, so that the log does not grow
+ * with the length of the game; then, the game can be replayed only from
+ * the latest snapshot on.
+ * <p>
+ * The events are numbered from 0 in the order in which they happened; the
+ * numbers do not change when the log is compacted.
+ * The log is thread safe, so that it can be read (e.g. saved or replayed)
+ * in another thread while the game goes on.
+ * <p>
+ * A log is saved with its game (see {@link SaveQueue#save(Board, GameEventLog)})
+ * in {@link GameEventSegment}s: every save takes a segment with the events
+ * and snapshots since the previous save (see {@link #nextSegment()}), so
+ * a save does not write the whole log again. Once a segment was taken, a
+ * compacting log does not discard events, which were not saved yet. When
+ * the game is loaded again, a new log is {@link #restore(List) restored}
+ * from the saved segments and attached to the loaded game, so that it
+ * continues with the events of the loaded game.
+ */
+public class GameEventLog implements GameEventListener {
+
+    final private static int INITIAL_BUFFER_SIZE = 4096;
+
+    /**
+     * The default number of rounds after which a snapshot is taken.
+     */
+    final public static int DEFAULT_SNAPSHOT_ROUNDS = 10;
+
+    /**
+     * The default number of events after which a snapshot is taken.
+     */
+    final public static int DEFAULT_SNAPSHOT_EVENTS = 2000;
+
+    final private static int INITIAL_ROUNDS = 64;
+
+    /**
+     * A snapshot of the game before the event with the given index, which
+     * starts at the given offset in the buffer.
+     */
+    record Snapshot(long eventIndex, int offset, @NotNull byte[] data) {}
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    private long eventCount;
+
+    // the index of the first event in the buffer, which is not 0 after
+    // the log was compacted
+    private long firstEvent;
+
+    final private List<Snapshot> snapshots = new ArrayList<>();
+
+    // the counters of the recorded rounds and the indices of the first events
+    // after the cards of these rounds were dealt
+    private int[] roundCounters = new int[INITIAL_ROUNDS];
+    private long[] roundPositions = new long[INITIAL_ROUNDS];
+    private int roundCount;
+
+    final private int snapshotRounds;
+
+    final private int snapshotEvents;
+
+    final private boolean compacting;
+
+    // the counter of the round, when the latest snapshot was taken
+    private int snapshotCounter;
+
+    private Board board;
+
+    // whether segments of the log are saved, the end of the events of the
+    // latest segment (the saved events), the offset of that end in the
+    // buffer and the index of the latest saved snapshot
+    private boolean saving;
+    private long savedEvent;
+    private int savedOffset;
+    private long savedSnapshot = -1;
+
+    // the state of the game after the recorded events, as a replay restores
+    // it from the first snapshot; the snapshots are taken from this board
+    private Board replayed;
+
+    /**
+     * Creates a log, which takes a snapshot every {@link #DEFAULT_SNAPSHOT_ROUNDS}
+     * rounds or {@link #DEFAULT_SNAPSHOT_EVENTS} events and keeps all events.
+     */
+    public GameEventLog() {
+        this(DEFAULT_SNAPSHOT_ROUNDS, DEFAULT_SNAPSHOT_EVENTS, false);
+    }
+
+    /**
+     * Creates a log, which takes a snapshot whenever the given number of
+     * rounds or events were recorded after the latest snapshot.
+     *
+     * @param snapshotRounds the number of rounds between snapshots, or 0 for
+     *                       not taking snapshots by the number of rounds
+     * @param snapshotEvents the number of events between snapshots, or 0 for
+     *                       not taking snapshots by the number of events
+     * @param compacting whether the events and snapshots before the latest
+     *                   snapshot are discarded
+     */
+    public GameEventLog(int snapshotRounds, int snapshotEvents, boolean compacting) {
+        if (snapshotRounds < 0 || snapshotEvents < 0) {
+            throw new IllegalArgumentException("The number of rounds and events between snapshots must not be negative");
+        }
+        this.snapshotRounds = snapshotRounds;
+        this.snapshotEvents = snapshotEvents;
+        this.compacting = compacting;
+    }
+
+    /**
+     * Attaches this log to the controller of a game, so that all events of
+     * the game are recorded from now on, and takes the first snapshot of
+     * the game. A log can be attached to a single game only.
+     *
+     * @param gameController the controller of the game
+     */
+    public synchronized void attach(@NotNull GameController gameController) {
+        if (board != null) {
+            throw new IllegalStateException("The log is attached to a game already");
+        }
+        board = gameController.board;
+        gameController.setEventListener(this);
+        byte[] data = GameSnapshotCodec.encode(GameSnapshot.of(board));
+        replayed = GameReplay.createBoard(GameSnapshotCodec.decode(data));
+        addSnapshot(data);
+    }
+
+    /**
+     * Takes a snapshot of the state of the game after the events recorded so
+     * far, so that a replay of the game after this point does not need to
+     * apply the events before.
+     */
+    public synchronized void takeSnapshot() {
+        if (replayed == null) {
+            throw new IllegalStateException("The log is not attached to a game");
+        }
+        addSnapshot(GameSnapshotCodec.encode(GameSnapshot.of(replayed)));
+    }
+
+    private void addSnapshot(byte[] data) {
+        snapshots.add(new Snapshot(eventCount, buffer.position(), data));
+        snapshotCounter = replayed.getCounter();
+        if (compacting) {
+            compact();
+        }
+    }
+
+    /**
+     * Discards all events and snapshots before the latest snapshot. After
+     * that, the game can be replayed only from the latest snapshot on. If
+     * segments of the log are saved, the events after the saved events are
+     * kept; then, the log is compacted only up to the latest snapshot before
+     * the end of the saved events.
+     */
+    public synchronized void compact() {
+        int latest = snapshots.size() - 1;
+        while (latest > 0 && saving && snapshots.get(latest).eventIndex() > savedEvent) {
+            latest--;
+        }
+        if (latest <= 0) {
+            return;
+        }
+        Snapshot first = snapshots.get(latest);
+        int offset = first.offset();
+        System.arraycopy(buffer.array(), offset, buffer.array(), 0, buffer.position() - offset);
+        buffer.position(buffer.position() - offset);
+        savedOffset = Math.max(0, savedOffset - offset);
+        List<Snapshot> kept = new ArrayList<>(snapshots.subList(latest, snapshots.size()));
+        snapshots.clear();
+        for (Snapshot snapshot : kept) {
+            snapshots.add(new Snapshot(snapshot.eventIndex(), snapshot.offset() - offset, snapshot.data()));
+        }
+        firstEvent = first.eventIndex();
+
+        int firstRound = 0;
+        while (firstRound < roundCount && roundPositions[firstRound] < firstEvent) {
+            firstRound++;
+        }
+        roundCount -= firstRound;
+        System.arraycopy(roundCounters, firstRound, roundCounters, 0, roundCount);
+        System.arraycopy(roundPositions, firstRound, roundPositions, 0, roundCount);
+    }
+
+    /**
+     * Takes the segment of this log, which has the events and snapshots
+     * after the previous segment (or all events and snapshots for the first
+     * segment). This copies only the new part of the log, so it is cheap
+     * enough to be called for every save of the game; it should be called in
+     * the thread in which the game is played, when the game is saved, so
+     * that the saved events end at the saved state of the game.
+     *
+     * @return the new segment, or null if nothing was recorded since the
+     *         previous segment
+     */
+    public synchronized GameEventSegment nextSegment() {
+        long start = saving ? savedEvent : firstEvent;
+        int startOffset = saving ? savedOffset : 0;
+        List<Snapshot> newSnapshots = new ArrayList<>();
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.eventIndex() > savedSnapshot) {
+                newSnapshots.add(new Snapshot(snapshot.eventIndex(), snapshot.offset() - startOffset, snapshot.data()));
+            }
+        }
+        if (saving && start == eventCount && newSnapshots.isEmpty()) {
+            return null;
+        }
+        GameEventSegment segment = new GameEventSegment(start, eventCount, newSnapshots,
+                Arrays.copyOfRange(buffer.array(), startOffset, buffer.position()));
+        saving = true;
+        savedEvent = eventCount;
+        savedOffset = buffer.position();
+        if (!snapshots.isEmpty()) {
+            savedSnapshot = snapshots.getLast().eventIndex();
+        }
+        return segment;
+    }
+
+    /**
+     * Restores the events and snapshots of this log from the saved segments
+     * of a game. The log is restored from the latest snapshot in the
+     * segments, which are followed by contiguous segments up to the last
+     * segment; the events before that snapshot are not restored. The log
+     * must be new, and it must be attached to the loaded game afterwards, so
+     * that it continues with the next event index.
+     *
+     * @param segments the saved segments, ordered by their first events
+     * @return true if the log was restored, false if the segments do not
+     *         have a snapshot, from which the log can be restored
+     */
+    public synchronized boolean restore(@NotNull List<GameEventSegment> segments) {
+        if (board != null || eventCount > 0 || saving) {
+            throw new IllegalStateException("Only a new log can be restored");
+        }
+        // the segments after a gap (e.g. after a failed save) cannot be
+        // replayed from a snapshot before the gap
+        int start = segments.size() - 1;
+        while (start >= 0 && segments.get(start).getSnapshotCount() == 0) {
+            if (start == 0 || segments.get(start - 1).getEndEvent() != segments.get(start).getFirstEvent()) {
+                return false;
+            }
+            start--;
+        }
+        if (start < 0) {
+            return false;
+        }
+
+        GameEventSegment first = segments.get(start);
+        Snapshot snapshot = first.snapshots.getLast();
+        int skipped = snapshot.offset();
+        int size = 0;
+        for (int i = start; i < segments.size(); i++) {
+            size += segments.get(i).events.length;
+        }
+        buffer = ByteBuffer.allocate(Math.max(INITIAL_BUFFER_SIZE, size - skipped));
+        buffer.put(first.events, skipped, first.events.length - skipped);
+        snapshots.add(new Snapshot(snapshot.eventIndex(), 0, snapshot.data()));
+        for (int i = start + 1; i < segments.size(); i++) {
+            GameEventSegment segment = segments.get(i);
+            for (Snapshot later : segment.snapshots) {
+                snapshots.add(new Snapshot(later.eventIndex(), buffer.position() + later.offset(), later.data()));
+            }
+            buffer.put(segment.events);
+        }
+        firstEvent = snapshot.eventIndex();
+        eventCount = segments.getLast().getEndEvent();
+        snapshotCounter = GameSnapshotCodec.decode(snapshots.getLast().data()).counter;
+        indexRounds();
+
+        saving = true;
+        savedEvent = eventCount;
+        savedOffset = buffer.position();
+        savedSnapshot = snapshots.getLast().eventIndex();
+        return true;
+    }
+
+    /**
+     * Rebuilds the index of the rounds from the events in the buffer.
+     */
+    private void indexRounds() {
+        ByteBuffer in = ByteBuffer.wrap(buffer.array(), 0, buffer.position());
+        roundCount = 0;
+        for (long i = firstEvent; i < eventCount; i++) {
+            GameEvent event = GameEventCodec.decode(in);
+            if (event instanceof RoundStarted e) {
+                addRound(e.counter(), i + 1);
+            } else if (event instanceof CardsDealt && roundCount > 0) {
+                roundPositions[roundCount - 1] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Get the number of the events recorded so far.
+     *
+     * @return the number of events
+     */
+    public synchronized long getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Get the size of the encoded events in bytes.
+     *
+     * @return the size of the events
+     */
+    public synchronized int getSize() {
+        return buffer.position();
+    }
+
+    /**
+     * Get the index of the first event, which is still in the log. This is
+     * 0, unless the log was compacted.
+     *
+     * @return the index of the first event
+     */
+    public synchronized long getFirstEventIndex() {
+        return firstEvent;
+    }
+
+    public synchronized int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    /**
+     * Get the position of a round in the log: the number of the events up
+     * to the point, when the cards of the round were dealt.
+     *
+     * @param counter the counter of the round
+     * @return the number of events, or -1 if the round is not in the log
+     */
+    public synchronized long getRoundPosition(int counter) {
+        int low = 0;
+        int high = roundCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (roundCounters[middle] < counter) {
+                low = middle + 1;
+            } else if (roundCounters[middle] > counter) {
+                high = middle - 1;
+            } else {
+                return roundPositions[middle];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the recorded events in the given range.
+     *
+     * @param from the index of the first event
+     * @param to the index behind the last event
+     * @return the events
+     */
+    public synchronized List<GameEvent> getEvents(long from, long to) {
+        if (from < firstEvent || from > to || to > eventCount) {
+            throw new IndexOutOfBoundsException("Illegal range " + from + " to " + to + " of events");
+        }
+        List<GameEvent> events = readEvents(getSnapshot(from), to);
+        return events.subList((int) (events.size() - (to - from)), events.size());
+    }
+
+    /**
+     * Get the latest snapshot before the event with the given index, which
+     * must not be before the first event of the log.
+     */
+    synchronized Snapshot getSnapshot(long eventIndex) {
+        int low = 0;
+        int high = snapshots.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (snapshots.get(middle).eventIndex() <= eventIndex) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return snapshots.get(low);
+    }
+
+    /**
+     * Decodes the events from the given snapshot up to the event with the
+     * given index.
+     */
+    synchronized List<GameEvent> readEvents(@NotNull Snapshot snapshot, long to) {
+        ByteBuffer in = ByteBuffer.wrap(buffer.array(), snapshot.offset(), buffer.position() - snapshot.offset());
+        List<GameEvent> events = new ArrayList<>((int) (to - snapshot.eventIndex()));
+        for (long i = snapshot.eventIndex(); i < to; i++) {
+            events.add(GameEventCodec.decode(in));
+        }
+        return events;
+    }
+
+    /**
+     * Records an event and applies it to the replayed board. A scheduled
+     * snapshot is taken after the event, so that it is the state after the
+     * new number of events.
+     */
+    private synchronized void append(@NotNull GameEvent event) {
+        while (true) {
+            int start = buffer.position();
+            try {
+                GameEventCodec.encode(event, buffer);
+                eventCount++;
+                break;
+            } catch (BufferOverflowException e) {
+                ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+                larger.put(buffer.array(), 0, start);
+                buffer = larger;
+            }
+        }
+        GameReplay.apply(replayed, event);
+        if (snapshotEvents > 0 && eventCount - snapshots.getLast().eventIndex() >= snapshotEvents) {
+            takeSnapshot();
+        }
+    }
+
+    private int number(Player player) {
+        return board.getPlayerNumber(player);
+    }
+
+    private static Command[] getProgram(Player player) {
+        Command[] commands = new Command[Player.NUMBER_OF_REGISTERS];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = getCommand(player.getProgramField(i).getCard());
+        }
+        return commands;
+    }
+
+    private static Command[] getCards(Player player) {
+        Command[] commands = new Command[Player.NO_CARDS];
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = getCommand(player.getCardField(i).getCard());
+        }
+        return commands;
+    }
+
+    private static Command getCommand(CommandCard card) {
+        return card != null ? card.command : null;
+    }
+
+    /**
+     * Adds a round to the index of the rounds. The counters of the rounds
+     * increase, so the index is sorted by the counters.
+     */
+    private void addRound(int counter, long position) {
+        // if the round was started again (e.g. after loading an older state
+        // of the game), the later rounds are not the rounds of the game anymore
+        while (roundCount > 0 && roundCounters[roundCount - 1] >= counter) {
+            roundCount--;
+        }
+        if (roundCount == roundCounters.length) {
+            roundCounters = Arrays.copyOf(roundCounters, 2 * roundCount);
+            roundPositions = Arrays.copyOf(roundPositions, 2 * roundCount);
+        }
+        roundCounters[roundCount] = counter;
+        roundPositions[roundCount] = position;
+        roundCount++;
+    }
+
+    @Override
+    public synchronized void roundStarted(int counter) {
+        append(new RoundStarted(counter));
+        addRound(counter, eventCount);
+        if (snapshotRounds > 0 && counter - snapshotCounter >= snapshotRounds
+                && snapshots.getLast().eventIndex() < eventCount) {
+            takeSnapshot();
+        }
+    }
+
+    @Override
+    public synchronized void cardsDealt(@NotNull Player player) {
+        append(new CardsDealt(number(player), getCards(player)));
+        if (roundCount > 0) {
+            roundPositions[roundCount - 1] = eventCount;
+        }
+    }
+
+    @Override
+    public void programCommitted(@NotNull Player player) {
+        append(new ProgramCommitted(number(player), getProgram(player), getCards(player)));
+    }
+
+    @Override
+    public void commandExecuted(@NotNull Player player, int step, @NotNull Command command) {
+        append(new CommandExecuted(number(player), step, command));
+    }
+
+    @Override
+    public void playerMoved(@NotNull Player player) {
+        Space space = player.getSpace();
+        append(new PlayerMoved(number(player), space.x, space.y, player.getHeading()));
+    }
+
+    @Override
+    public void choiceMade(@NotNull Player player) {
+        append(new ChoiceMade(number(player)));
+    }
+
+    @Override
+    public void conveyorMoved(@NotNull Player player) {
+        Space space = player.getSpace();
+        append(new ConveyorMoved(number(player), space.x, space.y));
+    }
+
+    @Override
+    public void checkpointReached(@NotNull Player player) {
+        append(new CheckpointReached(number(player), player.getNextCheckpoint()));
+    }
+
+    @Override
+    public void gameWon(@NotNull Player player) {
+        append(new GameWon(number(player)));
+    }
+
+}
@@ -0,0 +1,130 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A part of a {@link GameEventLog}, which is saved together with the game:
+ * the encoded events from the first event index (including) to the end
+ * index (excluding) and the snapshots of the log, which were taken in this
+ * range and not saved before. Since the segments contain only the events
+ * after the last saved segment, the time for saving a log does not grow
+ * with the length of the game. A log is restored from the segments of the
+ * game from the latest snapshot on (see {@link GameEventLog#restore(List)}).
+ * <p>
+ * A segment does not change; its arrays must not be changed.
+ */
+public final class GameEventSegment {
+
+    // the version of the encoded segment
+    final private static byte VERSION = 1;
+
+    final private long firstEvent;
+
+    final private long endEvent;
+
+    // the snapshots with the offsets relative to the start of the events
+    final List<GameEventLog.Snapshot> snapshots;
+
+    final byte[] events;
+
+    GameEventSegment(long firstEvent, long endEvent, @NotNull List<GameEventLog.Snapshot> snapshots,
+                     @NotNull byte[] events) {
+        this.firstEvent = firstEvent;
+        this.endEvent = endEvent;
+        this.snapshots = List.copyOf(snapshots);
+        this.events = events;
+    }
+
+    /**
+     * Get the index of the first event of this segment.
+     *
+     * @return the index of the first event
+     */
+    public long getFirstEvent() {
+        return firstEvent;
+    }
+
+    /**
+     * Get the index behind the last event of this segment.
+     *
+     * @return the index behind the last event
+     */
+    public long getEndEvent() {
+        return endEvent;
+    }
+
+    public int getSnapshotCount() {
+        return snapshots.size();
+    }
+
+    /**
+     * Encodes this segment into a new byte array.
+     *
+     * @return the encoded segment
+     */
+    public byte[] encode() {
+        int size = 1 + 2 * Long.BYTES + 2 * Integer.BYTES + events.length;
+        for (GameEventLog.Snapshot snapshot : snapshots) {
+            size += Long.BYTES + 2 * Integer.BYTES + snapshot.data().length;
+        }
+        ByteBuffer out = ByteBuffer.allocate(size);
+        out.put(VERSION);
+        out.putLong(firstEvent);
+        out.putLong(endEvent);
+        out.putInt(snapshots.size());
+        for (GameEventLog.Snapshot snapshot : snapshots) {
+            out.putLong(snapshot.eventIndex());
+            out.putInt(snapshot.offset());
+            out.putInt(snapshot.data().length);
+            out.put(snapshot.data());
+        }
+        out.putInt(events.length);
+        out.put(events);
+        return out.array();
+    }
+
+    /**
+     * Decodes a segment from a byte array.
+     *
+     * @param data the encoded segment
+     * @return the segment
+     * @throws IllegalArgumentException if the data is not an encoded segment
+     */
+    public static GameEventSegment decode(@NotNull byte[] data) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(data);
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version " + version + " of game event segment");
+            }
+            long firstEvent = in.getLong();
+            long endEvent = in.getLong();
+            int snapshotCount = in.getInt();
+            if (endEvent < firstEvent || snapshotCount < 0) {
+                throw new IllegalArgumentException("The data is not a game event segment");
+            }
+            List<GameEventLog.Snapshot> snapshots = new ArrayList<>(Math.min(snapshotCount, 16));
+            for (int i = 0; i < snapshotCount; i++) {
+                long eventIndex = in.getLong();
+                int offset = in.getInt();
+                byte[] snapshot = new byte[in.getInt()];
+                in.get(snapshot);
+                snapshots.add(new GameEventLog.Snapshot(eventIndex, offset, snapshot));
+            }
+            byte[] events = new byte[in.getInt()];
+            in.get(events);
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("The game event segment has trailing data");
+            }
+            return new GameEventSegment(firstEvent, endEvent, snapshots, events);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("The game event segment is truncated", e);
+        }
+    }
+
+}
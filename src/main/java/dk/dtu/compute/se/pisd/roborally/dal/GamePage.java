@@ -0,0 +1,33 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A page of the games in the repository, as returned by
+ * {@link IRepository#getGames(GameQuery, Integer)}. The games are ordered
+ * by descending game id, i.e. the most recently created games come first.
+ */
+public class GamePage {
+
+    final public List<GameInDB> games;
+
+    // the game id after which the next page starts, or null for the last page
+    final public Integer nextKey;
+
+    public GamePage(@NotNull List<GameInDB> games, Integer nextKey) {
+        this.games = List.copyOf(games);
+        this.nextKey = nextKey;
+    }
+
+    /**
+     * Checks whether there are more games after this page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextKey != null;
+    }
+
+}
@@ -0,0 +1,49 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+
+import java.time.Instant;
+
+/**
+ * A query for a page of the games in the repository (see
+ * {@link IRepository#getGames(GameQuery, Integer)}). All filters are
+ * optional: a filter, which is null, does not restrict the games.
+ */
+public class GameQuery {
+
+    final public static int DEFAULT_PAGE_SIZE = 50;
+
+    final public String namePrefix;
+    final public Phase phase;
+    final public Instant createdFrom;
+    final public Instant createdTo;
+    final public int pageSize;
+
+    /**
+     * Creates a query.
+     *
+     * @param namePrefix the prefix of the names of the games, or null
+     * @param phase the phase of the games, or null
+     * @param createdFrom the earliest creation time of the games (inclusive), or null
+     * @param createdTo the latest creation time of the games (exclusive), or null
+     * @param pageSize the maximum number of games on a page
+     */
+    public GameQuery(String namePrefix, Phase phase, Instant createdFrom, Instant createdTo, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("The page size must be positive");
+        }
+        this.namePrefix = namePrefix;
+        this.phase = phase;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Creates a query for all games with the default page size.
+     */
+    public GameQuery() {
+        this(null, null, null, null, DEFAULT_PAGE_SIZE);
+    }
+
+}
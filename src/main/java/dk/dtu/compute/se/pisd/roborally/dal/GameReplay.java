@@ -0,0 +1,199 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CardsDealt;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CheckpointReached;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ChoiceMade;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.CommandExecuted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ConveyorMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.GameWon;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.PlayerMoved;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.ProgramCommitted;
+import dk.dtu.compute.se.pisd.roborally.dal.GameEvent.RoundStarted;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Replays a game from its {@link GameEventLog}. The replay restores the state
+ * of the game after any number of events on a new board: it starts from the
+ * latest snapshot of the log before that point and applies the events after
+ * the snapshot. So, the time for seeking a point of the game depends only on
+ * the number of events since the last snapshot, not on the length of the game
+ * (the log takes snapshots regularly, see {@link GameEventLog}).
+ * <p>
+ * The events are applied directly to the board, without a controller and
+ * without dealing any cards; the board is restored to the same state as the
+ * board of the game after the respective event.
+ */
+public class GameReplay {
+
+    final private GameEventLog log;
+
+    public GameReplay(@NotNull GameEventLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Creates a new board with the state of the game after the given number
+     * of events.
+     *
+     * @param eventIndex the number of events
+     * @return the board with the state of the game
+     */
+    public Board seek(long eventIndex) {
+        GameEventLog.Snapshot snapshot;
+        List<GameEvent> events;
+        // the log must not be compacted between getting the snapshot and the events
+        synchronized (log) {
+            if (eventIndex < log.getFirstEventIndex() || eventIndex > log.getEventCount()) {
+                throw new IndexOutOfBoundsException("Illegal event index " + eventIndex);
+            }
+            snapshot = log.getSnapshot(eventIndex);
+            events = log.readEvents(snapshot, eventIndex);
+        }
+        return replay(snapshot, events);
+    }
+
+    /**
+     * Creates a new board with the state of the game at the start of the
+     * round with the given counter, after the cards were dealt.
+     *
+     * @param counter the counter of the round
+     * @return the board with the state of the game
+     * @throws IndexOutOfBoundsException if the round is not in the log
+     */
+    public Board seekRound(int counter) {
+        GameEventLog.Snapshot snapshot;
+        List<GameEvent> events;
+        // the log must not be compacted between looking up the round and
+        // getting the snapshot and the events
+        synchronized (log) {
+            long position = log.getRoundPosition(counter);
+            if (position < 0) {
+                throw new IndexOutOfBoundsException("The round " + counter + " is not in the log");
+            }
+            snapshot = log.getSnapshot(position);
+            events = log.readEvents(snapshot, position);
+        }
+        return replay(snapshot, events);
+    }
+
+    /**
+     * Creates a new board from a snapshot of the log and applies the events
+     * after the snapshot.
+     */
+    private static Board replay(GameEventLog.Snapshot snapshot, List<GameEvent> events) {
+        Board board = createBoard(GameSnapshotCodec.decode(snapshot.data()));
+        for (GameEvent event : events) {
+            apply(board, event);
+        }
+        return board;
+    }
+
+    /**
+     * Creates a board with the elements of the board of the snapshot (if
+     * that board is known) and the state of the snapshot.
+     */
+    static Board createBoard(GameSnapshot snapshot) {
+        Board board = null;
+        if (BoardFactory.getBoardNames().contains(snapshot.boardName)) {
+            board = BoardFactory.getInstance().createBoard(snapshot.boardName);
+        }
+        if (board == null || board.width != snapshot.width || board.height != snapshot.height) {
+            return snapshot.toBoard(snapshot.gameId);
+        }
+        if (snapshot.gameId != null) {
+            board.setGameId(snapshot.gameId);
+        }
+        snapshot.restore(board);
+        return board;
+    }
+
+    /**
+     * Applies a single event to a board, which has the state of the game
+     * before the event.
+     *
+     * @param board the board
+     * @param event the event
+     */
+    public static void apply(@NotNull Board board, @NotNull GameEvent event) {
+        switch (event) {
+            case RoundStarted e -> {
+                board.setCounter(e.counter());
+                board.setPhase(Phase.PROGRAMMING);
+                board.setCurrentPlayer(board.getPlayer(0));
+                board.setStep(0);
+                for (int i = 0; i < board.getPlayersNumber(); i++) {
+                    Player player = board.getPlayer(i);
+                    for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+                        setField(player.getProgramField(j), null, true);
+                    }
+                }
+            }
+            case CardsDealt e -> {
+                Player player = board.getPlayer(e.player());
+                for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+                    setField(player.getProgramField(j), null, true);
+                }
+                for (int j = 0; j < Math.min(Player.NO_CARDS, e.cards().length); j++) {
+                    setField(player.getCardField(j), e.cards()[j], true);
+                }
+            }
+            case ProgramCommitted e -> {
+                Player player = board.getPlayer(e.player());
+                for (int j = 0; j < Math.min(Player.NUMBER_OF_REGISTERS, e.program().length); j++) {
+                    setField(player.getProgramField(j), e.program()[j], j == 0);
+                }
+                for (int j = 0; j < Math.min(Player.NO_CARDS, e.cards().length); j++) {
+                    CommandCardField field = player.getCardField(j);
+                    setField(field, e.cards()[j], field.isVisible());
+                }
+                board.setPhase(Phase.ACTIVATION);
+                board.setCurrentPlayer(board.getPlayer(0));
+                board.setStep(0);
+            }
+            case CommandExecuted e -> {
+                Player player = board.getPlayer(e.player());
+                for (int i = 0; i < board.getPlayersNumber(); i++) {
+                    board.getPlayer(i).getProgramField(e.step()).setVisible(true);
+                }
+                board.setStep(e.step());
+                board.setCurrentPlayer(player);
+                Command command = e.command();
+                if (command != Command.AGAIN) {
+                    player.setLastCommand(command);
+                } else {
+                    command = player.getLastCommand();
+                }
+                board.setPhase(command == Command.RIGHT_OR_LEFT ? Phase.PLAYER_INTERACTION : Phase.ACTIVATION);
+            }
+            case PlayerMoved e -> {
+                Player player = board.getPlayer(e.player());
+                player.setSpace(board.getSpace(e.x(), e.y()));
+                player.setHeading(e.heading());
+            }
+            case ChoiceMade e -> board.setPhase(Phase.ACTIVATION);
+            case ConveyorMoved e -> board.getPlayer(e.player()).setSpace(board.getSpace(e.x(), e.y()));
+            case CheckpointReached e -> {
+                Player player = board.getPlayer(e.player());
+                while (player.getNextCheckpoint() < e.nextCheckpoint()) {
+                    player.incrementNextCheckpoint();
+                }
+            }
+            case GameWon e -> board.setPhase(Phase.FINISHED);
+        }
+    }
+
+    private static void setField(CommandCardField field, Command command, boolean visible) {
+        field.setCard(command != null ? CommandCard.of(command) : null);
+        field.setVisible(visible);
+    }
+
+}
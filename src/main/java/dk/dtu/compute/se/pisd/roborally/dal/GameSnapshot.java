@@ -0,0 +1,157 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * An immutable copy of the state of a game, which is stored in the
+ * database: the phase, the step, the round counter and the current player
+ * of the board and the positions, headings, last commands and cards of
+ * the players. A snapshot can be
+ * taken quickly in the JavaFX application thread and can then be saved
+ * in another thread, while the game goes on.
+ * <p>
+ * The snapshot does not contain the elements of the board (walls,
+ * conveyor belts and checkpoints). A snapshot can be encoded in a compact
+ * binary format by the {@link GameSnapshotCodec}.
+ */
+public final class GameSnapshot {
+
+    /**
+     * The state of a single player. The commands of the cards in the program
+     * registers and in the hand are null for fields without a card. The
+     * arrays must not be changed.
+     */
+    public record PlayerState(@NotNull String name, String color, int x, int y, @NotNull Heading heading,
+                              int nextCheckpoint, Command lastCommand, Command[] program, boolean[] programVisible,
+                              Command[] cards, boolean[] cardsVisible) {}
+
+    final public Integer gameId;
+    final public String boardName;
+    final public int width;
+    final public int height;
+    final public Phase phase;
+    final public int step;
+    final public int counter;
+    final public int currentPlayer;
+    final public List<PlayerState> players;
+
+    public GameSnapshot(Integer gameId, @NotNull String boardName, int width, int height, @NotNull Phase phase,
+                        int step, int counter, int currentPlayer, @NotNull List<PlayerState> players) {
+        this.gameId = gameId;
+        this.boardName = boardName;
+        this.width = width;
+        this.height = height;
+        this.phase = phase;
+        this.step = step;
+        this.counter = counter;
+        this.currentPlayer = currentPlayer;
+        this.players = List.copyOf(players);
+    }
+
+    /**
+     * Takes a snapshot of the current state of a board. This must be called
+     * in the thread in which the board is changed.
+     *
+     * @param board the board
+     * @return the snapshot of the board
+     */
+    public static GameSnapshot of(@NotNull Board board) {
+        PlayerState[] players = new PlayerState[board.getPlayersNumber()];
+        for (int i = 0; i < players.length; i++) {
+            Player player = board.getPlayer(i);
+            Command[] program = new Command[Player.NUMBER_OF_REGISTERS];
+            boolean[] programVisible = new boolean[Player.NUMBER_OF_REGISTERS];
+            for (int j = 0; j < program.length; j++) {
+                program[j] = getCommand(player.getProgramField(j));
+                programVisible[j] = player.getProgramField(j).isVisible();
+            }
+            Command[] cards = new Command[Player.NO_CARDS];
+            boolean[] cardsVisible = new boolean[Player.NO_CARDS];
+            for (int j = 0; j < cards.length; j++) {
+                cards[j] = getCommand(player.getCardField(j));
+                cardsVisible[j] = player.getCardField(j).isVisible();
+            }
+            Space space = player.getSpace();
+            players[i] = new PlayerState(player.getName(), player.getColor(),
+                    space != null ? space.x : -1, space != null ? space.y : -1,
+                    player.getHeading(), player.getNextCheckpoint(), player.getLastCommand(),
+                    program, programVisible, cards, cardsVisible);
+        }
+        Player current = board.getCurrentPlayer();
+        return new GameSnapshot(board.getGameId(), board.boardName, board.width, board.height,
+                board.getPhase(), board.getStep(), board.getCounter(), current != null ? board.getPlayerNumber(current) : -1,
+                List.of(players));
+    }
+
+    private static Command getCommand(CommandCardField field) {
+        CommandCard card = field.getCard();
+        return card != null ? card.command : null;
+    }
+
+    /**
+     * Creates a new board with the state of this snapshot, but without any
+     * elements on the board. The board gets the given game id, if it is not null.
+     *
+     * @param gameId the id of the game, or null
+     * @return a new board with the state of this snapshot
+     */
+    public Board toBoard(Integer gameId) {
+        Board board = new Board(width, height, boardName);
+        if (gameId != null) {
+            board.setGameId(gameId);
+        }
+        restore(board);
+        return board;
+    }
+
+    /**
+     * Restores the state of this snapshot on a board, which does not have any
+     * players yet, e.g. a new board with the elements of the saved game.
+     *
+     * @param board the board, which must have the size of the snapshot
+     */
+    public void restore(@NotNull Board board) {
+        if (board.width != width || board.height != height || board.getPlayersNumber() > 0) {
+            throw new IllegalArgumentException("The board must have the same size and no players");
+        }
+        for (PlayerState state : players) {
+            Player player = new Player(board, state.color(), state.name());
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(state.x(), state.y()));
+            player.setHeading(state.heading());
+            for (int i = 1; i < state.nextCheckpoint(); i++) {
+                player.incrementNextCheckpoint();
+            }
+            player.setLastCommand(state.lastCommand());
+            // a snapshot of an older version might have a different number of fields
+            for (int j = 0; j < Math.min(Player.NUMBER_OF_REGISTERS, state.program().length); j++) {
+                setField(player.getProgramField(j), state.program()[j], state.programVisible()[j]);
+            }
+            for (int j = 0; j < Math.min(Player.NO_CARDS, state.cards().length); j++) {
+                setField(player.getCardField(j), state.cards()[j], state.cardsVisible()[j]);
+            }
+        }
+        board.setPhase(phase);
+        board.setStep(step);
+        board.setCounter(counter);
+        if (currentPlayer >= 0) {
+            board.setCurrentPlayer(board.getPlayer(currentPlayer));
+        }
+    }
+
+    private static void setField(CommandCardField field, Command command, boolean visible) {
+        field.setCard(command != null ? CommandCard.of(command) : null);
+        field.setVisible(visible);
+    }
+
+}
@@ -0,0 +1,305 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.dal.GameSnapshot.PlayerState;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes a {@link GameSnapshot} in a compact binary format and decodes it
+ * again. The format is much smaller and faster to read and write than
+ * JSON; it is used for storing and sending the state of games.
+ * <p>
+ * An encoded snapshot starts with the two bytes of {@link #MAGIC} and the
+ * version of the format. All numbers are written as variable length
+ * integers (7 bits per byte, the numbers which can be negative zig-zag
+ * encoded), so that the small numbers of a game take a single byte.
+ * Enums are written as a single byte (0 for null, ordinal + 1 otherwise),
+ * strings as their length and their UTF-8 bytes. The visibility of the
+ * card fields of a player is written as a bit set. A decoder reads the
+ * numbers of registers and cards from the data, so that snapshots remain
+ * readable when these numbers change.
+ * <p>
+ * The codec does not keep any state, so it can be used by several threads
+ * at the same time.
+ */
+public final class GameSnapshotCodec {
+
+    final public static short MAGIC = 0x5252; // "RR"
+
+    final public static byte VERSION = 1;
+
+    final private static int INITIAL_BUFFER_SIZE = 1024;
+
+    final private static Phase[] PHASES = Phase.values();
+    final private static Heading[] HEADINGS = Heading.values();
+    final private static Command[] COMMANDS = Command.values();
+
+    // a buffer for every thread, so that encoding into a byte array does not
+    // need to allocate a buffer for every snapshot
+    final private static ThreadLocal<ByteBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+
+    private GameSnapshotCodec() {
+    }
+
+    /**
+     * Encodes a snapshot into a new byte array of the exact size.
+     *
+     * @param snapshot the snapshot
+     * @return the encoded snapshot
+     */
+    public static byte[] encode(@NotNull GameSnapshot snapshot) {
+        ByteBuffer buffer = BUFFER.get();
+        while (true) {
+            buffer.clear();
+            try {
+                encode(snapshot, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(2 * buffer.capacity());
+                BUFFER.set(buffer);
+            }
+        }
+    }
+
+    /**
+     * Encodes a snapshot into a buffer, starting at the position of the
+     * buffer. After that, the position of the buffer is behind the encoded
+     * snapshot.
+     *
+     * @param snapshot the snapshot
+     * @param buffer the buffer
+     * @throws BufferOverflowException if the buffer does not have enough room
+     */
+    public static void encode(@NotNull GameSnapshot snapshot, @NotNull ByteBuffer buffer) {
+        buffer.putShort(MAGIC);
+        buffer.put(VERSION);
+        if (snapshot.gameId != null) {
+            buffer.put((byte) 1);
+            putInt(buffer, snapshot.gameId);
+        } else {
+            buffer.put((byte) 0);
+        }
+        putString(buffer, snapshot.boardName);
+        putInt(buffer, snapshot.width);
+        putInt(buffer, snapshot.height);
+        putEnum(buffer, snapshot.phase);
+        putInt(buffer, snapshot.step);
+        putInt(buffer, snapshot.counter);
+        putInt(buffer, snapshot.currentPlayer);
+
+        putInt(buffer, snapshot.players.size());
+        for (PlayerState player : snapshot.players) {
+            putString(buffer, player.name());
+            putString(buffer, player.color());
+            putInt(buffer, player.x());
+            putInt(buffer, player.y());
+            putEnum(buffer, player.heading());
+            putInt(buffer, player.nextCheckpoint());
+            putEnum(buffer, player.lastCommand());
+            putFields(buffer, player.program(), player.programVisible());
+            putFields(buffer, player.cards(), player.cardsVisible());
+        }
+    }
+
+    /**
+     * Decodes a snapshot from a byte array.
+     *
+     * @param data the encoded snapshot
+     * @return the snapshot
+     * @throws IllegalArgumentException if the data is not a valid snapshot
+     */
+    public static GameSnapshot decode(@NotNull byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes a snapshot from a buffer, starting at the position of the
+     * buffer. After that, the position of the buffer is behind the snapshot.
+     *
+     * @param buffer the buffer
+     * @return the snapshot
+     * @throws IllegalArgumentException if the data is not a valid snapshot
+     */
+    public static GameSnapshot decode(@NotNull ByteBuffer buffer) {
+        try {
+            if (buffer.getShort() != MAGIC) {
+                throw new IllegalArgumentException("The data is not a game snapshot");
+            }
+            byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported version " + version + " of game snapshot");
+            }
+            Integer gameId = buffer.get() != 0 ? getInt(buffer) : null;
+            String boardName = getString(buffer);
+            int width = getInt(buffer);
+            int height = getInt(buffer);
+            Phase phase = getEnum(buffer, PHASES);
+            int step = getInt(buffer);
+            int counter = getInt(buffer);
+            int currentPlayer = getInt(buffer);
+            if (boardName == null || phase == null) {
+                throw new IllegalArgumentException("The game snapshot has no board name or phase");
+            }
+
+            int playerCount = getCount(buffer);
+            PlayerState[] players = new PlayerState[playerCount];
+            for (int i = 0; i < playerCount; i++) {
+                String name = getString(buffer);
+                String color = getString(buffer);
+                int x = getInt(buffer);
+                int y = getInt(buffer);
+                Heading heading = getEnum(buffer, HEADINGS);
+                int nextCheckpoint = getInt(buffer);
+                Command lastCommand = getEnum(buffer, COMMANDS);
+                if (name == null || heading == null) {
+                    throw new IllegalArgumentException("A player of the game snapshot has no name or heading");
+                }
+
+                Command[] program = new Command[getCount(buffer)];
+                boolean[] programVisible = new boolean[program.length];
+                getFields(buffer, program, programVisible);
+                Command[] cards = new Command[getCount(buffer)];
+                boolean[] cardsVisible = new boolean[cards.length];
+                getFields(buffer, cards, cardsVisible);
+
+                players[i] = new PlayerState(name, color, x, y, heading, nextCheckpoint, lastCommand,
+                        program, programVisible, cards, cardsVisible);
+            }
+            return new GameSnapshot(gameId, boardName, width, height, phase, step, counter, currentPlayer,
+                    Arrays.asList(players));
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("The game snapshot is truncated", e);
+        }
+    }
+
+    private static void putFields(ByteBuffer buffer, Command[] commands, boolean[] visible) {
+        putInt(buffer, commands.length);
+        for (Command command : commands) {
+            putEnum(buffer, command);
+        }
+        putBits(buffer, visible);
+    }
+
+    private static void getFields(ByteBuffer buffer, Command[] commands, boolean[] visible) {
+        for (int i = 0; i < commands.length; i++) {
+            commands[i] = getEnum(buffer, COMMANDS);
+        }
+        getBits(buffer, visible);
+    }
+
+    private static void putBits(ByteBuffer buffer, boolean[] bits) {
+        for (int i = 0; i < bits.length; i += 8) {
+            int b = 0;
+            for (int j = 0; j < 8 && i + j < bits.length; j++) {
+                if (bits[i + j]) {
+                    b |= 1 << j;
+                }
+            }
+            buffer.put((byte) b);
+        }
+    }
+
+    private static void getBits(ByteBuffer buffer, boolean[] bits) {
+        for (int i = 0; i < bits.length; i += 8) {
+            int b = buffer.get();
+            for (int j = 0; j < 8 && i + j < bits.length; j++) {
+                bits[i + j] = (b & (1 << j)) != 0;
+            }
+        }
+    }
+
+    static void putEnum(ByteBuffer buffer, Enum<?> value) {
+        buffer.put((byte) (value != null ? value.ordinal() + 1 : 0));
+    }
+
+    static <E extends Enum<E>> E getEnum(ByteBuffer buffer, E[] values) {
+        int b = buffer.get() & 0xFF;
+        if (b == 0) {
+            return null;
+        }
+        if (b > values.length) {
+            throw new IllegalArgumentException("Illegal value " + (b - 1) + " of " + values[0].getDeclaringClass().getSimpleName());
+        }
+        return values[b - 1];
+    }
+
+    /**
+     * Writes a string, which may be null, as its length plus one (0 for null)
+     * and its UTF-8 bytes.
+     */
+    private static void putString(ByteBuffer buffer, String string) {
+        if (string == null) {
+            putInt(buffer, 0);
+        } else {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            putInt(buffer, bytes.length + 1);
+            buffer.put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = getInt(buffer) - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (buffer.hasArray()) {
+            String string = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return string;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes an int as a zig-zag encoded variable length integer: the small
+     * positive and negative numbers take one byte.
+     */
+    static void putInt(ByteBuffer buffer, int value) {
+        int v = (value << 1) ^ (value >> 31);
+        while ((v & ~0x7F) != 0) {
+            buffer.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buffer.put((byte) v);
+    }
+
+    static int getInt(ByteBuffer buffer) {
+        int v = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            v |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return (v >>> 1) ^ -(v & 1);
+            }
+        }
+        throw new IllegalArgumentException("Illegal number in game snapshot");
+    }
+
+    /**
+     * Reads the number of some elements, which must fit into the rest of the
+     * buffer (every element takes at least one byte).
+     */
+    static int getCount(ByteBuffer buffer) {
+        int count = getInt(buffer);
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Illegal number of elements in game snapshot");
+        }
+        return count;
+    }
+
+}
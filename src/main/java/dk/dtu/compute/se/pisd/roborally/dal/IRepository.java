@@ -41,4 +41,40 @@ public interface IRepository {
 	
 	List<GameInDB> getGames();
 
+	/**
+	 * Get a page of the games, which match the query. The games are ordered
+	 * by descending game id. The first page is obtained with a null key;
+	 * every following page is obtained with the {@link GamePage#nextKey} of
+	 * the page before it. Pages are keyed by the game id (and not by a page
+	 * number), so that the query is fast for any page, and games created
+	 * in the meantime do not shift the pages.
+	 *
+	 * @param query the filters and the size of the page
+	 * @param afterKey the key of the page, or null for the first page
+	 * @return the page of games
+	 */
+	GamePage getGames(GameQuery query, Integer afterKey);
+
+	/**
+	 * Saves a segment of the event log of a game, which was created in the
+	 * database already. The segments of a game are saved in the order of
+	 * their events, and every segment is added to the saved segments.
+	 *
+	 * @param gameId the id of the game
+	 * @param segment the next segment of the event log of the game
+	 * @return true if the segment was saved, false otherwise
+	 */
+	boolean saveEventLogInDB(int gameId, GameEventSegment segment);
+
+	/**
+	 * Loads the segments of the event log of a game, which are needed for
+	 * restoring the log (see {@link GameEventLog#restore(List)}): the
+	 * segments from the latest segment with a snapshot on.
+	 *
+	 * @param gameId the id of the game
+	 * @return the segments ordered by their first events; empty if no
+	 *         segment with a snapshot was saved for the game
+	 */
+	List<GameEventSegment> loadEventLogFromDB(int gameId);
+
 }
@@ -0,0 +1,139 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A repository, which keeps the saved games in memory instead of a
+ * database. It is used when no database server is available, e.g. for
+ * tests and simulations, and it can be selected in the file db.properties
+ * (see {@link RepositoryAccess}). The games are lost when the program ends.
+ * <p>
+ * A saved game is stored as a {@link GameSnapshot}, so saving a game only
+ * copies the state of its players; the segments of the event log of a
+ * game are kept in a list per game. The repository can be used by several
+ * threads at the same time.
+ */
+public class InMemoryRepository implements IRepository {
+
+    private record StoredGame(int id, String name, Instant created, GameSnapshot snapshot) {}
+
+    final private AtomicInteger nextId = new AtomicInteger(1);
+
+    // the games by id, with the most recently created games first
+    final private NavigableMap<Integer, StoredGame> games = new ConcurrentSkipListMap<>((a, b) -> Integer.compare(b, a));
+
+    // the saved segments of the event logs by game id; all access to a list
+    // must be synchronized on the list
+    final private Map<Integer, List<GameEventSegment>> eventLogs = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean createGameInDB(Board game) {
+        if (game.getGameId() != null) {
+            System.err.println("Game cannot be created in DB, since it has a game id already!");
+            return false;
+        }
+        int id = nextId.getAndIncrement();
+        // TODO: the name should eventually be set by the user (as in the Repository)
+        games.put(id, new StoredGame(id, "Date: " + new Date(), Instant.now(), GameSnapshot.of(game)));
+        game.setGameId(id);
+        return true;
+    }
+
+    @Override
+    public boolean updateGameInDB(Board game) {
+        assert game.getGameId() != null;
+
+        GameSnapshot snapshot = GameSnapshot.of(game);
+        return games.computeIfPresent(game.getGameId(),
+                (id, stored) -> new StoredGame(id, stored.name(), stored.created(), snapshot)) != null;
+    }
+
+    @Override
+    public Board loadGameFromDB(int id) {
+        StoredGame stored = games.get(id);
+        if (stored == null) {
+            return null;
+        }
+        GameSnapshot snapshot = stored.snapshot();
+        Board game;
+        if (BoardFactory.getBoardNames().contains(snapshot.boardName)) {
+            game = BoardFactory.getInstance().createBoard(snapshot.boardName);
+        } else {
+            game = new Board(snapshot.width, snapshot.height, snapshot.boardName);
+        }
+        game.setGameId(id);
+        snapshot.restore(game);
+        return game;
+    }
+
+    @Override
+    public boolean saveEventLogInDB(int gameId, @NotNull GameEventSegment segment) {
+        if (!games.containsKey(gameId)) {
+            return false;
+        }
+        List<GameEventSegment> segments = eventLogs.computeIfAbsent(gameId, id -> new ArrayList<>());
+        synchronized (segments) {
+            segments.add(segment);
+        }
+        return true;
+    }
+
+    @Override
+    public List<GameEventSegment> loadEventLogFromDB(int gameId) {
+        List<GameEventSegment> segments = eventLogs.get(gameId);
+        if (segments == null) {
+            return List.of();
+        }
+        synchronized (segments) {
+            int start = segments.size() - 1;
+            while (start >= 0 && segments.get(start).getSnapshotCount() == 0) {
+                start--;
+            }
+            return start >= 0 ? List.copyOf(segments.subList(start, segments.size())) : List.of();
+        }
+    }
+
+    @Override
+    public List<GameInDB> getGames() {
+        List<GameInDB> result = new ArrayList<>();
+        for (StoredGame stored : games.values()) {
+            result.add(new GameInDB(stored.id(), stored.name()));
+        }
+        return result;
+    }
+
+    @Override
+    public GamePage getGames(@NotNull GameQuery query, Integer afterKey) {
+        NavigableMap<Integer, StoredGame> page = afterKey != null ? games.tailMap(afterKey, false) : games;
+        List<GameInDB> result = new ArrayList<>();
+        for (StoredGame stored : page.values()) {
+            if (matches(query, stored)) {
+                if (result.size() == query.pageSize) {
+                    return new GamePage(result, result.getLast().id);
+                }
+                result.add(new GameInDB(stored.id(), stored.name()));
+            }
+        }
+        return new GamePage(result, null);
+    }
+
+    private boolean matches(GameQuery query, StoredGame stored) {
+        return (query.namePrefix == null || stored.name().startsWith(query.namePrefix))
+                && (query.phase == null || stored.snapshot().phase == query.phase)
+                && (query.createdFrom == null || !stored.created().isBefore(query.createdFrom))
+                && (query.createdTo == null || stored.created().isBefore(query.createdTo));
+    }
+
+}
@@ -23,13 +23,15 @@ package dk.dtu.compute.se.pisd.roborally.dal;
 
 import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCardField;
 import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Phase;
 import dk.dtu.compute.se.pisd.roborally.model.Player;
 
 import java.sql.*;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -50,6 +52,8 @@ class Repository implements IRepository {
 	private static final String GAME_PHASE = "phase";
 
 	private static final String GAME_STEP = "step";
+
+	private static final String GAME_COUNTER = "counter";
 	
 	private static final String PLAYER_PLAYERID = "playerID";
 	
@@ -57,107 +61,94 @@ class Repository implements IRepository {
 
 	private static final String PLAYER_COLOUR = "colour";
 	
-	private static final String PLAYER_GAMEID = "gameID";
-	
 	private static final String PLAYER_POSITION_X = "positionX";
 
 	private static final String PLAYER_POSITION_Y = "positionY";
 
 	private static final String PLAYER_HEADING = "heading";
 
-	private Connector connector;
+	private static final String PLAYER_NEXT_CHECKPOINT = "nextCheckpoint";
+
+	private static final String PLAYER_LAST_COMMAND = "lastCommand";
+
+	private static final String FIELD_PLAYERID = "playerID";
+
+	private static final String FIELD_TYPE = "type";
+
+	private static final String FIELD_POSITION = "position";
+
+	private static final String FIELD_VISIBLE = "visible";
+
+	private static final String FIELD_COMMAND = "command";
+
+	private static final int FIELD_TYPE_REGISTER = 0;
+
+	private static final int FIELD_TYPE_HAND = 1;
+
+	private static final String SEGMENT_FIRST_EVENT = "firstEvent";
+
+	private static final String SEGMENT_DATA = "data";
+
+	private final Connector connector;
 	
 	Repository(Connector connector){
 		this.connector = connector;
 	}
 
-	boolean isAlive() {
-		boolean result;
-        try {
-            result = connector.getConnection().isValid(5);
-        } catch (Exception e) {
-			result = false;
-        }
-		if (!result) {
-			List<PreparedStatement> psList = Arrays.asList(
-					select_games_stmt,
-					insert_game_stmt,
-					select_game_stmt,
-					select_players_stmt,
-					select_players_asc_stmt);
-			for (PreparedStatement ps : psList) {
-				if (ps != null) {
-					try {
-						ps.close();
-					} catch (SQLException ex) {}
-				}
-			}
-
-			Connection connection = connector.getConnection();
-			if (connection != null) {
-				try {
-					connection.close();
-				} catch (SQLException ex) {}
-			}
-		}
-
-		return result;
-    }
+	/**
+	 * Closes all connections of this repository to the database.
+	 */
+	void close() {
+		connector.close();
+	}
 
 	@Override
 	public boolean createGameInDB(Board game) {
 		if (game.getGameId() == null) {
-			Connection connection = connector.getConnection();
+			Connection connection = null;
 			try {
+				// the connection is borrowed from the pool of the connector
+				// for the transaction and given back in the end
+				connection = connector.getConnection();
 				connection.setAutoCommit(false);
 
-				PreparedStatement ps = getInsertGameStatementRGK();
-				// TODO: the name should eventually be set by the user
-				//       for the game and should be then obtained by
-				//       game.getName();
-				ps.setString(1, "Date: " +  new Date()); // instead of name
-				ps.setNull(2, Types.TINYINT); // game.getPlayerNumber(game.getCurrentPlayer())); is inserted after players!
-				ps.setInt(3, game.getPhase().ordinal());
-				ps.setInt(4, game.getStep());
-
-				// If you have a foreign key constraint for current players,
-				// the check would need to be temporarily disabled, since
-				// MySQL does not have a per transaction validation, but
-				// validates on a per row basis.
-				// Statement statement = connection.createStatement();
-				// statement.execute("SET foreign_key_checks = 0");
-				
-				int affectedRows = ps.executeUpdate();
-				ResultSet generatedKeys = ps.getGeneratedKeys();
-				if (affectedRows == 1 && generatedKeys.next()) {
-					game.setGameId(generatedKeys.getInt(1));
+				try (PreparedStatement ps = connection.prepareStatement(
+						SQL_INSERT_GAME, Statement.RETURN_GENERATED_KEYS)) {
+					// TODO: the name should eventually be set by the user
+					//       for the game and should be then obtained by
+					//       game.getName();
+					ps.setString(1, "Date: " +  new Date()); // instead of name
+					ps.setNull(2, Types.TINYINT); // game.getPlayerNumber(game.getCurrentPlayer())); is inserted after players!
+					ps.setInt(3, game.getPhase().ordinal());
+					ps.setInt(4, game.getStep());
+
+					// If you have a foreign key constraint for current players,
+					// the check would need to be temporarily disabled, since
+					// MySQL does not have a per transaction validation, but
+					// validates on a per row basis.
+					// Statement statement = connection.createStatement();
+					// statement.execute("SET foreign_key_checks = 0");
+
+					int affectedRows = ps.executeUpdate();
+					ResultSet generatedKeys = ps.getGeneratedKeys();
+					if (affectedRows == 1 && generatedKeys.next()) {
+						game.setGameId(generatedKeys.getInt(1));
+					}
+					generatedKeys.close();
+
+					// Enable foreign key constraint check again:
+					// statement.execute("SET foreign_key_checks = 1");
+					// statement.close();
 				}
-				generatedKeys.close();
-				
-				// Enable foreign key constraint check again:
-				// statement.execute("SET foreign_key_checks = 1");
-				// statement.close();
 
-				createPlayersInDB(game);
-				/* TODO V4a: this method needs to be implemented first
-				createCardFieldsInDB(game);
-				 */
+				createPlayersInDB(connection, game);
+				saveCardFieldsInDB(connection, game);
 
 				// since current player is a foreign key, it can only be
 				// inserted after the players are created, since MySQL does
 				// not have a per transaction validation, but validates on
 				// a per row basis.
-				ps = getSelectGameStatementU();
-				ps.setInt(1, game.getGameId());
-
-				ResultSet rs = ps.executeQuery();
-				if (rs.next()) {
-					rs.updateInt(GAME_CURRENTPLAYER, game.getPlayerNumber(game.getCurrentPlayer()));
-					rs.updateRow();
-				} else {
-					// TODO error handling
-				}
-				rs.close();
+				updateGameRowInDB(connection, game);
 
 				connection.commit();
 				connection.setAutoCommit(true);
@@ -166,13 +157,11 @@ class Repository implements IRepository {
 				// TODO error handling
 				e.printStackTrace();
 				System.err.println("Some DB error");
-				
-				try {
-					connection.rollback();
-					connection.setAutoCommit(true);
-				} catch (SQLException e1) {
-					// TODO error handling
-					e1.printStackTrace();
+
+				rollback(connection);
+			} finally {
+				if (connection != null) {
+					connector.releaseConnection(connection);
 				}
 			}
 		} else {
@@ -185,28 +174,14 @@ class Repository implements IRepository {
 	public boolean updateGameInDB(Board game) {
 		assert game.getGameId() != null;
 		
-		Connection connection = connector.getConnection();
+		Connection connection = null;
 		try {
+			connection = connector.getConnection();
 			connection.setAutoCommit(false);
 
-			PreparedStatement ps = getSelectGameStatementU();
-			ps.setInt(1, game.getGameId());
-			
-			ResultSet rs = ps.executeQuery();
-			if (rs.next()) {
-				rs.updateInt(GAME_CURRENTPLAYER, game.getPlayerNumber(game.getCurrentPlayer()));
-				rs.updateInt(GAME_PHASE, game.getPhase().ordinal());
-				rs.updateInt(GAME_STEP, game.getStep());
-				rs.updateRow();
-			} else {
-				// TODO error handling
-			}
-			rs.close();
-
-			updatePlayersInDB(game);
-			/* TODO V4a: this method needs to be implemented first
-			updateCardFieldsInDB(game);
-			*/
+			updateGameRowInDB(connection, game);
+			updatePlayersInDB(connection, game);
+			saveCardFieldsInDB(connection, game);
 
             connection.commit();
             connection.setAutoCommit(true);
@@ -215,13 +190,11 @@ class Repository implements IRepository {
 			// TODO error handling
 			e.printStackTrace();
 			System.err.println("Some DB error");
-			
-			try {
-				connection.rollback();
-				connection.setAutoCommit(true);
-			} catch (SQLException e1) {
-				// TODO error handling
-				e1.printStackTrace();
+
+			rollback(connection);
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
 			}
 		}
 
@@ -231,35 +204,36 @@ class Repository implements IRepository {
 	@Override
 	public Board loadGameFromDB(int id) {
 		Board game;
+		Connection connection = null;
 		try {
-			// XXX here, we could actually use a simpler statement
-			//     which is not updatable, but we reuse the one from
-			//     above for simplicity
-			PreparedStatement ps = getSelectGameStatementU();
-			ps.setInt(1, id);
-			
-			ResultSet rs = ps.executeQuery();
+			connection = connector.getConnection();
+
 			int playerNo = -1;
-			if (rs.next()) {
-				// TODO V4b: and we should also store the name of the used game board
-				//      in the database, and load the corresponding board from the
-				//      JSON file. For now, we use the default game board.
-				game = BoardFactory.getInstance().createBoard(null);
-				if (game == null) {
+			try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_GAME)) {
+				ps.setInt(1, id);
+
+				ResultSet rs = ps.executeQuery();
+				if (rs.next()) {
+					// TODO V4b: and we should also store the name of the used game board
+					//      in the database, and load the corresponding board from the
+					//      JSON file. For now, we use the default game board.
+					game = BoardFactory.getInstance().createBoard(BoardFactory.getBoardNames().getFirst());
+					if (game == null) {
+						return null;
+					}
+					playerNo = rs.getInt(GAME_CURRENTPLAYER);
+					// TODO currently we do not set the games name (needs to be added)
+					game.setPhase(Phase.values()[rs.getInt(GAME_PHASE)]);
+					game.setStep(rs.getInt(GAME_STEP));
+					game.setCounter(rs.getInt(GAME_COUNTER));
+				} else {
+					// TODO error handling
 					return null;
 				}
-				playerNo = rs.getInt(GAME_CURRENTPLAYER);
-				// TODO currently we do not set the games name (needs to be added)
-				game.setPhase(Phase.values()[rs.getInt(GAME_PHASE)]);
-				game.setStep(rs.getInt(GAME_STEP));
-			} else {
-				// TODO error handling
-				return null;
 			}
-			rs.close();
 
 			game.setGameId(id);			
-			loadPlayersFromDB(game);
+			loadPlayersFromDB(connection, game);
 
 			if (playerNo >= 0 && playerNo < game.getPlayersNumber()) {
 				game.setCurrentPlayer(game.getPlayer(playerNo));
@@ -268,213 +242,442 @@ class Repository implements IRepository {
 				return null;
 			}
 
-			/* TODO V4a: this method needs to be implemented first
-			loadCardFieldsFromDB(game);
-			*/
+			loadCardFieldsFromDB(connection, game);
 
 			return game;
 		} catch (SQLException e) {
 			// TODO error handling
 			e.printStackTrace();
 			System.err.println("Some DB error");
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
+			}
 		}
 		return null;
 	}
 	
+	@Override
+	public boolean saveEventLogInDB(int gameId, GameEventSegment segment) {
+		// only the events since the previous save are written, so the time
+		// for saving does not grow with the length of the game
+		Connection connection = null;
+		try {
+			connection = connector.getConnection();
+			try (PreparedStatement ps = connection.prepareStatement(SQL_SAVE_EVENT_SEGMENT)) {
+				ps.setInt(1, gameId);
+				ps.setLong(2, segment.getFirstEvent());
+				ps.setLong(3, segment.getEndEvent());
+				ps.setInt(4, segment.getSnapshotCount());
+				ps.setBytes(5, segment.encode());
+				ps.executeUpdate();
+			}
+			return true;
+		} catch (SQLException e) {
+			// TODO error handling
+			e.printStackTrace();
+			System.err.println("Some DB error");
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public List<GameEventSegment> loadEventLogFromDB(int gameId) {
+		List<GameEventSegment> result = new ArrayList<>();
+		Connection connection = null;
+		try {
+			connection = connector.getConnection();
+			// the log is restored from the latest snapshot on, so the older
+			// segments are not read
+			long start;
+			try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_EVENT_LOG_START)) {
+				ps.setInt(1, gameId);
+				ResultSet rs = ps.executeQuery();
+				if (!rs.next()) {
+					return result;
+				}
+				start = rs.getLong(SEGMENT_FIRST_EVENT);
+			}
+			try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_EVENT_SEGMENTS)) {
+				ps.setInt(1, gameId);
+				ps.setLong(2, start);
+				ResultSet rs = ps.executeQuery();
+				while (rs.next()) {
+					result.add(GameEventSegment.decode(rs.getBytes(SEGMENT_DATA)));
+				}
+			}
+			return result;
+		} catch (SQLException | IllegalArgumentException e) {
+			// TODO error handling
+			e.printStackTrace();
+			System.err.println("The event log of game " + gameId + " could not be loaded");
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
+			}
+		}
+		return List.of();
+	}
+
 	@Override
 	public List<GameInDB> getGames() {
-		// TODO when there are many games in the DB, fetching all available games
-		//      from the DB is a bit extreme; eventually there should a
-		//      method that can filter the returned games in order to
-		//      reduce the number of the returned games.
+		// XXX when there are many games in the DB, fetching all available games
+		//     from the DB is a bit extreme; use getGames(GameQuery, Integer)
+		//     for fetching the games page by page instead.
 		List<GameInDB> result = new ArrayList<>();
+		Connection connection = null;
 		try {
-			PreparedStatement ps = getSelectGameIdsStatement();
-			ResultSet rs = ps.executeQuery();
-			while (rs.next()) {
-				int id = rs.getInt(GAME_GAMEID);
-				String name = rs.getString(GAME_NAME);
-				result.add(new GameInDB(id,name));
+			connection = connector.getConnection();
+			try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_GAMES)) {
+				ResultSet rs = ps.executeQuery();
+				while (rs.next()) {
+					int id = rs.getInt(GAME_GAMEID);
+					String name = rs.getString(GAME_NAME);
+					result.add(new GameInDB(id,name));
+				}
 			}
-			rs.close();
 		} catch (SQLException e) {
 			// TODO proper error handling
 			e.printStackTrace();
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
+			}
 		}
 		return result;		
 	}
 
-	private void createPlayersInDB(Board game) throws SQLException {
-		// TODO code should be more defensive
-		PreparedStatement ps = getSelectPlayersStatementU();
-		ps.setInt(1, game.getGameId());
-		
-		ResultSet rs = ps.executeQuery();
-		for (int i = 0; i < game.getPlayersNumber(); i++) {
-			Player player = game.getPlayer(i);
-			rs.moveToInsertRow();
-			rs.updateInt(PLAYER_GAMEID, game.getGameId());
-			rs.updateInt(PLAYER_PLAYERID, i);
-			rs.updateString(PLAYER_NAME, player.getName());
-			rs.updateString(PLAYER_COLOUR, player.getColor());
-			rs.updateInt(PLAYER_POSITION_X, player.getSpace().x);
-			rs.updateInt(PLAYER_POSITION_Y, player.getSpace().y);
-			rs.updateInt(PLAYER_HEADING, player.getHeading().ordinal());
-			rs.insertRow();
+	@Override
+	public GamePage getGames(GameQuery query, Integer afterKey) {
+		// the conditions are added only for the filters, which are set; the
+		// page is selected by the game id (keyset pagination), so that the
+		// database does not need to skip the games of the previous pages
+		StringBuilder sql = new StringBuilder(SQL_SELECT_GAMES_PAGE);
+		List<Object> parameters = new ArrayList<>();
+		if (afterKey != null) {
+			sql.append(" AND gameID < ?");
+			parameters.add(afterKey);
+		}
+		if (query.namePrefix != null && !query.namePrefix.isEmpty()) {
+			sql.append(" AND name LIKE ?");
+			parameters.add(escapeLike(query.namePrefix) + "%");
+		}
+		if (query.phase != null) {
+			sql.append(" AND phase = ?");
+			parameters.add(query.phase.ordinal());
+		}
+		if (query.createdFrom != null) {
+			sql.append(" AND created >= ?");
+			parameters.add(Timestamp.from(query.createdFrom));
+		}
+		if (query.createdTo != null) {
+			sql.append(" AND created < ?");
+			parameters.add(Timestamp.from(query.createdTo));
+		}
+		// one more game than the page size is fetched in order to find out
+		// whether there is a next page
+		sql.append(" ORDER BY gameID DESC LIMIT ?");
+		parameters.add(query.pageSize + 1);
+
+		List<GameInDB> games = new ArrayList<>();
+		boolean hasNext = false;
+		Connection connection = null;
+		try {
+			connection = connector.getConnection();
+			try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+				for (int i = 0; i < parameters.size(); i++) {
+					ps.setObject(i + 1, parameters.get(i));
+				}
+				ResultSet rs = ps.executeQuery();
+				while (rs.next()) {
+					if (games.size() == query.pageSize) {
+						hasNext = true;
+						break;
+					}
+					games.add(new GameInDB(rs.getInt(GAME_GAMEID), rs.getString(GAME_NAME)));
+				}
+			}
+		} catch (SQLException e) {
+			// TODO proper error handling
+			e.printStackTrace();
+		} finally {
+			if (connection != null) {
+				connector.releaseConnection(connection);
+			}
 		}
+		return new GamePage(games, hasNext ? games.getLast().id : null);
+	}
 
-		rs.close();
+	/**
+	 * Escapes the wildcards of LIKE patterns in a string, so that it matches
+	 * literally.
+	 */
+	private static String escapeLike(String string) {
+		return string.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
 	}
-	
-	private void loadPlayersFromDB(Board game) throws SQLException {
-		PreparedStatement ps = getSelectPlayersASCStatement();
-		ps.setInt(1, game.getGameId());
-		
-		ResultSet rs = ps.executeQuery();
-		int i = 0;
-		while (rs.next()) {
-			int playerId = rs.getInt(PLAYER_PLAYERID);
-			if (i++ == playerId) {
-				// TODO this should be more defensive
-				String name = rs.getString(PLAYER_NAME);
-				String colour = rs.getString(PLAYER_COLOUR);
-				Player player = new Player(game, colour ,name);
-				game.addPlayer(player);
-				
-				int x = rs.getInt(PLAYER_POSITION_X);
-				int y = rs.getInt(PLAYER_POSITION_Y);
-				player.setSpace(game.getSpace(x,y));
-				int heading = rs.getInt(PLAYER_HEADING);
-				player.setHeading(Heading.values()[heading]);
-			} else {
+
+	/**
+	 * Rolls back the transaction on the connection, if there is one.
+	 */
+	private void rollback(Connection connection) {
+		if (connection != null) {
+			try {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			} catch (SQLException e) {
 				// TODO error handling
-				System.err.println("Game in DB does not have a player with id " + i +"!");
+				e.printStackTrace();
 			}
 		}
-		rs.close();
 	}
-	
-	private void updatePlayersInDB(Board game) throws SQLException {
-		PreparedStatement ps = getSelectPlayersStatementU();
-		ps.setInt(1, game.getGameId());
-		
-		ResultSet rs = ps.executeQuery();
-		while (rs.next()) {
-			int playerId = rs.getInt(PLAYER_PLAYERID);
-			// TODO should be more defensive
-			Player player = game.getPlayer(playerId);
-			// rs.updateString(PLAYER_NAME, player.getName()); // not needed: player's names does not change
-			rs.updateInt(PLAYER_POSITION_X, player.getSpace().x);
-			rs.updateInt(PLAYER_POSITION_Y, player.getSpace().y);
-			rs.updateInt(PLAYER_HEADING, player.getHeading().ordinal());
-			// TODO error handling
-			// TODO take care of case when number of players changes, etc
-			rs.updateRow();
+
+	/**
+	 * Updates the current player, the phase, the step and the round counter
+	 * of the game in its row of the Game table.
+	 */
+	private void updateGameRowInDB(Connection connection, Board game) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL_UPDATE_GAME)) {
+			ps.setInt(1, game.getPlayerNumber(game.getCurrentPlayer()));
+			ps.setInt(2, game.getPhase().ordinal());
+			ps.setInt(3, game.getStep());
+			ps.setInt(4, game.getCounter());
+			ps.setInt(5, game.getGameId());
+			if (ps.executeUpdate() != 1) {
+				throw new SQLException("Game " + game.getGameId() + " does not exist in DB");
+			}
 		}
-		rs.close();
-		
-		// TODO error handling/consistency check: check whether all players were updated
 	}
 
-	private static final String SQL_INSERT_GAME =
-			"INSERT INTO Game(name, currentPlayer, phase, step) VALUES (?, ?, ?, ?)";
+	/**
+	 * Inserts all players of the game with a single batch, so that this
+	 * does not need a round trip to the database for every player.
+	 */
+	private void createPlayersInDB(Connection connection, Board game) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL_INSERT_PLAYER)) {
+			for (int i = 0; i < game.getPlayersNumber(); i++) {
+				Player player = game.getPlayer(i);
+				ps.setInt(1, game.getGameId());
+				ps.setInt(2, i);
+				ps.setString(3, player.getName());
+				ps.setString(4, player.getColor());
+				ps.setInt(5, player.getSpace().x);
+				ps.setInt(6, player.getSpace().y);
+				ps.setInt(7, player.getHeading().ordinal());
+				ps.setInt(8, player.getNextCheckpoint());
+				setCommand(ps, 9, player.getLastCommand());
+				ps.addBatch();
+			}
+			ps.executeBatch();
+		}
+	}
 
-	private PreparedStatement insert_game_stmt = null;
+	private void loadPlayersFromDB(Connection connection, Board game) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_PLAYERS_ASC)) {
+			ps.setInt(1, game.getGameId());
 
-	private PreparedStatement getInsertGameStatementRGK() {
-		if (insert_game_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				insert_game_stmt = connection.prepareStatement(
-						SQL_INSERT_GAME,
-						Statement.RETURN_GENERATED_KEYS);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
+			ResultSet rs = ps.executeQuery();
+			int i = 0;
+			while (rs.next()) {
+				int playerId = rs.getInt(PLAYER_PLAYERID);
+				if (i++ == playerId) {
+					// TODO this should be more defensive
+					String name = rs.getString(PLAYER_NAME);
+					String colour = rs.getString(PLAYER_COLOUR);
+					Player player = new Player(game, colour ,name);
+					game.addPlayer(player);
+
+					int x = rs.getInt(PLAYER_POSITION_X);
+					int y = rs.getInt(PLAYER_POSITION_Y);
+					player.setSpace(game.getSpace(x,y));
+					int heading = rs.getInt(PLAYER_HEADING);
+					player.setHeading(Heading.values()[heading]);
+					int nextCheckpoint = rs.getInt(PLAYER_NEXT_CHECKPOINT);
+					for (int checkpoint = 1; checkpoint < nextCheckpoint; checkpoint++) {
+						player.incrementNextCheckpoint();
+					}
+					player.setLastCommand(getCommand(rs, PLAYER_LAST_COMMAND));
+				} else {
+					// TODO error handling
+					System.err.println("Game in DB does not have a player with id " + i +"!");
+				}
 			}
 		}
-		return insert_game_stmt;
 	}
-
-	private static final String SQL_SELECT_GAME =
-			"SELECT * FROM Game WHERE gameID = ?";
-	
-	private PreparedStatement select_game_stmt = null;
 	
-	private PreparedStatement getSelectGameStatementU() {
-		if (select_game_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_game_stmt = connection.prepareStatement(
-						SQL_SELECT_GAME,
-						ResultSet.TYPE_FORWARD_ONLY,
-					    ResultSet.CONCUR_UPDATABLE);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
+	/**
+	 * Updates the positions, headings, checkpoint progress and last commands
+	 * of all players of the game with a single batch.
+	 */
+	private void updatePlayersInDB(Connection connection, Board game) throws SQLException {
+		// TODO take care of case when number of players changes, etc
+		try (PreparedStatement ps = connection.prepareStatement(SQL_UPDATE_PLAYER)) {
+			for (int i = 0; i < game.getPlayersNumber(); i++) {
+				Player player = game.getPlayer(i);
+				// the player's name does not change, so it is not updated
+				ps.setInt(1, player.getSpace().x);
+				ps.setInt(2, player.getSpace().y);
+				ps.setInt(3, player.getHeading().ordinal());
+				ps.setInt(4, player.getNextCheckpoint());
+				setCommand(ps, 5, player.getLastCommand());
+				ps.setInt(6, game.getGameId());
+				ps.setInt(7, i);
+				ps.addBatch();
 			}
+			checkBatch(ps.executeBatch(), "player");
 		}
-		return select_game_stmt;
 	}
-		
-	private static final String SQL_SELECT_PLAYERS =
-			"SELECT * FROM Player WHERE gameID = ?";
-
-	private PreparedStatement select_players_stmt = null;
 
-	private PreparedStatement getSelectPlayersStatementU() {
-		if (select_players_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_players_stmt = connection.prepareStatement(
-						SQL_SELECT_PLAYERS,
-						ResultSet.TYPE_FORWARD_ONLY,
-						ResultSet.CONCUR_UPDATABLE);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
+	/**
+	 * Saves the program registers and the hand cards of all players of the
+	 * game with a single batch. The rows of the card fields are inserted, if
+	 * they do not exist yet (e.g. for games, which were saved before the
+	 * card fields were saved), and updated otherwise.
+	 */
+	private void saveCardFieldsInDB(Connection connection, Board game) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL_SAVE_CARD_FIELD)) {
+			for (int i = 0; i < game.getPlayersNumber(); i++) {
+				Player player = game.getPlayer(i);
+				for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+					addCardFieldToBatch(ps, game, i, FIELD_TYPE_REGISTER, j, player.getProgramField(j));
+				}
+				for (int j = 0; j < Player.NO_CARDS; j++) {
+					addCardFieldToBatch(ps, game, i, FIELD_TYPE_HAND, j, player.getCardField(j));
+				}
 			}
+			// the count of an unchanged row is 0, so the counts are not checked
+			ps.executeBatch();
 		}
-		return select_players_stmt;
 	}
 
-	private static final String SQL_SELECT_PLAYERS_ASC =
-			"SELECT * FROM Player WHERE gameID = ? ORDER BY playerID ASC";
-	
-	private PreparedStatement select_players_asc_stmt = null;
-	
-	private PreparedStatement getSelectPlayersASCStatement() {
-		if (select_players_asc_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				// This statement does not need to be updatable
-				select_players_asc_stmt = connection.prepareStatement(
-						SQL_SELECT_PLAYERS_ASC);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
+	/**
+	 * Adds a card field to the batch of the statement for saving card fields.
+	 */
+	private void addCardFieldToBatch(PreparedStatement ps, Board game, int playerNo, int type, int position,
+									 CommandCardField field) throws SQLException {
+		ps.setBoolean(1, field.isVisible());
+		CommandCard card = field.getCard();
+		setCommand(ps, 2, card != null ? card.command : null);
+		ps.setInt(3, game.getGameId());
+		ps.setInt(4, playerNo);
+		ps.setInt(5, type);
+		ps.setInt(6, position);
+		ps.addBatch();
+	}
+
+	private void loadCardFieldsFromDB(Connection connection, Board game) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL_SELECT_CARD_FIELDS)) {
+			ps.setInt(1, game.getGameId());
+
+			ResultSet rs = ps.executeQuery();
+			while (rs.next()) {
+				int playerId = rs.getInt(FIELD_PLAYERID);
+				int position = rs.getInt(FIELD_POSITION);
+				Player player = game.getPlayer(playerId);
+				CommandCardField field = null;
+				if (player != null) {
+					int type = rs.getInt(FIELD_TYPE);
+					if (type == FIELD_TYPE_REGISTER && position >= 0 && position < Player.NUMBER_OF_REGISTERS) {
+						field = player.getProgramField(position);
+					} else if (type == FIELD_TYPE_HAND && position >= 0 && position < Player.NO_CARDS) {
+						field = player.getCardField(position);
+					}
+				}
+				if (field != null) {
+					Command command = getCommand(rs, FIELD_COMMAND);
+					field.setCard(command != null ? CommandCard.of(command) : null);
+					field.setVisible(rs.getBoolean(FIELD_VISIBLE));
+				} else {
+					// TODO error handling
+					System.err.println("Game in DB has an illegal card field for player " + playerId + "!");
+				}
 			}
 		}
-		return select_players_asc_stmt;
 	}
-	
-	private static final String SQL_SELECT_GAMES =
-			"SELECT gameID, name FROM Game";
-	
-	private PreparedStatement select_games_stmt = null;
-	
-	private PreparedStatement getSelectGameIdsStatement() {
-		if (select_games_stmt == null) {
-			Connection connection = connector.getConnection();
-			try {
-				select_games_stmt = connection.prepareStatement(
-						SQL_SELECT_GAMES);
-			} catch (SQLException e) {
-				// TODO error handling
-				e.printStackTrace();
+
+	/**
+	 * Sets a parameter to the ordinal of a command, or to NULL if there is
+	 * no command.
+	 */
+	private static void setCommand(PreparedStatement ps, int index, Command command) throws SQLException {
+		if (command != null) {
+			ps.setInt(index, command.ordinal());
+		} else {
+			ps.setNull(index, Types.TINYINT);
+		}
+	}
+
+	/**
+	 * Gets the command with the ordinal in the given column, or null if the
+	 * column is NULL or not the ordinal of a command.
+	 */
+	private static Command getCommand(ResultSet rs, String column) throws SQLException {
+		int command = rs.getInt(column);
+		if (!rs.wasNull() && command >= 0 && command < Command.values().length) {
+			return Command.values()[command];
+		}
+		return null;
+	}
+
+	/**
+	 * Checks that every statement of a batch of updates changed a row.
+	 */
+	private void checkBatch(int[] counts, String entity) throws SQLException {
+		for (int count : counts) {
+			if (count == 0) {
+				throw new SQLException("Some " + entity + " of the game does not exist in DB");
 			}
 		}
-		return select_games_stmt;
 	}
 
+	private static final String SQL_INSERT_GAME =
+			"INSERT INTO Game(name, currentPlayer, phase, step) VALUES (?, ?, ?, ?)";
+
+	private static final String SQL_SELECT_GAME =
+			"SELECT * FROM Game WHERE gameID = ?";
+
+	private static final String SQL_UPDATE_GAME =
+			"UPDATE Game SET currentPlayer = ?, phase = ?, step = ?, counter = ? WHERE gameID = ?";
+
+	private static final String SQL_INSERT_PLAYER =
+			"INSERT INTO Player(gameID, playerID, name, colour, positionX, positionY, heading, " +
+			"nextCheckpoint, lastCommand) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	private static final String SQL_UPDATE_PLAYER =
+			"UPDATE Player SET positionX = ?, positionY = ?, heading = ?, nextCheckpoint = ?, lastCommand = ? " +
+			"WHERE gameID = ? AND playerID = ?";
+
+	private static final String SQL_SAVE_CARD_FIELD =
+			"INSERT INTO CardField(visible, command, gameID, playerID, type, position) " +
+			"VALUES (?, ?, ?, ?, ?, ?) AS new " +
+			"ON DUPLICATE KEY UPDATE visible = new.visible, command = new.command";
+
+	private static final String SQL_SELECT_PLAYERS_ASC =
+			"SELECT * FROM Player WHERE gameID = ? ORDER BY playerID ASC";
+
+	private static final String SQL_SELECT_CARD_FIELDS =
+			"SELECT * FROM CardField WHERE gameID = ?";
+
+	private static final String SQL_SAVE_EVENT_SEGMENT =
+			"INSERT INTO GameEventSegment(gameID, firstEvent, endEvent, snapshots, data) " +
+			"VALUES (?, ?, ?, ?, ?) AS new " +
+			"ON DUPLICATE KEY UPDATE endEvent = new.endEvent, snapshots = new.snapshots, data = new.data";
+
+	private static final String SQL_SELECT_EVENT_LOG_START =
+			"SELECT firstEvent FROM GameEventSegment WHERE gameID = ? AND snapshots > 0 " +
+			"ORDER BY firstEvent DESC LIMIT 1";
+
+	private static final String SQL_SELECT_EVENT_SEGMENTS =
+			"SELECT data FROM GameEventSegment WHERE gameID = ? AND firstEvent >= ? ORDER BY firstEvent ASC";
+
+	private static final String SQL_SELECT_GAMES =
+			"SELECT gameID, name FROM Game";
+
+	// the conditions and the order of the page are added by getGames
+	private static final String SQL_SELECT_GAMES_PAGE =
+			"SELECT gameID, name FROM Game WHERE TRUE";
+
 }
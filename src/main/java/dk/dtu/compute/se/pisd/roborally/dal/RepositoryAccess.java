@@ -21,6 +21,8 @@
  */
 package dk.dtu.compute.se.pisd.roborally.dal;
 
+import java.io.IOException;
+
 /**
  * ...
  *
@@ -28,14 +30,64 @@ package dk.dtu.compute.se.pisd.roborally.dal;
  *
  */
 public class RepositoryAccess {
-    
-	private static Repository repository;
-	
-	public static IRepository getRepository() {
-		if (repository == null || !repository.isAlive()) {
-			repository = new Repository(new Connector());
+
+	private static final String PROP_REPOSITORY = "REPOSITORY";
+
+	private static final String REPOSITORY_MYSQL = "mysql";
+
+	private static final String REPOSITORY_MEMORY = "memory";
+
+	private static IRepository repository;
+
+	/**
+	 * Get the repository. The repository is created when it is accessed for
+	 * the first time; it can be used by several threads at the same time.
+	 * The kind of repository is selected by the property REPOSITORY in the
+	 * file db.properties: "mysql" (the default) for the MySQL database
+	 * given in that file, where every access uses its own connection from
+	 * the pool of the {@link Connector}, or "memory" for an
+	 * {@link InMemoryRepository}.
+	 *
+	 * @return the repository
+	 */
+	public static synchronized IRepository getRepository() {
+		if (repository == null) {
+			String kind;
+			try {
+				kind = Connector.loadProperties().getProperty(PROP_REPOSITORY, REPOSITORY_MYSQL).trim();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+			switch (kind) {
+				case REPOSITORY_MYSQL -> repository = new Repository(new Connector());
+				case REPOSITORY_MEMORY -> repository = new InMemoryRepository();
+				default -> throw new RuntimeException(
+						"Unknown repository '" + kind + "' in 'db.properties' file.");
+			}
 		}
 		return repository;
 	}
+
+	/**
+	 * Closes the connections of the repository to the database, if it was
+	 * created already. This should be called when the application exits;
+	 * a later call of {@link #getRepository()} creates a new repository.
+	 */
+	public static synchronized void close() {
+		if (repository instanceof Repository databaseRepository) {
+			databaseRepository.close();
+		}
+		repository = null;
+	}
+
+	/**
+	 * Sets the repository, which is returned by {@link #getRepository()}
+	 * from now on, e.g. an {@link InMemoryRepository} for tests.
+	 *
+	 * @param repository the repository
+	 */
+	public static synchronized void setRepository(IRepository repository) {
+		RepositoryAccess.repository = repository;
+	}
 	
 }
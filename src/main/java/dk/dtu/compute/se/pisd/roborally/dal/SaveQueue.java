@@ -0,0 +1,231 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * A write-behind queue for saving games in the database without blocking
+ * the thread of the game (the JavaFX application thread). A save only takes
+ * a {@link GameSnapshot} of the board and puts it into the queue; the
+ * snapshots are written to the repository on a background thread.
+ * <p>
+ * Repeated saves of the same game are coalesced: if a game is saved again
+ * before its last snapshot was written, only the newer snapshot is written.
+ * The queue holds snapshots of at most the given number of different
+ * games; a save of another game waits until there is room in the queue.
+ * A game without a game id is created in the repository when its first
+ * snapshot is written; the board then gets the id of the created game.
+ * <p>
+ * The {@link GameEventLog} of a game can be saved together with the game:
+ * the events since the last save are cut off the log as a
+ * {@link GameEventSegment} when the game is saved, and the segment is
+ * written in the background thread after the game. The segments of
+ * coalesced saves are all written, in the order in which they were cut.
+ */
+public class SaveQueue {
+
+    final public static int DEFAULT_CAPACITY = 16;
+
+    final private Supplier<IRepository> repositorySupplier;
+
+    final private int capacity;
+
+    final private ExecutorService executor;
+
+    // a snapshot of a game and the segments of its event log, which were
+    // not written yet
+    private record PendingSave(GameSnapshot snapshot, List<GameEventSegment> segments) {}
+
+    // the latest snapshot of every game, which was not written yet, in the
+    // order in which the games were saved first. All access to the fields
+    // below must be synchronized on this map.
+    final private Map<Board, PendingSave> pending = new LinkedHashMap<>();
+
+    private boolean writing = false;
+
+    private boolean closed = false;
+
+    private IRepository repository;
+
+    /**
+     * Creates a queue, which writes to the given repository. The repository
+     * is obtained from the supplier in the background thread, when the first
+     * snapshot is written, since this might need to connect to the database.
+     *
+     * @param repositorySupplier the supplier of the repository
+     * @param capacity the maximum number of games with pending snapshots
+     */
+    public SaveQueue(@NotNull Supplier<IRepository> repositorySupplier, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be positive");
+        }
+        this.repositorySupplier = repositorySupplier;
+        this.capacity = capacity;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "RoboRally save queue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public SaveQueue(@NotNull Supplier<IRepository> repositorySupplier) {
+        this(repositorySupplier, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Saves the current state of the game on the board. This takes a snapshot
+     * of the board and returns without waiting for the snapshot to be written,
+     * unless the queue is full with snapshots of other games. This must be
+     * called in the thread in which the board is changed.
+     *
+     * @param board the board of the game
+     * @throws IllegalStateException if the queue is closed
+     */
+    public void save(@NotNull Board board) {
+        save(board, null);
+    }
+
+    /**
+     * Saves the current state of the game on the board together with the
+     * events of its event log since the last save, like {@link #save(Board)}.
+     * The events are written after the game. The log must only be saved
+     * with this queue.
+     *
+     * @param board the board of the game
+     * @param log the event log of the game, or null
+     * @throws IllegalStateException if the queue is closed
+     */
+    public void save(@NotNull Board board, GameEventLog log) {
+        GameSnapshot snapshot = GameSnapshot.of(board);
+        GameEventSegment segment = log != null ? log.nextSegment() : null;
+        synchronized (pending) {
+            while (!closed && !pending.containsKey(board) && pending.size() >= capacity) {
+                awaitChange();
+            }
+            if (closed) {
+                throw new IllegalStateException("The save queue is closed");
+            }
+            PendingSave previous = pending.get(board);
+            List<GameEventSegment> segments = previous != null ? previous.segments() : new ArrayList<>();
+            if (segment != null) {
+                segments.add(segment);
+            }
+            pending.put(board, new PendingSave(snapshot, segments));
+            if (!writing) {
+                writing = true;
+                executor.execute(this::write);
+            }
+        }
+    }
+
+    /**
+     * Waits until all snapshots, which were saved so far, are written.
+     */
+    public void flush() {
+        synchronized (pending) {
+            while (writing) {
+                awaitChange();
+            }
+        }
+    }
+
+    /**
+     * Writes all pending snapshots and stops the background thread. After
+     * that, no more games can be saved.
+     */
+    public void close() {
+        synchronized (pending) {
+            closed = true;
+            pending.notifyAll();
+        }
+        flush();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes the pending snapshots in the background thread, until there are
+     * no more pending snapshots.
+     */
+    private void write() {
+        while (true) {
+            Board board;
+            PendingSave save;
+            Integer gameId;
+            synchronized (pending) {
+                Iterator<Map.Entry<Board, PendingSave>> iterator = pending.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    writing = false;
+                    pending.notifyAll();
+                    return;
+                }
+                Map.Entry<Board, PendingSave> entry = iterator.next();
+                iterator.remove();
+                pending.notifyAll();
+                board = entry.getKey();
+                save = entry.getValue();
+                // the id is taken from the board, since it might have been
+                // created after the snapshot was taken
+                gameId = board.getGameId();
+            }
+
+            try {
+                if (repository == null) {
+                    repository = repositorySupplier.get();
+                }
+                Board copy = save.snapshot().toBoard(gameId);
+                boolean saved;
+                if (gameId != null) {
+                    saved = repository.updateGameInDB(copy);
+                    if (!saved) {
+                        System.err.println("Game " + gameId + " could not be saved!");
+                    }
+                } else {
+                    saved = repository.createGameInDB(copy);
+                    if (saved) {
+                        synchronized (pending) {
+                            board.setGameId(copy.getGameId());
+                        }
+                    } else {
+                        System.err.println("Game could not be created in DB!");
+                    }
+                }
+                if (saved) {
+                    for (GameEventSegment segment : save.segments()) {
+                        if (!repository.saveEventLogInDB(copy.getGameId(), segment)) {
+                            System.err.println("The event log of game " + copy.getGameId() + " could not be saved!");
+                        }
+                    }
+                }
+            } catch (RuntimeException e) {
+                // TODO error handling
+                e.printStackTrace();
+                System.err.println("Game could not be saved!");
+            }
+        }
+    }
+
+    private void awaitChange() {
+        try {
+            pending.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the save queue", e);
+        }
+    }
+
+}
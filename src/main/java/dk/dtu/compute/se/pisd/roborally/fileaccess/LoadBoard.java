@@ -23,25 +23,39 @@ package dk.dtu.compute.se.pisd.roborally.fileaccess;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import dk.dtu.compute.se.pisd.roborally.controller.AppController;
 import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
 import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorConflictIndex;
 import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.ActionTemplate;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.BoardTemplate;
+import dk.dtu.compute.se.pisd.roborally.fileaccess.model.CheckPointTemplate;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.ConveyorBeltTemplate;
 import dk.dtu.compute.se.pisd.roborally.fileaccess.model.SpaceTemplate;
 import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.BoardLayout;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
 import dk.dtu.compute.se.pisd.roborally.model.Space;
 
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ...
@@ -54,84 +68,308 @@ public class LoadBoard {
     private static final String DEFAULTBOARD = "defaultboard";
     private static final String JSON_EXT = "json";
 
+    // Gson objects are thread-safe and expensive to create, so they are
+    // created only once
+    private static final Gson GSON = new GsonBuilder().
+            registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>()).
+            create();
+
+    private static final Gson PRETTY_GSON = GSON.newBuilder().
+            setPrettyPrinting().
+            create();
+
+    // the property names of the JSON files of boards and of the field
+    // actions (as written by the Adapter)
+    private static final String WIDTH = "width";
+    private static final String HEIGHT = "height";
+    private static final String SPACES = "spaces";
+    private static final String X = "x";
+    private static final String Y = "y";
+    private static final String WALLS = "walls";
+    private static final String ACTIONS = "actions";
+    private static final String CLASSNAME = "CLASSNAME";
+    private static final String INSTANCE = "INSTANCE";
+
+    /**
+     * Reads the properties of a field action from a JSON object and creates
+     * the field action. The reader is positioned at the start of the object
+     * and must be positioned behind its end when the field action is returned.
+     */
+    @FunctionalInterface
+    public interface ActionReader {
+
+        FieldAction read(JsonReader in) throws IOException;
+
+    }
+
+    private static final Map<String, ActionReader> actionReaders = new ConcurrentHashMap<>();
+
+    static {
+        registerAction(ConveyorBeltTemplate.class.getName(), in -> {
+            Heading heading = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("heading") && in.peek() != JsonToken.NULL) {
+                    heading = Heading.valueOf(in.nextString());
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (heading == null) {
+                throw new MalformedJsonException("Conveyor belt without heading");
+            }
+            return ConveyorBelt.of(heading);
+        });
+        registerAction(CheckPointTemplate.class.getName(), in -> {
+            int number = -1;
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("number")) {
+                    number = in.nextInt();
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            if (number < 1) {
+                throw new MalformedJsonException("Checkpoint without number");
+            }
+            return Checkpoint.of(number);
+        });
+        // XXX if new field actions are added, a reader for the corresponding
+        //     template needs to be registered here.
+    }
+
+    /**
+     * Registers the reader for the field actions of a type in the JSON files
+     * of boards. The type name is the value of the property "CLASSNAME" of
+     * the action.
+     *
+     * @param typeName the type name of the action
+     * @param actionReader the reader creating the field action
+     */
+    public static void registerAction(String typeName, ActionReader actionReader) {
+        actionReaders.put(typeName, actionReader);
+    }
+
+    // the layouts of the boards loaded from the resources, by their name
+    private static final Map<String, BoardLayout> layouts = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the board with the given name from the resources; if there is
+     * no such resource, the board is created by the {@link BoardFactory}.
+     * A board is read only once; all boards with the same name share its
+     * layout (see {@link BoardLayout}).
+     *
+     * @param boardname the name of the board; null for the default board
+     * @return the board, or null if the board could not be loaded
+     */
     public static Board loadBoard(String boardname) {
         if (boardname == null) {
             boardname = DEFAULTBOARD;
         }
 
+        BoardLayout layout = layouts.get(boardname);
+        if (layout == null) {
+            Board board = readBoard(boardname);
+            if (board == null || board.getLayout() != null) {
+                // the board could not be read, or it comes from the factory,
+                // which shares its layouts already
+                return board;
+            }
+            layout = layouts.computeIfAbsent(boardname, name -> BoardLayout.of(board));
+        }
+        return layout.createBoard();
+    }
+
+    private static Board readBoard(String boardname) {
         ClassLoader classLoader = LoadBoard.class.getClassLoader();
         InputStream inputStream = classLoader.getResourceAsStream(BOARDSFOLDER + "/" + boardname + "." + JSON_EXT);
         if (inputStream == null) {
             return BoardFactory.getInstance().createBoard(boardname);
         }
 
-		// In simple cases, we can create a Gson object with new Gson():
-        GsonBuilder simpleBuilder = new GsonBuilder().
-                registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>());
-        Gson gson = simpleBuilder.create();
-
-		Board result;
-        JsonReader reader = null;
-		try {
-			reader = gson.newJsonReader(new InputStreamReader(inputStream));
-			BoardTemplate template = gson.fromJson(reader, BoardTemplate.class);
-			result = convert(template, boardname);
-			reader.close();
-			return result;
-		} catch (IOException e1) {
-            if (reader != null) {
-                try {
-                    reader.close();
-                    inputStream = null;
-                } catch (IOException e2) {}
-            }
-            if (inputStream != null) {
-				try {
-					inputStream.close();
-				} catch (IOException e2) {}
-			}
-		}
-		return null;
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            return loadBoard(reader, boardname);
+        } catch (IOException | RuntimeException e) {
+            // TODO error handling
+            e.printStackTrace();
+            System.err.println("Board " + boardname + " could not be loaded!");
+        }
+        return null;
     }
 
-    private static Board convert(BoardTemplate template, String boardname) {
-        Board result = new Board(template.width, template.height, boardname);
-        for (SpaceTemplate spaceTemplate: template.spaces) {
-            Space space = result.getSpace(spaceTemplate.x, spaceTemplate.y);
-            if (space != null) {
-                space.getActions().addAll(convert(spaceTemplate.actions));
-                space.getWalls().addAll(spaceTemplate.walls);
+    /**
+     * Loads a board from the JSON representation of a board. The JSON is
+     * read as a stream of tokens and the spaces of the board are filled
+     * while they are read, so that only a single space is kept in memory
+     * in addition to the board (if the width and height come first in the
+     * JSON, as written by {@link #saveBoard(Board, String)}; otherwise, the
+     * spaces are kept until the size of the board is known). Field actions
+     * are created by the readers registered with
+     * {@link #registerAction(String, ActionReader)}; actions of other types
+     * are ignored.
+     *
+     * @param reader the reader of the JSON; it is not closed
+     * @param boardname the name of the board
+     * @return the loaded board
+     * @throws IOException if the JSON cannot be read or is malformed
+     */
+    public static Board loadBoard(Reader reader, String boardname) throws IOException {
+        JsonReader in = GSON.newJsonReader(reader);
+        Board result = null;
+        int width = -1;
+        int height = -1;
+        List<SpaceData> pending = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case WIDTH -> width = in.nextInt();
+                case HEIGHT -> height = in.nextInt();
+                case SPACES -> {
+                    if (result == null && width >= 0 && height >= 0) {
+                        result = new Board(width, height, boardname);
+                    }
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        SpaceData spaceData = readSpace(in);
+                        if (result != null) {
+                            spaceData.applyTo(result);
+                        } else {
+                            pending.add(spaceData);
+                        }
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
             }
         }
+        in.endObject();
+
+        if (width < 0 || height < 0) {
+            throw new MalformedJsonException("Board " + boardname + " has no width or height");
+        }
+        if (result == null) {
+            result = new Board(width, height, boardname);
+        }
+        for (SpaceData spaceData : pending) {
+            spaceData.applyTo(result);
+        }
+        result.setNoOfCheckpoints(countCheckpoints(result));
+        ConveyorConflictIndex.build(result);
         return result;
     }
 
-    private static List<FieldAction> convert(List<ActionTemplate> actionTemplates) {
-        List<FieldAction> result = new ArrayList<>();
+    /**
+     * Computes the number of checkpoints of a board, which is the highest
+     * number of its checkpoints.
+     */
+    private static int countCheckpoints(Board board) {
+        int count = 0;
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                for (FieldAction action : board.getSpace(x, y).getActions()) {
+                    if (action instanceof Checkpoint checkpoint) {
+                        count = Math.max(count, checkpoint.getSequence());
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The walls and actions of a single space, which are collected until
+     * the whole JSON object of the space is read (the coordinates of the
+     * space might come last).
+     */
+    private record SpaceData(int x, int y, List<Heading> walls, List<FieldAction> actions) {
 
-        for (ActionTemplate template: actionTemplates) {
-            FieldAction fieldAction = convert(template);
-            if (fieldAction != null) {
-                result.add(fieldAction);
+        void applyTo(Board board) {
+            Space space = board.getSpace(x, y);
+            if (space != null) {
+                space.getActions().addAll(actions);
+                for (Heading wall : walls) {
+                    space.addWall(wall);
+                }
             }
         }
 
-        return result;
     }
 
-    private static FieldAction convert(ActionTemplate actionTemplate) {
-        if (actionTemplate instanceof ConveyorBeltTemplate) {
-            ConveyorBeltTemplate template = (ConveyorBeltTemplate) actionTemplate;
-            ConveyorBelt conveyorBelt = new ConveyorBelt();
-            conveyorBelt.setHeading(template.heading);
-            return conveyorBelt;
-        } // else if ...
-        // XXX if new field actions are added, the corresponding templates
-        //     need to be added to the model subpackage of fileaccess and
-        //     the else statement must be extended for converting the
-        //     action template to the corresponding field action.
+    private static SpaceData readSpace(JsonReader in) throws IOException {
+        int x = -1;
+        int y = -1;
+        List<Heading> walls = new ArrayList<>();
+        List<FieldAction> actions = new ArrayList<>();
 
-        return null;
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case X -> x = in.nextInt();
+                case Y -> y = in.nextInt();
+                case WALLS -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        walls.add(Heading.valueOf(in.nextString()));
+                    }
+                    in.endArray();
+                }
+                case ACTIONS -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        FieldAction action = readAction(in);
+                        if (action != null) {
+                            actions.add(action);
+                        }
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new SpaceData(x, y, walls, actions);
+    }
+
+    private static FieldAction readAction(JsonReader in) throws IOException {
+        String typeName = null;
+        JsonElement instance = null;
+        FieldAction result = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case CLASSNAME -> typeName = in.nextString();
+                case INSTANCE -> {
+                    ActionReader actionReader = typeName != null ? actionReaders.get(typeName) : null;
+                    if (actionReader != null) {
+                        result = actionReader.read(in);
+                    } else if (typeName == null) {
+                        // the type is not known yet, so the (small) instance
+                        // needs to be kept until the type is read
+                        instance = JsonParser.parseReader(in);
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (instance != null && typeName != null) {
+            ActionReader actionReader = actionReaders.get(typeName);
+            if (actionReader != null) {
+                result = actionReader.read(GSON.newJsonReader(new StringReader(instance.toString())));
+            }
+        }
+        if (result == null) {
+            System.err.println("Field action of type " + typeName + " is not supported and is ignored!");
+        }
+        return result;
     }
 
     // The following method is not needed for RoboRally; but it would
@@ -151,17 +389,9 @@ public class LoadBoard {
         String filename =
                 classLoader.getResource(BOARDSFOLDER).getPath() + "/" + name + "." + JSON_EXT;
 
-        // In simple cases, we can create a Gson object with new:
-        //
-        //   Gson gson = new Gson();
-        //
-        // But, if you need to configure it, it is better to create it from
-        // a builder (here, we want to configure the JSON serialisation with
-        // a pretty printer):
-        GsonBuilder simpleBuilder = new GsonBuilder().
-                registerTypeAdapter(ActionTemplate.class, new Adapter<ActionTemplate>()).
-                setPrettyPrinting();
-        Gson gson = simpleBuilder.create();
+        // The Gson object is configured with the adapter for the action
+        // templates and a pretty printer (see PRETTY_GSON above)
+        Gson gson = PRETTY_GSON;
 
         FileWriter fileWriter = null;
         JsonWriter writer = null;
@@ -197,7 +427,7 @@ public class LoadBoard {
                     SpaceTemplate spaceTemplate = new SpaceTemplate();
                     spaceTemplate.x = x;
                     spaceTemplate.y = y;
-                    spaceTemplate.actions = convertToTemplate(space.getActions());
+                    spaceTemplate.actions = convertToTemplate(space.getActions(), board.getNoOfCheckpoints());
                     spaceTemplate.walls = new ArrayList<>(space.getWalls());
                 }
             }
@@ -205,11 +435,11 @@ public class LoadBoard {
         return result;
     }
 
-    private static List<ActionTemplate> convertToTemplate(List<FieldAction> actions) {
+    private static List<ActionTemplate> convertToTemplate(List<FieldAction> actions, int noOfCheckpoints) {
         List<ActionTemplate> result = new ArrayList<>();
 
         for (FieldAction action: actions) {
-            ActionTemplate template = convertToTemplate(action);
+            ActionTemplate template = convertToTemplate(action, noOfCheckpoints);
             if (template != null) {
                 result.add(template);
             }
@@ -218,12 +448,18 @@ public class LoadBoard {
         return result;
     }
 
-    private static ActionTemplate convertToTemplate(FieldAction action) {
+    private static ActionTemplate convertToTemplate(FieldAction action, int noOfCheckpoints) {
         if (action instanceof ConveyorBelt) {
             ConveyorBelt conveyorBelt = (ConveyorBelt) action;
             ConveyorBeltTemplate conveyorBeltTemplate = new ConveyorBeltTemplate();
             conveyorBeltTemplate.heading = conveyorBelt.getHeading();
             return conveyorBeltTemplate;
+        } else if (action instanceof Checkpoint) {
+            Checkpoint checkpoint = (Checkpoint) action;
+            CheckPointTemplate checkPointTemplate = new CheckPointTemplate();
+            checkPointTemplate.number = checkpoint.getSequence();
+            checkPointTemplate.last = checkpoint.getSequence() == noOfCheckpoints;
+            return checkPointTemplate;
         } // else if ...
         // XXX if new field actions are added, the corresponding templates
         //     need to be added to the model subpackage of fileaccess and
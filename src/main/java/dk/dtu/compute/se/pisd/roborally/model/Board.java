@@ -22,6 +22,7 @@
 package dk.dtu.compute.se.pisd.roborally.model;
 
 import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorConflictIndex;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -43,7 +44,9 @@ public class Board extends Subject {
     public final int height;
 
     public final String boardName;
-    private final Space[][] spaces;
+
+    // the spaces of the board, indexed by x * height + y
+    private final Space[] spaces;
     private final List<Player> players = new ArrayList<>();
     private Integer gameId;
     private Player current;
@@ -58,22 +61,60 @@ public class Board extends Subject {
 
     private int noOfCheckpoints = 0;
 
+    private static final Heading[] HEADINGS = Heading.values();
+
+    // the reachable neighbours of all spaces, indexed by the index of the space
+    // and the heading; it is computed lazily and discarded when walls change
+    private Space[] neighbours;
+
+    private ConveyorConflictIndex conveyorConflictIndex;
+
+    // the shared layout of the board, as long as its walls were not changed
+    private BoardLayout layout;
+
     public Board(int width, int height, @NotNull String boardName) {
         this.boardName = boardName;
         this.width = width;
         this.height = height;
 
-        spaces = new Space[width][height];
+        spaces = new Space[width * height];
         for (int x = 0; x < width; x++) {
             for (int y = 0; y < height; y++) {
                 Space space = new Space(this, x, y);
-                spaces[x][y] = space;
+                spaces[x * height + y] = space;
 
             }
         }
         this.stepMode = false;
     }
 
+    /**
+     * Creates a new board with the given layout. The board shares the field
+     * actions, the neighbours of its spaces and the conveyor conflicts with
+     * all other boards of this layout. If walls or field actions are added
+     * to or removed from the board, the board does not use the layout
+     * anymore and computes its own neighbours again.
+     *
+     * @param layout the layout of the board
+     */
+    public Board(@NotNull BoardLayout layout) {
+        this.boardName = layout.boardName;
+        this.width = layout.width;
+        this.height = layout.height;
+        this.layout = layout;
+
+        spaces = new Space[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = x * height + y;
+                spaces[index] = new Space(this, x, y, layout.getWalls(index), layout.getActions(index));
+            }
+        }
+        this.noOfCheckpoints = layout.getNoOfCheckpoints();
+        this.conveyorConflictIndex = layout.getConveyorConflictIndex();
+        this.stepMode = false;
+    }
+
     public Board(int width, int height) {
         this(width, height, "defaultboard");
     }
@@ -101,7 +142,7 @@ public class Board extends Subject {
      */
     public Space getSpace(int x, int y) {
         if (x >= 0 && x < width && y >= 0 && y < height) {
-            return spaces[x][y];
+            return spaces[x * height + y];
         } else {
             return null;
         }
@@ -250,36 +291,100 @@ public class Board extends Subject {
      * @return the space in the given direction; null if there is no (reachable) neighbour
      */
     public Space getNeighbour(@NotNull Space space, @NotNull Heading heading) {
-        int x = space.x;
-        int y = space.y;
-        Space neighbour;
-        switch (heading) {
-            case SOUTH:
-                neighbour = getSpace(x, (y + 1) % height);
-                if (!space.hasWallInDirection(Heading.SOUTH) && !neighbour.hasWallInDirection(Heading.NORTH)) {
-                    return neighbour;
-                }
-                break;
-            case WEST:
-                neighbour = getSpace((x + width - 1) % width, y);
-                if (!space.hasWallInDirection(Heading.WEST) && !neighbour.hasWallInDirection(Heading.EAST)) {
-                    return neighbour;
-                }
-                break;
-            case NORTH:
-                neighbour = getSpace(x, (y + height - 1) % height);
-                if (!space.hasWallInDirection(Heading.NORTH) && !neighbour.hasWallInDirection(Heading.SOUTH)) {
-                    return neighbour;
-                }
-                break;
-            case EAST:
-                neighbour = getSpace((x + 1) % width, y);
-                if (!space.hasWallInDirection(Heading.EAST) && !neighbour.hasWallInDirection(Heading.WEST)) {
-                    return neighbour;
+        Space[] table = neighbours;
+        if (table == null) {
+            BoardLayout shared = layout;
+            if (shared != null) {
+                int index = shared.getNeighbour(space.x * height + space.y, heading);
+                return index >= 0 ? spaces[index] : null;
+            }
+            table = computeNeighbours();
+            neighbours = table;
+        }
+        return table[(space.x * height + space.y) * HEADINGS.length + heading.ordinal()];
+    }
+
+    /**
+     * Must be called when the walls of some space of this board are changed,
+     * so that the neighbours are computed again.
+     */
+    void wallsChanged() {
+        layout = null;
+        neighbours = null;
+        conveyorConflictIndex = null;
+    }
+
+    /**
+     * Must be called when the field actions of some space of this board are
+     * changed, so that the board does not use the actions and the conveyor
+     * conflicts of its layout anymore.
+     */
+    void actionsChanged() {
+        layout = null;
+        conveyorConflictIndex = null;
+    }
+
+    /**
+     * Get the layout shared by this board with other boards.
+     *
+     * @return the layout of this board, or null if the board was not created
+     *         from a layout (or its walls or actions were changed afterwards)
+     */
+    public BoardLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Get the precomputed conflicts of the conveyor belts of this board.
+     *
+     * @return the index of the conveyor conflicts, or null if it was not built
+     *         (or the walls of the board changed after it was built)
+     */
+    public ConveyorConflictIndex getConveyorConflictIndex() {
+        return conveyorConflictIndex;
+    }
+
+    /**
+     * Set the precomputed conflicts of the conveyor belts of this board
+     * (see {@link ConveyorConflictIndex#build(Board)}).
+     *
+     * @param conveyorConflictIndex the index of the conveyor conflicts
+     */
+    public void setConveyorConflictIndex(ConveyorConflictIndex conveyorConflictIndex) {
+        this.conveyorConflictIndex = conveyorConflictIndex;
+    }
+
+    /**
+     * Computes the table of the reachable neighbours of all spaces in all
+     * directions. Note that the board wraps around at its edges.
+     *
+     * @return the table of neighbours
+     */
+    private Space[] computeNeighbours() {
+        Space[] table = new Space[width * height * HEADINGS.length];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Space space = spaces[x * height + y];
+                for (Heading heading : HEADINGS) {
+                    table[(x * height + y) * HEADINGS.length + heading.ordinal()] = computeNeighbour(space, heading);
                 }
-                break;
+            }
         }
+        return table;
+    }
 
+    private Space computeNeighbour(@NotNull Space space, @NotNull Heading heading) {
+        int x = space.x;
+        int y = space.y;
+        Space neighbour = switch (heading) {
+            case SOUTH -> getSpace(x, (y + 1) % height);
+            case WEST -> getSpace((x + width - 1) % width, y);
+            case NORTH -> getSpace(x, (y + height - 1) % height);
+            case EAST -> getSpace((x + 1) % width, y);
+        };
+        if (!space.hasWallInDirection(heading) && !neighbour.hasWallInDirection(heading.opposite())) {
+            return neighbour;
+        }
         return null;
     }
 
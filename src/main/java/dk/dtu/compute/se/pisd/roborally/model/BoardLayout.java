@@ -0,0 +1,129 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorConflictIndex;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The immutable topology of a board: its size, the walls and field actions
+ * (conveyor belts and checkpoints) of its spaces, the reachable neighbours
+ * of all spaces and the conflicts of its conveyor belts. A layout is
+ * computed once for a board and can then be shared by any number of games
+ * on this board (see {@link Board#Board(BoardLayout)}); the boards of
+ * these games hold only their players and the state of the game.
+ * <p>
+ * The spaces are identified by their index <code>x * height + y</code>.
+ * Since the field actions are shared by all boards of a layout, they must
+ * not be changed after the layout was created.
+ */
+public final class BoardLayout {
+
+    private static final Heading[] HEADINGS = Heading.values();
+
+    final public String boardName;
+
+    final public int width;
+
+    final public int height;
+
+    final private int noOfCheckpoints;
+
+    // the walls of all spaces (see Space)
+    final private byte[] walls;
+
+    // the read-only lists of the field actions of all spaces
+    final private List<List<FieldAction>> actions;
+
+    // the indices of the reachable neighbours of all spaces, indexed by the
+    // index of the space and the heading; -1 if there is no reachable neighbour
+    final private int[] neighbours;
+
+    final private ConveyorConflictIndex conveyorConflictIndex;
+
+    private BoardLayout(@NotNull Board board) {
+        this.boardName = board.boardName;
+        this.width = board.width;
+        this.height = board.height;
+        this.noOfCheckpoints = board.getNoOfCheckpoints();
+
+        int size = width * height;
+        walls = new byte[size];
+        List<List<FieldAction>> spaceActions = new ArrayList<>(size);
+        neighbours = new int[size * HEADINGS.length];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                Space space = board.getSpace(x, y);
+                int index = x * height + y;
+                walls[index] = space.getWallBits();
+                spaceActions.add(List.copyOf(space.getActions()));
+                for (Heading heading : HEADINGS) {
+                    Space neighbour = board.getNeighbour(space, heading);
+                    neighbours[index * HEADINGS.length + heading.ordinal()] =
+                            neighbour != null ? neighbour.x * height + neighbour.y : -1;
+                }
+            }
+        }
+        actions = List.copyOf(spaceActions);
+
+        ConveyorConflictIndex index = board.getConveyorConflictIndex();
+        conveyorConflictIndex = index != null ? index : ConveyorConflictIndex.build(board);
+    }
+
+    /**
+     * Computes the layout of a board, after all walls and field actions were
+     * added to the board. The board itself is not used by the layout
+     * afterwards, but its field actions are.
+     *
+     * @param board the board with all its walls and field actions
+     * @return the layout of the board
+     */
+    public static BoardLayout of(@NotNull Board board) {
+        return new BoardLayout(board);
+    }
+
+    /**
+     * Creates a new board with this layout, which does not have any players yet.
+     *
+     * @return the new board
+     */
+    public Board createBoard() {
+        return new Board(this);
+    }
+
+    public int getNoOfCheckpoints() {
+        return noOfCheckpoints;
+    }
+
+    /**
+     * Get the conflicts of the conveyor belts of this layout, which are shared
+     * by all boards with this layout.
+     *
+     * @return the conveyor conflict index
+     */
+    public ConveyorConflictIndex getConveyorConflictIndex() {
+        return conveyorConflictIndex;
+    }
+
+    byte getWalls(int index) {
+        return walls[index];
+    }
+
+    List<FieldAction> getActions(int index) {
+        return actions.get(index);
+    }
+
+    /**
+     * Get the index of the reachable neighbour of a space.
+     *
+     * @param index the index of the space
+     * @param heading the heading of the neighbour
+     * @return the index of the neighbour, or -1 if there is no reachable neighbour
+     */
+    int getNeighbour(int index, @NotNull Heading heading) {
+        return neighbours[index * HEADINGS.length + heading.ordinal()];
+    }
+
+}
@@ -21,7 +21,6 @@
  */
 package dk.dtu.compute.se.pisd.roborally.model;
 
-import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
 import org.jetbrains.annotations.NotNull;
 
 /**
@@ -30,14 +29,41 @@ import org.jetbrains.annotations.NotNull;
  * @author Ekkart Kindler, ekki@dtu.dk
  *
  */
-public class CommandCard extends Subject {
+public class CommandCard {
+
+    // the shared cards for all commands, indexed by the ordinal of the command
+    private static final CommandCard[] CARDS = createCards();
 
     final public Command command;
 
-    public CommandCard(@NotNull Command command) {
+    // the only cards are the shared cards, which are obtained by of(Command);
+    // they cannot change, so they are not subjects, which could be observed
+    private CommandCard(@NotNull Command command) {
         this.command = command;
     }
 
+    /**
+     * Returns the shared card with the given command. Since a card cannot be
+     * changed, the same card can be put into any number of card fields of
+     * any number of games. Note that the cards are compared by their command
+     * then; two cards with the same command are the same card.
+     *
+     * @param command the command of the card
+     * @return the shared card with this command
+     */
+    public static CommandCard of(@NotNull Command command) {
+        return CARDS[command.ordinal()];
+    }
+
+    private static CommandCard[] createCards() {
+        Command[] commands = Command.values();
+        CommandCard[] cards = new CommandCard[commands.length];
+        for (Command command : commands) {
+            cards[command.ordinal()] = new CommandCard(command);
+        }
+        return cards;
+    }
+
     public String getName() {
         return command.displayName;
     }
@@ -0,0 +1,129 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * The deck of command cards of a player. The deck is created with a fixed
+ * set of cards (the shared cards of {@link CommandCard#of(Command)}, so a
+ * deck has the same card several times), which are used for the whole
+ * game: the cards are drawn
+ * from the draw pile into the card fields of the player and are put on the
+ * discard pile again when they are not needed anymore. When the draw pile
+ * is empty, the discard pile is shuffled and becomes the new draw pile. So,
+ * no cards are created while the game is running.
+ * <p>
+ * The deck does not have a random source of its own; the random source of
+ * the game is passed in when cards are drawn, so that a game can be
+ * repeated exactly from its seed.
+ */
+public class Deck {
+
+    /**
+     * The number of cards with the same command in a standard deck.
+     */
+    final public static int COPIES_PER_COMMAND = 4;
+
+    final private CommandCard[] drawPile;
+    private int drawCount;
+
+    final private CommandCard[] discardPile;
+    private int discardCount;
+
+    // the number of cards, which were drawn and not discarded yet
+    private int dealtCount;
+
+    /**
+     * Creates a standard deck with {@link #COPIES_PER_COMMAND} cards of every
+     * command.
+     */
+    public Deck() {
+        this(COPIES_PER_COMMAND);
+    }
+
+    /**
+     * Creates a deck with the given number of cards of every command. All
+     * cards are on the discard pile, so that they are shuffled before the
+     * first card is drawn.
+     *
+     * @param copiesPerCommand the number of cards with the same command
+     */
+    public Deck(int copiesPerCommand) {
+        Command[] commands = Command.values();
+        int size = copiesPerCommand * commands.length;
+        drawPile = new CommandCard[size];
+        discardPile = new CommandCard[size];
+        for (Command command : commands) {
+            for (int i = 0; i < copiesPerCommand; i++) {
+                discardPile[discardCount++] = CommandCard.of(command);
+            }
+        }
+    }
+
+    /**
+     * Get the number of cards of this deck.
+     *
+     * @return the number of cards
+     */
+    public int size() {
+        return drawPile.length;
+    }
+
+    public int getDrawPileSize() {
+        return drawCount;
+    }
+
+    public int getDiscardPileSize() {
+        return discardCount;
+    }
+
+    /**
+     * Draws the top card from the draw pile. If the draw pile is empty,
+     * the discard pile is shuffled and becomes the new draw pile first.
+     *
+     * @param random the random source for shuffling the discard pile
+     * @return the drawn card, or null if all cards of the deck were drawn
+     */
+    public CommandCard draw(@NotNull RandomGenerator random) {
+        if (drawCount == 0) {
+            reshuffle(random);
+            if (drawCount == 0) {
+                return null;
+            }
+        }
+        CommandCard card = drawPile[--drawCount];
+        drawPile[drawCount] = null;
+        dealtCount++;
+        return card;
+    }
+
+    /**
+     * Puts a drawn card on the discard pile. Cards which were not drawn from
+     * this deck (e.g. cards of a loaded game) are ignored, when all cards of
+     * this deck are in its piles already.
+     *
+     * @param card the card, which may be null
+     */
+    public void discard(CommandCard card) {
+        if (card != null && dealtCount > 0) {
+            dealtCount--;
+            discardPile[discardCount++] = card;
+        }
+    }
+
+    /**
+     * Shuffles the discard pile into the empty draw pile.
+     */
+    private void reshuffle(RandomGenerator random) {
+        for (int i = discardCount - 1; i >= 0; i--) {
+            int j = random.nextInt(i + 1);
+            drawPile[i] = discardPile[j];
+            discardPile[j] = discardPile[i];
+            discardPile[i] = null;
+        }
+        drawCount = discardCount;
+        discardCount = 0;
+    }
+
+}
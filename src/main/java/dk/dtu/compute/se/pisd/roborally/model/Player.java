@@ -48,6 +48,8 @@ public class Player extends Subject {
     private CommandCardField[] program;
     private CommandCardField[] cards;
 
+    final private Deck deck = new Deck();
+
     private int nextCheckpoint;
     private Command lastCommand;
 
@@ -200,6 +202,15 @@ public class Player extends Subject {
         return cards[i];
     }
     
+    /**
+     * Get the deck, from which the player's cards are dealt
+     *
+     * @return the deck of the player
+     */
+    public Deck getDeck() {
+        return deck;
+    }
+
     /**
      * Gets what checkpoint the player should move to
      *
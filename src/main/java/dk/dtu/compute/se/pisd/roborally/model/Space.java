@@ -25,8 +25,13 @@ import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
 import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
 import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.Set;
 
 /**
  * ...
@@ -39,14 +44,36 @@ public class Space extends Subject {
 
     public final int x;
     public final int y;
-    private final List<Heading> walls = new ArrayList<>();
-    private final List<FieldAction> actions = new ArrayList<>();
+
+    // the read-only sets of walls for all 16 combinations of wall bits
+    private static final List<Set<Heading>> WALL_SETS = createWallSets();
+
+    // the walls of this space, with bit i set for the heading with ordinal i
+    private byte walls;
+
+    // the field actions of this space; for a board with a shared layout,
+    // this is backed by the read-only list of the layout until it is changed
+    private final ActionList actions;
     private Player player;
 
     public Space(Board board, int x, int y) {
+        this(board, x, y, (byte) 0, new ArrayList<>(), false);
+    }
+
+    /**
+     * Creates a space with the walls and the shared field actions of a board
+     * layout.
+     */
+    Space(Board board, int x, int y, byte walls, List<FieldAction> actions) {
+        this(board, x, y, walls, actions, true);
+    }
+
+    private Space(Board board, int x, int y, byte walls, List<FieldAction> actions, boolean shared) {
         this.board = board;
         this.x = x;
         this.y = y;
+        this.walls = walls;
+        this.actions = new ActionList(actions, shared);
         player = null;
     }
 
@@ -80,17 +107,55 @@ public class Space extends Subject {
     }
 
     /**
-     * Returns the walls (actually their direction) on this space.
-     * Note that clients may change this list; this should, however,
+     * Returns the walls (actually their direction) on this space. The
+     * returned set is read-only and does not change when walls are added
+     * or removed later; walls are changed by {@link #addWall(Heading)},
+     * {@link #removeWall(Heading)} and {@link #clearWalls()}.
+     *
+     * @return the set of walls on this space
+     */
+    public Set<Heading> getWalls() {
+        return WALL_SETS.get(walls);
+    }
+
+    /**
+     * Adds a wall in the given direction to this space. This should
      * be done only during the setup of the game (not while the game
      * is running).
      *
-     * @return the list of walls on this space
+     * @param heading the direction of the wall
+     */
+    public void addWall(Heading heading) {
+        setWalls((byte) (walls | 1 << heading.ordinal()));
+    }
+
+    /**
+     * Removes the wall in the given direction from this space, if there is one.
+     *
+     * @param heading the direction of the wall
+     */
+    public void removeWall(Heading heading) {
+        setWalls((byte) (walls & ~(1 << heading.ordinal())));
+    }
+
+    /**
+     * Removes all walls from this space.
      */
-    public List<Heading> getWalls() {
+    public void clearWalls() {
+        setWalls((byte) 0);
+    }
+
+    byte getWallBits() {
         return walls;
     }
 
+    private void setWalls(byte walls) {
+        if (walls != this.walls) {
+            this.walls = walls;
+            board.wallsChanged();
+        }
+    }
+
     /**
      * Evaluates whether this space has a wall in a given direction
      *
@@ -98,14 +163,17 @@ public class Space extends Subject {
      * @return true if this space has a wall in the given direction, false otherwise
      */
     public boolean hasWallInDirection(Heading heading) {
-        return getWalls().contains(heading);
+        return (walls & 1 << heading.ordinal()) != 0;
     }
 
     /**
      * Returns the list of field actions on this space.
      * Note that clients may change this list; this should, however,
      * be done only during the setup of the game (not while the game
-     * is running).
+     * is running). For a board created from a {@link BoardLayout},
+     * the list is shared with the layout until it is changed; then,
+     * the space gets its own copy of the list and the board does not
+     * use the layout anymore (like when its walls are changed).
      *
      * @return the list of field actions on this space
      */
@@ -134,6 +202,79 @@ public class Space extends Subject {
         return null;
     }
 
+    private static List<Set<Heading>> createWallSets() {
+        Heading[] headings = Heading.values();
+        List<Set<Heading>> wallSets = new ArrayList<>();
+        for (int bits = 0; bits < 1 << headings.length; bits++) {
+            Set<Heading> wallSet = EnumSet.noneOf(Heading.class);
+            for (Heading heading : headings) {
+                if ((bits & 1 << heading.ordinal()) != 0) {
+                    wallSet.add(heading);
+                }
+            }
+            wallSets.add(Collections.unmodifiableSet(wallSet));
+        }
+        return List.copyOf(wallSets);
+    }
+
+    /**
+     * The list of the field actions of a space, which is copied when it is
+     * changed for the first time, if it is backed by the read-only list of
+     * a layout. Every change of the list is reported to the board.
+     */
+    private class ActionList extends AbstractList<FieldAction> implements RandomAccess {
+
+        private List<FieldAction> list;
+
+        private boolean shared;
+
+        ActionList(List<FieldAction> list, boolean shared) {
+            this.list = list;
+            this.shared = shared;
+        }
+
+        @Override
+        public FieldAction get(int index) {
+            return list.get(index);
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+
+        @Override
+        public FieldAction set(int index, FieldAction action) {
+            FieldAction old = own().set(index, action);
+            board.actionsChanged();
+            return old;
+        }
+
+        @Override
+        public void add(int index, FieldAction action) {
+            own().add(index, action);
+            modCount++;
+            board.actionsChanged();
+        }
+
+        @Override
+        public FieldAction remove(int index) {
+            FieldAction old = own().remove(index);
+            modCount++;
+            board.actionsChanged();
+            return old;
+        }
+
+        private List<FieldAction> own() {
+            if (shared) {
+                list = new ArrayList<>(list);
+                shared = false;
+            }
+            return list;
+        }
+
+    }
+
     void playerChanged() {
         // This is a minor hack; since some views that are registered with the space
         // also need to update when some player attributes change, the player can
@@ -0,0 +1,185 @@
+package dk.dtu.compute.se.pisd.roborally.simulation;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * The aggregated statistics of a number of simulated games. Results of
+ * games played in parallel are collected in separate instances, which
+ * are merged in the end; therefore, this class is not thread-safe.
+ */
+public class SimulationResult {
+
+    private final int maxRounds;
+
+    private int games = 0;
+    private int wins = 0;
+    private long roundsPlayed = 0;
+    private long blockedConveyorMoves = 0;
+
+    // roundsToWin[r] is the number of games won in round r
+    private final int[] roundsToWin;
+
+    // checkpointsReached[c] is the number of players who reached c checkpoints
+    private int[] checkpointsReached = new int[1];
+
+    /**
+     * Creates an empty result for games with the given maximum number of rounds.
+     *
+     * @param maxRounds the maximum number of rounds of a simulated game
+     */
+    public SimulationResult(int maxRounds) {
+        this.maxRounds = maxRounds;
+        this.roundsToWin = new int[maxRounds + 1];
+    }
+
+    /**
+     * Adds the outcome of a single game to this result.
+     *
+     * @param engine the engine of the game
+     * @param rounds the number of rounds played in the game
+     */
+    void addGame(@NotNull GameEngine engine, int rounds) {
+        games++;
+        roundsPlayed += rounds;
+        blockedConveyorMoves += engine.gameController.getBlockedConveyorMoves();
+        if (engine.getWinner() != null) {
+            wins++;
+            roundsToWin[rounds]++;
+        }
+
+        Board board = engine.board;
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            int reached = board.getPlayer(i).getNextCheckpoint() - 1;
+            if (reached >= checkpointsReached.length) {
+                checkpointsReached = Arrays.copyOf(checkpointsReached, reached + 1);
+            }
+            checkpointsReached[reached]++;
+        }
+    }
+
+    /**
+     * Adds all games of another result to this result.
+     *
+     * @param other the result to add
+     * @return this result
+     */
+    SimulationResult merge(@NotNull SimulationResult other) {
+        games += other.games;
+        wins += other.wins;
+        roundsPlayed += other.roundsPlayed;
+        blockedConveyorMoves += other.blockedConveyorMoves;
+        for (int i = 0; i < roundsToWin.length && i < other.roundsToWin.length; i++) {
+            roundsToWin[i] += other.roundsToWin[i];
+        }
+        if (other.checkpointsReached.length > checkpointsReached.length) {
+            checkpointsReached = Arrays.copyOf(checkpointsReached, other.checkpointsReached.length);
+        }
+        for (int i = 0; i < other.checkpointsReached.length; i++) {
+            checkpointsReached[i] += other.checkpointsReached[i];
+        }
+        return this;
+    }
+
+    /**
+     * Get the number of simulated games.
+     *
+     * @return the number of games
+     */
+    public int getGames() {
+        return games;
+    }
+
+    /**
+     * Get the number of games, which were won by some player before
+     * the maximum number of rounds was reached.
+     *
+     * @return the number of won games
+     */
+    public int getWins() {
+        return wins;
+    }
+
+    /**
+     * Get the total number of rounds played in all games.
+     *
+     * @return the number of rounds
+     */
+    public long getRoundsPlayed() {
+        return roundsPlayed;
+    }
+
+    /**
+     * Get the total number of moves of conveyor belts that were blocked
+     * in all games.
+     *
+     * @return the number of blocked conveyor moves
+     */
+    public long getBlockedConveyorMoves() {
+        return blockedConveyorMoves;
+    }
+
+    /**
+     * Get the histogram of the number of rounds it took to win a game.
+     * The entry at index r is the number of games that were won in round r.
+     *
+     * @return a copy of the histogram
+     */
+    public int[] getRoundsToWinHistogram() {
+        return roundsToWin.clone();
+    }
+
+    /**
+     * Get the histogram of the checkpoint progress of all players at the end
+     * of their games. The entry at index c is the number of players who
+     * reached exactly c checkpoints.
+     *
+     * @return a copy of the histogram
+     */
+    public int[] getCheckpointHistogram() {
+        return checkpointsReached.clone();
+    }
+
+    /**
+     * Get the average number of rounds of the won games.
+     *
+     * @return the average number of rounds, or 0 if no game was won
+     */
+    public double getAverageRoundsToWin() {
+        if (wins == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int r = 0; r <= maxRounds; r++) {
+            sum += (long) r * roundsToWin[r];
+        }
+        return (double) sum / wins;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Games: ").append(games)
+                .append(" | Won: ").append(wins)
+                .append(" | Unfinished: ").append(games - wins)
+                .append(" | Rounds played: ").append(roundsPlayed)
+                .append(" | Blocked conveyor moves: ").append(blockedConveyorMoves)
+                .append(String.format(" | Average rounds to win: %.2f", getAverageRoundsToWin()))
+                .append(System.lineSeparator())
+                .append("Rounds to win:");
+        for (int r = 0; r <= maxRounds; r++) {
+            if (roundsToWin[r] > 0) {
+                builder.append(' ').append(r).append('=').append(roundsToWin[r]);
+            }
+        }
+        builder.append(System.lineSeparator()).append("Checkpoints reached:");
+        for (int c = 0; c < checkpointsReached.length; c++) {
+            builder.append(' ').append(c).append('=').append(checkpointsReached[c]);
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,167 @@
+package dk.dtu.compute.se.pisd.roborally.simulation;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs a batch of independent, randomly played games on a given board in
+ * parallel and collects their aggregated statistics. The games are split
+ * up recursively on a fork-join pool; every game has its own board and
+ * controller and each task collects its statistics in its own
+ * {@link SimulationResult}, which are merged when the tasks are joined.
+ * So, the games do not share any mutable state.
+ */
+public class SimulationRunner {
+
+    final public static int DEFAULT_MAX_ROUNDS = 200;
+
+    // the number of games, which are played sequentially in a single task
+    final private static int GAMES_PER_TASK = 16;
+
+    final private String boardName;
+
+    final private int playerCount;
+
+    final private int gameCount;
+
+    final private int maxRounds;
+
+    // the seed of the first game, or null if the games are played with random seeds
+    final private Long seed;
+
+    /**
+     * Creates a runner for simulating games, which are played with the seeds
+     * seed, seed + 1, ..., so that the simulation can be repeated exactly.
+     *
+     * @param boardName the name of the board (see {@link BoardFactory#getBoardNames()})
+     * @param playerCount the number of players in each game
+     * @param gameCount the number of games to simulate
+     * @param maxRounds the maximum number of rounds of a single game; games that
+     *                  are not won by then are counted as unfinished
+     * @param seed the seed of the first game; null for random seeds
+     */
+    public SimulationRunner(@NotNull String boardName, int playerCount, int gameCount, int maxRounds, Long seed) {
+        if (!BoardFactory.getBoardNames().contains(boardName)) {
+            throw new IllegalArgumentException("Unrecognized board name");
+        }
+        if (playerCount < 1 || gameCount < 0 || maxRounds < 1) {
+            throw new IllegalArgumentException("Illegal number of players, games or rounds");
+        }
+        this.boardName = boardName;
+        this.playerCount = playerCount;
+        this.gameCount = gameCount;
+        this.maxRounds = maxRounds;
+        this.seed = seed;
+    }
+
+    /**
+     * Creates a runner for simulating games with random seeds.
+     *
+     * @param boardName the name of the board (see {@link BoardFactory#getBoardNames()})
+     * @param playerCount the number of players in each game
+     * @param gameCount the number of games to simulate
+     * @param maxRounds the maximum number of rounds of a single game; games that
+     *                  are not won by then are counted as unfinished
+     */
+    public SimulationRunner(@NotNull String boardName, int playerCount, int gameCount, int maxRounds) {
+        this(boardName, playerCount, gameCount, maxRounds, null);
+    }
+
+    public SimulationRunner(@NotNull String boardName, int playerCount, int gameCount) {
+        this(boardName, playerCount, gameCount, DEFAULT_MAX_ROUNDS);
+    }
+
+    /**
+     * Runs the games on the common fork-join pool.
+     *
+     * @return the aggregated statistics of all games
+     */
+    public SimulationResult run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Runs the games on the given fork-join pool.
+     *
+     * @param pool the pool on which the games are played
+     * @return the aggregated statistics of all games
+     */
+    public SimulationResult run(@NotNull ForkJoinPool pool) {
+        return pool.invoke(new GamesTask(0, gameCount));
+    }
+
+    /**
+     * Plays the game with the given number and adds its outcome to the given result.
+     */
+    private void playGame(SimulationResult result, int game) {
+        GameEngine engine = seed != null
+                ? GameEngine.createGame(boardName, playerCount, seed + game)
+                : GameEngine.createGame(boardName, playerCount);
+        int rounds = engine.playGame(maxRounds);
+        result.addGame(engine, rounds);
+    }
+
+    /**
+     * A task playing the games with the numbers from (including) and to (excluding).
+     */
+    private class GamesTask extends RecursiveTask<SimulationResult> {
+
+        final private int from;
+        final private int to;
+
+        GamesTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                SimulationResult result = new SimulationResult(maxRounds);
+                for (int i = from; i < to; i++) {
+                    playGame(result, i);
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            GamesTask left = new GamesTask(from, middle);
+            GamesTask right = new GamesTask(middle, to);
+            left.fork();
+            SimulationResult result = right.compute();
+            return result.merge(left.join());
+        }
+
+    }
+
+    /**
+     * Runs a simulation from the command line and prints the results.
+     * The arguments are the name of the board, the number of players, the
+     * number of games and (optionally) the maximum number of rounds per game
+     * and the seed of the first game.
+     *
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: SimulationRunner <board name> <players> <games> [<max rounds> [<seed>]]");
+            System.err.println("Boards: " + BoardFactory.getBoardNames());
+            return;
+        }
+        int maxRounds = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MAX_ROUNDS;
+        Long seed = args.length > 4 ? Long.parseLong(args[4]) : null;
+        SimulationRunner runner = new SimulationRunner(
+                args[0], Integer.parseInt(args[1]), Integer.parseInt(args[2]), maxRounds, seed);
+
+        long start = System.nanoTime();
+        SimulationResult result = runner.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println(result);
+        System.out.println("Time: " + millis + " ms");
+    }
+
+}
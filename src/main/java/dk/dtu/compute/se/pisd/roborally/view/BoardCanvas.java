@@ -0,0 +1,290 @@
+package dk.dtu.compute.se.pisd.roborally.view;
+
+import dk.dtu.compute.se.pisd.designpatterns.observer.Subject;
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A view of all spaces of a board, which draws the spaces on a single
+ * {@link Canvas} instead of creating a {@link SpaceView} with its own
+ * nodes for every space. This is used for large boards, for which the
+ * scene graph of the space views becomes too big.
+ * <p>
+ * The canvas observes all spaces of the board; a change of a space only
+ * marks the space as dirty, and the dirty spaces are repainted together
+ * later in the JavaFX application thread. The view can be zoomed with the
+ * mouse wheel and panned by dragging it with the mouse; a click on the
+ * view (without dragging) can be mapped to the space at that position
+ * by {@link #getSpace(double, double)}.
+ * <p>
+ * The spaces are drawn in the same way as by the {@link SpaceView}.
+ */
+public class BoardCanvas extends Pane implements ViewObserver {
+
+    final public static double MIN_SCALE = 0.1;
+    final public static double MAX_SCALE = 4.0;
+
+    // the factor by which the scale changes for one step of the mouse wheel
+    final private static double ZOOM_FACTOR = 1.1;
+
+    final private static double WALL_WIDTH = 3;
+
+    final public Board board;
+
+    final private Canvas canvas;
+
+    // the size of the spaces on the canvas is the size of a space view times
+    // the scale; the space (0,0) is drawn at the offset
+    private double scale = 1.0;
+    private double offsetX = 0;
+    private double offsetY = 0;
+
+    // the spaces, which changed since the last repaint
+    final private List<Space> dirtySpaces = new ArrayList<>();
+    private boolean repaintScheduled = false;
+
+    private double dragX;
+    private double dragY;
+
+    /**
+     * Creates a canvas for the board, which shows (a part of) the board
+     * in a viewport of the given size.
+     *
+     * @param board the board to show
+     * @param width the width of the viewport
+     * @param height the height of the viewport
+     */
+    public BoardCanvas(@NotNull Board board, double width, double height) {
+        this.board = board;
+        this.canvas = new Canvas(width, height);
+        this.getChildren().add(canvas);
+
+        this.setPrefSize(width, height);
+        this.setMinSize(width, height);
+        this.setMaxSize(width, height);
+
+        this.setOnScroll(this::zoom);
+        this.setOnMousePressed(this::startDrag);
+        this.setOnMouseDragged(this::drag);
+
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                board.getSpace(x, y).attach(this);
+            }
+        }
+        repaintAll();
+    }
+
+    /**
+     * Get the space, which is shown at the given position of this view (in
+     * the coordinates of this view, as for example given by
+     * {@link MouseEvent#getX()} and {@link MouseEvent#getY()}).
+     *
+     * @param x the x coordinate in this view
+     * @param y the y coordinate in this view
+     * @return the space at the position, or null if there is no space
+     */
+    public Space getSpace(double x, double y) {
+        int spaceX = (int) Math.floor((x - offsetX) / spaceWidth());
+        int spaceY = (int) Math.floor((y - offsetY) / spaceHeight());
+        return board.getSpace(spaceX, spaceY);
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Changes the scale of the view, keeping the given position of this view
+     * at the same place of the board.
+     *
+     * @param scale the new scale, which is limited to the range from
+     *              {@link #MIN_SCALE} to {@link #MAX_SCALE}
+     * @param x the x coordinate of the fixed position in this view
+     * @param y the y coordinate of the fixed position in this view
+     */
+    public void setScale(double scale, double x, double y) {
+        scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, scale));
+        offsetX = x - (x - offsetX) * scale / this.scale;
+        offsetY = y - (y - offsetY) * scale / this.scale;
+        this.scale = scale;
+        repaintAll();
+    }
+
+    /**
+     * Moves the shown part of the board by the given distance.
+     *
+     * @param dx the horizontal distance
+     * @param dy the vertical distance
+     */
+    public void pan(double dx, double dy) {
+        offsetX += dx;
+        offsetY += dy;
+        repaintAll();
+    }
+
+    @Override
+    public void updateView(Subject subject) {
+        if (subject instanceof Space space && space.board == board) {
+            dirtySpaces.add(space);
+            if (!repaintScheduled) {
+                // all spaces, which change in the meantime, are repainted together
+                repaintScheduled = true;
+                Platform.runLater(this::repaintDirty);
+            }
+        }
+    }
+
+    private void zoom(ScrollEvent event) {
+        if (event.getDeltaY() != 0) {
+            double factor = event.getDeltaY() > 0 ? ZOOM_FACTOR : 1 / ZOOM_FACTOR;
+            setScale(scale * factor, event.getX(), event.getY());
+        }
+        event.consume();
+    }
+
+    private void startDrag(MouseEvent event) {
+        dragX = event.getX();
+        dragY = event.getY();
+    }
+
+    private void drag(MouseEvent event) {
+        pan(event.getX() - dragX, event.getY() - dragY);
+        dragX = event.getX();
+        dragY = event.getY();
+        event.consume();
+    }
+
+    private double spaceWidth() {
+        return SpaceView.SPACE_WIDTH * scale;
+    }
+
+    private double spaceHeight() {
+        return SpaceView.SPACE_HEIGHT * scale;
+    }
+
+    private void repaintDirty() {
+        repaintScheduled = false;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (Space space : dirtySpaces) {
+            drawSpace(gc, space);
+        }
+        dirtySpaces.clear();
+    }
+
+    /**
+     * Repaints all spaces, which are visible in the viewport.
+     */
+    private void repaintAll() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(Color.LIGHTGREY);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        int fromX = Math.max(0, (int) Math.floor(-offsetX / spaceWidth()));
+        int toX = Math.min(board.width, (int) Math.ceil((canvas.getWidth() - offsetX) / spaceWidth()));
+        int fromY = Math.max(0, (int) Math.floor(-offsetY / spaceHeight()));
+        int toY = Math.min(board.height, (int) Math.ceil((canvas.getHeight() - offsetY) / spaceHeight()));
+        for (int x = fromX; x < toX; x++) {
+            for (int y = fromY; y < toY; y++) {
+                drawSpace(gc, board.getSpace(x, y));
+            }
+        }
+        // the dirty spaces are repainted already
+        dirtySpaces.clear();
+    }
+
+    /**
+     * Draws a single space, if it is visible in the viewport. All drawing is
+     * done in the coordinates of a {@link SpaceView} with its origin in the
+     * center of the space, so that the space is drawn in the same way.
+     */
+    private void drawSpace(GraphicsContext gc, Space space) {
+        double left = offsetX + space.x * spaceWidth();
+        double top = offsetY + space.y * spaceHeight();
+        if (left + spaceWidth() < 0 || left > canvas.getWidth()
+                || top + spaceHeight() < 0 || top > canvas.getHeight()) {
+            return;
+        }
+
+        gc.save();
+        gc.translate(left + spaceWidth() / 2, top + spaceHeight() / 2);
+        gc.scale(scale, scale);
+        double halfWidth = SpaceView.SPACE_WIDTH / 2.0;
+        double halfHeight = SpaceView.SPACE_HEIGHT / 2.0;
+
+        gc.setFill((space.x + space.y) % 2 == 0 ? Color.WHITE : Color.BLACK);
+        gc.fillRect(-halfWidth, -halfHeight, SpaceView.SPACE_WIDTH, SpaceView.SPACE_HEIGHT);
+
+        // as in the space view, the walls are drawn on the inside of the space
+        gc.setStroke(Color.RED);
+        gc.setLineWidth(WALL_WIDTH);
+        double wallX = halfWidth - WALL_WIDTH / 2;
+        double wallY = halfHeight - WALL_WIDTH / 2;
+        for (Heading heading : space.getWalls()) {
+            switch (heading) {
+                case NORTH -> gc.strokeLine(-halfWidth, -wallY, halfWidth, -wallY);
+                case SOUTH -> gc.strokeLine(-halfWidth, wallY, halfWidth, wallY);
+                case EAST -> gc.strokeLine(wallX, -halfHeight, wallX, halfHeight);
+                case WEST -> gc.strokeLine(-wallX, -halfHeight, -wallX, halfHeight);
+            }
+        }
+
+        for (FieldAction action : space.getActions()) {
+            if (action instanceof ConveyorBelt belt) {
+                gc.setFill(Color.DIMGREY);
+                drawTriangle(gc, 15.0, belt.getHeading());
+            } else if (action instanceof Checkpoint checkpoint) {
+                gc.setFill(Color.YELLOW);
+                gc.fillOval(-20.0, -20.0, 40.0, 40.0);
+                gc.setFill(Color.BLACK);
+                gc.setFont(Font.font(null, FontWeight.BOLD, 20));
+                gc.setTextAlign(TextAlignment.CENTER);
+                gc.setTextBaseline(VPos.CENTER);
+                gc.fillText(Integer.toString(checkpoint.getSequence()), 0, 0);
+            }
+        }
+
+        Player player = space.getPlayer();
+        if (player != null) {
+            try {
+                gc.setFill(Color.valueOf(player.getColor()));
+            } catch (Exception e) {
+                gc.setFill(Color.MEDIUMPURPLE);
+            }
+            drawTriangle(gc, 10.0, player.getHeading());
+        }
+        gc.restore();
+    }
+
+    /**
+     * Draws a triangle of the given half size centered at the origin, which
+     * points in the direction of the heading (like the arrows of the space view).
+     */
+    private void drawTriangle(GraphicsContext gc, double size, Heading heading) {
+        gc.save();
+        gc.rotate((90 * heading.ordinal()) % 360);
+        gc.fillPolygon(new double[]{-size, 0, size}, new double[]{-size, size, -size}, 3);
+        gc.restore();
+    }
+
+}
@@ -41,11 +41,19 @@ import org.jetbrains.annotations.NotNull;
  */
 public class BoardView extends VBox implements ViewObserver {
 
+    // boards with more spaces than this are drawn on a canvas (see BoardCanvas)
+    final public static int MAX_SPACE_VIEWS = 32 * 32;
+
+    final public static double MAX_CANVAS_WIDTH = 800;
+    final public static double MAX_CANVAS_HEIGHT = 600;
+
     private Board board;
 
     private GridPane mainBoardPane;
     private SpaceView[][] spaces;
 
+    private BoardCanvas boardCanvas;
+
     private PlayersView playersView;
 
     private Label statusLabel;
@@ -53,29 +61,48 @@ public class BoardView extends VBox implements ViewObserver {
     private SpaceEventHandler spaceEventHandler;
 
     public BoardView(@NotNull GameController gameController) {
+        this(gameController, gameController.board.width * gameController.board.height > MAX_SPACE_VIEWS);
+    }
+
+    /**
+     * Creates the view of a board. The spaces of the board are either shown
+     * by a {@link SpaceView} for each space, or they are drawn on a single
+     * {@link BoardCanvas}, which can be zoomed and panned; the latter is
+     * much faster for large boards.
+     *
+     * @param gameController the controller of the game
+     * @param useCanvas true if the spaces should be drawn on a canvas
+     */
+    public BoardView(@NotNull GameController gameController, boolean useCanvas) {
         board = gameController.board;
 
-        mainBoardPane = new GridPane();
         playersView = new PlayersView(gameController);
         statusLabel = new Label("<no status>");
 
-        this.getChildren().add(mainBoardPane);
-        this.getChildren().add(playersView);
-        this.getChildren().add(statusLabel);
-
-        spaces = new SpaceView[board.width][board.height];
-
         spaceEventHandler = new SpaceEventHandler(gameController);
 
-        for (int x = 0; x < board.width; x++) {
-            for (int y = 0; y < board.height; y++) {
-                Space space = board.getSpace(x, y);
-                SpaceView spaceView = new SpaceView(space);
-                spaces[x][y] = spaceView;
-                mainBoardPane.add(spaceView, x, y);
-                spaceView.setOnMouseClicked(spaceEventHandler);
+        if (useCanvas) {
+            boardCanvas = new BoardCanvas(board,
+                    Math.min(MAX_CANVAS_WIDTH, board.width * SpaceView.SPACE_WIDTH),
+                    Math.min(MAX_CANVAS_HEIGHT, board.height * SpaceView.SPACE_HEIGHT));
+            boardCanvas.setOnMouseClicked(spaceEventHandler);
+            this.getChildren().add(boardCanvas);
+        } else {
+            mainBoardPane = new GridPane();
+            spaces = new SpaceView[board.width][board.height];
+            for (int x = 0; x < board.width; x++) {
+                for (int y = 0; y < board.height; y++) {
+                    Space space = board.getSpace(x, y);
+                    SpaceView spaceView = new SpaceView(space);
+                    spaces[x][y] = spaceView;
+                    mainBoardPane.add(spaceView, x, y);
+                    spaceView.setOnMouseClicked(spaceEventHandler);
+                }
             }
+            this.getChildren().add(mainBoardPane);
         }
+        this.getChildren().add(playersView);
+        this.getChildren().add(statusLabel);
 
         board.attach(this);
         update(board);
@@ -102,9 +129,15 @@ public class BoardView extends VBox implements ViewObserver {
         @Override
         public void handle(MouseEvent event) {
             Object source = event.getSource();
+            Space space = null;
             if (source instanceof SpaceView) {
                 SpaceView spaceView = (SpaceView) source;
-                Space space = spaceView.space;
+                space = spaceView.space;
+            } else if (source instanceof BoardCanvas boardCanvas && event.isStillSincePress()) {
+                // on the canvas, a click at the end of dragging the board is not a click on a space
+                space = boardCanvas.getSpace(event.getX(), event.getY());
+            }
+            if (space != null) {
                 Board board = space.board;
 
                 if (board == gameController.board) {
@@ -248,7 +248,17 @@ public class CardFieldView extends GridPane implements ViewObserver {
                             int number = (Integer) object;
                             if (number < Command.values().length) {
                                 Command command = Command.values()[number];
-                                cardField.setCard(new CommandCard(command));
+                                // move the card itself, so that it is put back
+                                // into the player's deck later
+                                CommandCard card = null;
+                                if (event.getGestureSource() instanceof CardFieldView) {
+                                    CardFieldView source = (CardFieldView) event.getGestureSource();
+                                    card = source.field.getCard();
+                                }
+                                if (card == null || card.command != command) {
+                                    card = CommandCard.of(command);
+                                }
+                                cardField.setCard(card);
                                 event.setDropCompleted(true);
                                 event.consume();
                                 return;
@@ -0,0 +1,82 @@
+package dk.dtu.compute.se.pisd.roborally.view;
+
+import dk.dtu.compute.se.pisd.roborally.dal.GameInDB;
+import dk.dtu.compute.se.pisd.roborally.dal.GamePage;
+import dk.dtu.compute.se.pisd.roborally.dal.GameQuery;
+import dk.dtu.compute.se.pisd.roborally.dal.IRepository;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A dialog for choosing a saved game from the repository. The games are
+ * fetched page by page: the dialog shows the first page, and the next page
+ * is fetched only when the user asks for more games. The games can be
+ * filtered by the prefix of their name.
+ */
+public class LoadGameDialog extends Dialog<GameInDB> {
+
+    final private IRepository repository;
+
+    final private ListView<GameInDB> gameList = new ListView<>();
+
+    final private TextField nameFilter = new TextField();
+
+    final private Button moreButton = new Button("More games");
+
+    private GameQuery query;
+
+    private Integer nextKey;
+
+    public LoadGameDialog(@NotNull IRepository repository) {
+        this.repository = repository;
+
+        setTitle("Load game");
+        setHeaderText("Select the game to load");
+
+        nameFilter.setPromptText("Name starts with");
+        nameFilter.setOnAction(e -> search());
+        Button searchButton = new Button("Search");
+        searchButton.setOnAction(e -> search());
+        moreButton.setOnAction(e -> fetchNextPage());
+
+        VBox content = new VBox(new HBox(nameFilter, searchButton), gameList, moreButton);
+        getDialogPane().setContent(content);
+        getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+
+        setResultConverter(buttonType ->
+                buttonType == ButtonType.OK ? gameList.getSelectionModel().getSelectedItem() : null);
+
+        search();
+    }
+
+    /**
+     * Shows the first page of the games matching the current filter.
+     */
+    private void search() {
+        String prefix = nameFilter.getText();
+        query = new GameQuery(prefix == null || prefix.isBlank() ? null : prefix.trim(),
+                null, null, null, GameQuery.DEFAULT_PAGE_SIZE);
+        gameList.getItems().clear();
+        nextKey = null;
+        showPage(repository.getGames(query, null));
+    }
+
+    private void fetchNextPage() {
+        if (nextKey != null) {
+            showPage(repository.getGames(query, nextKey));
+        }
+    }
+
+    private void showPage(GamePage page) {
+        gameList.getItems().addAll(page.games);
+        nextKey = page.nextKey;
+        moreButton.setDisable(!page.hasNext());
+    }
+
+}
@@ -37,7 +37,9 @@ import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * ...
@@ -51,6 +53,13 @@ public class SpaceView extends StackPane implements ViewObserver {
 
     public final Space space;
 
+    // the arrow of the player on this space, which is the last child of this
+    // view; the other children (walls, belts and checkpoints) are drawn only
+    // when the walls or the actions of the space changed
+    private final Polygon arrow = new Polygon(0.0, 0.0, 10.0, 20.0, 20.0, 0.0);
+
+    private Set<Heading> drawnWalls;
+    private List<FieldAction> drawnActions;
 
     public SpaceView(@NotNull Space space) {
         this.space = space;
@@ -150,35 +159,49 @@ public class SpaceView extends StackPane implements ViewObserver {
 
     }
 
+    /**
+     * Draws the walls, the conveyor belts and the checkpoints again, if they
+     * changed since they were drawn last.
+     */
+    private void updateBoardElements() {
+        if (space.getWalls() != drawnWalls || !space.getActions().equals(drawnActions)) {
+            drawnWalls = space.getWalls();
+            drawnActions = new ArrayList<>(space.getActions());
+            this.getChildren().clear();
+            drawWalls();
+            drawActions();
+            this.getChildren().add(arrow);
+        }
+    }
+
     /**
      * Updates the view of the player
      */
     private void updatePlayer() {
         Player player = space.getPlayer();
         if (player != null) {
-            Polygon arrow = new Polygon(0.0, 0.0, 10.0, 20.0, 20.0, 0.0);
             try {
                 arrow.setFill(Color.valueOf(player.getColor()));
             } catch (Exception e) {
                 arrow.setFill(Color.MEDIUMPURPLE);
             }
-
             arrow.setRotate((90 * player.getHeading().ordinal()) % 360);
-            this.getChildren().add(arrow);
+            arrow.setVisible(true);
+        } else {
+            arrow.setVisible(false);
         }
     }
     /**
      * Updates the view by drawing elements of the board, the walls, checkpoints, and conveyor belts,
-     * and draws the players
-     * .
+     * and draws the players. The elements of the board are drawn only once (and again only if
+     * they change); for the player, only the arrow is updated.
+     *
      * @param subject the subject which is changed
      */
     @Override
     public void updateView(Subject subject) {
         if (subject == this.space) {
-            this.getChildren().clear();
-            drawWalls();
-            drawActions();
+            updateBoardElements();
             updatePlayer();
         }
     }
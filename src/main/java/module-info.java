@@ -30,6 +30,7 @@ module roborally {
 
     exports dk.dtu.compute.se.pisd.roborally.dal;
     exports dk.dtu.compute.se.pisd.roborally.fileaccess;
+    exports dk.dtu.compute.se.pisd.roborally.simulation;
 
     exports dk.dtu.compute.se.pisd.designpatterns.observer;
 
@@ -9,6 +9,9 @@ CREATE TABLE IF NOT EXISTS Game (
   phase tinyint,
   step tinyint,
   currentPlayer tinyint NULL,
+  counter int NOT NULL DEFAULT 1,
+
+  created timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
   
   PRIMARY KEY (gameID),
   FOREIGN KEY (gameID, currentPlayer) REFERENCES Player(gameID, playerID)
@@ -24,11 +27,64 @@ CREATE TABLE IF NOT EXISTS Player (
   positionX int,
   positionY int,
   heading tinyint,
+  nextCheckpoint tinyint NOT NULL DEFAULT 1,
+  /* the ordinal of the last executed command, NULL if there is none */
+  lastCommand tinyint NULL,
   
   PRIMARY KEY (gameID, playerID),
   FOREIGN KEY (gameID) REFERENCES Game(gameID)
 );;
 
+CREATE TABLE IF NOT EXISTS CardField (
+  gameID int NOT NULL,
+  playerID tinyint NOT NULL,
+
+  /* 0 for the program registers, 1 for the cards in the hand */
+  type tinyint NOT NULL,
+  position tinyint NOT NULL,
+
+  visible tinyint(1),
+  /* the ordinal of the command of the card, NULL if there is no card */
+  command tinyint NULL,
+
+  PRIMARY KEY (gameID, playerID, type, position),
+  FOREIGN KEY (gameID, playerID) REFERENCES Player(gameID, playerID)
+);;
+
+CREATE TABLE IF NOT EXISTS GameEventSegment (
+  gameID int NOT NULL,
+
+  /* the events of the segment are the events from firstEvent (including)
+     to endEvent (excluding) of the event log of the game */
+  firstEvent bigint NOT NULL,
+  endEvent bigint NOT NULL,
+  /* the number of snapshots in the segment */
+  snapshots int NOT NULL,
+
+  /* the encoded GameEventSegment */
+  data longblob NOT NULL,
+
+  PRIMARY KEY (gameID, firstEvent),
+  FOREIGN KEY (gameID) REFERENCES Game(gameID)
+);;
+
+/* Databases created before the creation time was added to the Game table
+   get the column here; in all other cases, this fails and is ignored */
+ALTER TABLE Game ADD COLUMN created timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP;;
+
+/* Likewise for the round counter of the games and the checkpoint progress
+   and the last command of the players */
+ALTER TABLE Game ADD COLUMN counter int NOT NULL DEFAULT 1;;
+ALTER TABLE Player ADD COLUMN nextCheckpoint tinyint NOT NULL DEFAULT 1;;
+ALTER TABLE Player ADD COLUMN lastCommand tinyint NULL;;
+
+/* The indexes for the filters of the paged game listing; the pages are
+   ordered by gameID, which InnoDB adds to every secondary index. If an
+   index exists already, creating it fails and is ignored. */
+CREATE INDEX GameName ON Game (name);;
+CREATE INDEX GamePhase ON Game (phase);;
+CREATE INDEX GameCreated ON Game (created);;
+
 SET FOREIGN_KEY_CHECKS = 1;;
 
 // TODO still some stuff missing here
\ No newline at end of file
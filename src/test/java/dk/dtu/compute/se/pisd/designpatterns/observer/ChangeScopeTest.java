@@ -0,0 +1,49 @@
+package dk.dtu.compute.se.pisd.designpatterns.observer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChangeScopeTest {
+
+    private static class TestSubject extends Subject {
+        void change() {
+            notifyChange();
+        }
+    }
+
+    @Test
+    void notificationsAreDeliveredOnceWhenScopeIsClosed() {
+        TestSubject first = new TestSubject();
+        TestSubject second = new TestSubject();
+        List<Subject> updates = new ArrayList<>();
+        Observer observer = updates::add;
+        first.attach(observer);
+        second.attach(observer);
+
+        try (ChangeScope outer = ChangeScope.open()) {
+            first.change();
+            second.change();
+            try (ChangeScope inner = ChangeScope.open()) {
+                first.change();
+            }
+            first.change();
+            Assertions.assertTrue(updates.isEmpty(), "No update should be delivered while the scope is open");
+        }
+
+        Assertions.assertEquals(List.of(first, second), updates, "Every changed subject should be notified once, in the order of the changes");
+
+        first.change();
+        Assertions.assertEquals(3, updates.size(), "Without a scope, the update should be delivered right away");
+    }
+
+    @Test
+    void closingTwiceFails() {
+        ChangeScope scope = ChangeScope.open();
+        scope.close();
+        Assertions.assertThrows(IllegalStateException.class, scope::close);
+    }
+
+}
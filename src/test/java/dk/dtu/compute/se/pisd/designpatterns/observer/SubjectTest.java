@@ -0,0 +1,79 @@
+package dk.dtu.compute.se.pisd.designpatterns.observer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SubjectTest {
+
+    private static class TestSubject extends Subject {
+        void change() {
+            notifyChange();
+        }
+    }
+
+    @Test
+    void attachAndDetach() {
+        TestSubject subject = new TestSubject();
+        AtomicInteger updates = new AtomicInteger();
+        Observer observer = s -> updates.incrementAndGet();
+
+        subject.attach(observer);
+        subject.attach(observer);
+        subject.change();
+        Assertions.assertEquals(1, updates.get(), "An observer attached twice should be notified once");
+
+        subject.detach(observer);
+        subject.change();
+        Assertions.assertEquals(1, updates.get(), "A detached observer should not be notified");
+    }
+
+    @Test
+    void attachDuringNotification() {
+        TestSubject subject = new TestSubject();
+        List<Observer> observers = new ArrayList<>();
+        Observer late = s -> {};
+        Observer early = s -> {
+            if (observers.size() < 10) {
+                observers.add(late);
+                subject.attach(late);
+                subject.detach(observers.getFirst());
+            }
+        };
+        observers.add(early);
+        subject.attach(early);
+
+        Assertions.assertDoesNotThrow(subject::change);
+    }
+
+    @Test
+    void concurrentAttach() throws InterruptedException {
+        TestSubject subject = new TestSubject();
+        AtomicInteger updates = new AtomicInteger();
+        List<Observer> observers = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            observers.add(s -> updates.incrementAndGet());
+        }
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            List<Observer> part = observers.subList(t * 100, (t + 1) * 100);
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (Observer observer : part) {
+                    subject.attach(observer);
+                    subject.change();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        updates.set(0);
+        subject.change();
+        Assertions.assertEquals(400, updates.get(), "All observers attached concurrently should be registered");
+    }
+
+}
@@ -31,11 +31,22 @@ public class ConveyorBeltTest {
     }
 
     @Test
-    void testSetAndGetHeading() {
-        ConveyorBelt belt = new ConveyorBelt();
-        Assertions.assertNull(belt.getHeading());
-        belt.setHeading(Heading.NORTH);
+    void testGetHeading() {
+        for (Heading heading : Heading.values()) {
+            Assertions.assertEquals(heading, ConveyorBelt.of(heading).getHeading());
+        }
+    }
+
+    @Test
+    void testSharedConveyorBelts() {
+        ConveyorBelt belt = ConveyorBelt.of(Heading.NORTH);
+        Assertions.assertSame(belt, ConveyorBelt.of(Heading.NORTH));
         Assertions.assertEquals(Heading.NORTH, belt.getHeading());
+
+        Board b = BoardFactory.getInstance().createBoard("Belts belts belts board");
+        Assertions.assertSame(b.getSpace(0, 0).getConveyorBelt(), b.getSpace(1, 1).getConveyorBelt(),
+                "The conveyor belts of a board should be shared");
+        Assertions.assertSame(Checkpoint.of(1), Checkpoint.of(1));
     }
 
     @Test
@@ -43,8 +54,7 @@ public class ConveyorBeltTest {
         Board b = gameController.board;
         Space zz = b.getSpace(0, 0);
         Player p = zz.getPlayer();
-        ConveyorBelt belt = new ConveyorBelt();
-        belt.setHeading(Heading.EAST);
+        ConveyorBelt belt = ConveyorBelt.of(Heading.EAST);
         zz.getActions().add(belt);
         belt.doAction(gameController, zz);
         Assertions.assertNull(zz.getPlayer());
@@ -56,11 +66,9 @@ public class ConveyorBeltTest {
         Board b = gameController.board;
         Space s00 = b.getSpace(0, 0);
         Space s11 = b.getSpace(1, 1);
-        ConveyorBelt b00 = new ConveyorBelt();
-        b00.setHeading(Heading.EAST);
+        ConveyorBelt b00 = ConveyorBelt.of(Heading.EAST);
         s00.getActions().add(b00);
-        ConveyorBelt b11 = new ConveyorBelt();
-        b11.setHeading(Heading.NORTH);
+        ConveyorBelt b11 = ConveyorBelt.of(Heading.NORTH);
         s11.getActions().add(b11);
         Player p00 = s00.getPlayer();
         Player p11 = s11.getPlayer();
@@ -83,19 +91,17 @@ public class ConveyorBeltTest {
     void testGetConflictingConveyorSpaces() {
         Board b = gameController.board;
         Space zz = b.getSpace(0, 0);
-        ConveyorBelt belt = new ConveyorBelt();
-        belt.setHeading(Heading.EAST);
+        ConveyorBelt belt = ConveyorBelt.of(Heading.EAST);
         Assertions.assertEquals(0, ConveyorBelt.getConflictingConveyorSpaces(zz).size());
 
         zz.getActions().add(belt);
-        zz.getWalls().add(Heading.EAST);
+        zz.addWall(Heading.EAST);
         Assertions.assertEquals(0, ConveyorBelt.getConflictingConveyorSpaces(zz).size());
 
         Space oo = b.getSpace(1, 1);
-        ConveyorBelt belt2 = new ConveyorBelt();
-        belt2.setHeading(Heading.NORTH);
+        ConveyorBelt belt2 = ConveyorBelt.of(Heading.NORTH);
         oo.getActions().add(belt2);
-        zz.getWalls().clear();
+        zz.clearWalls();
         Assertions.assertEquals(new ArrayList<>(List.of(oo)), ConveyorBelt.getConflictingConveyorSpaces(zz));
     }
 
@@ -104,11 +110,9 @@ public class ConveyorBeltTest {
         Board b = gameController.board;
         Space zz = b.getSpace(0, 0);
         Space oz = b.getSpace(1, 0);
-        ConveyorBelt bzz = new ConveyorBelt();
-        bzz.setHeading(Heading.EAST);
+        ConveyorBelt bzz = ConveyorBelt.of(Heading.EAST);
         zz.getActions().add(bzz);
-        ConveyorBelt boz = new ConveyorBelt();
-        boz.setHeading(Heading.EAST);
+        ConveyorBelt boz = ConveyorBelt.of(Heading.EAST);
         oz.getActions().add(boz);
         Player p1 = b.getSpace(0, 0).getPlayer();
         Player p2 = b.getSpace(1, 1).getPlayer();
@@ -121,4 +125,25 @@ public class ConveyorBeltTest {
         Assertions.assertEquals(p2, b.getSpace(2, 0).getPlayer());
         Assertions.assertEquals(p1, b.getSpace(0, 0).getPlayer());
     }
+
+    @Test
+    void testConflictIndex() {
+        Board b = BoardFactory.getInstance().createBoard("Conflicting conveyors board");
+        Assertions.assertNotNull(b.getConveyorConflictIndex(), "A board from the factory should have a conflict index");
+        for (int x = 0; x < b.width; x++) {
+            for (int y = 0; y < b.height; y++) {
+                Space space = b.getSpace(x, y);
+                ConveyorConflictIndex index = b.getConveyorConflictIndex();
+                List<Space> conflicts = new ArrayList<>();
+                for (int i = 0; i < index.conflictCount(space); i++) {
+                    conflicts.add(index.conflict(space, i));
+                }
+                Assertions.assertEquals(ConveyorBelt.getConflictingConveyorSpaces(space), conflicts,
+                        "The index should have the same conflicts as computed for " + space);
+            }
+        }
+
+        b.getSpace(0, 0).addWall(Heading.NORTH);
+        Assertions.assertNull(b.getConveyorConflictIndex(), "The index should be dropped when walls change");
+    }
 }
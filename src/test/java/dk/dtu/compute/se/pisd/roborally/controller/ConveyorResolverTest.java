@@ -0,0 +1,209 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+public class ConveyorResolverTest {
+
+    private GameController gameController;
+
+    @BeforeEach
+    void setup() {
+        Board board = new Board(8, 8);
+        board.setNoOfCheckpoints(999);
+        gameController = new GameController(board);
+        for (int i = 0; i < 4; i++) {
+            Player player = new Player(board, null, "Player " + i);
+            board.addPlayer(player);
+        }
+    }
+
+    private void addBelt(int x, int y, Heading heading) {
+        ConveyorBelt belt = ConveyorBelt.of(heading);
+        gameController.board.getSpace(x, y).getActions().add(belt);
+    }
+
+    private Player placePlayer(int i, int x, int y) {
+        Player player = gameController.board.getPlayer(i);
+        player.setSpace(gameController.board.getSpace(x, y));
+        return player;
+    }
+
+    @Test
+    void chainFollowsIndependentOfPlayerOrder() {
+        Board board = gameController.board;
+        for (int x = 1; x <= 4; x++) {
+            addBelt(x, 2, Heading.EAST);
+        }
+        // the players are placed so that the first player is at the end of the chain
+        Player p0 = placePlayer(0, 1, 2);
+        Player p1 = placePlayer(1, 2, 2);
+        Player p2 = placePlayer(2, 3, 2);
+        Player p3 = placePlayer(3, 4, 2);
+
+        gameController.executeFieldActions();
+
+        Assertions.assertEquals(board.getSpace(2, 2), p0.getSpace(), p0.getName() + " should follow the player in front");
+        Assertions.assertEquals(board.getSpace(3, 2), p1.getSpace(), p1.getName() + " should follow the player in front");
+        Assertions.assertEquals(board.getSpace(4, 2), p2.getSpace(), p2.getName() + " should follow the player in front");
+        Assertions.assertEquals(board.getSpace(5, 2), p3.getSpace(), p3.getName() + " should be moved to the free space");
+        Assertions.assertNull(board.getSpace(1, 2).getPlayer(), "The last space of the chain should be free");
+        Assertions.assertEquals(0, gameController.getBlockedConveyorMoves(), "No conveyor move should be blocked");
+    }
+
+    @Test
+    void cycleIsBlocked() {
+        Board board = gameController.board;
+        addBelt(1, 1, Heading.EAST);
+        addBelt(2, 1, Heading.SOUTH);
+        addBelt(2, 2, Heading.WEST);
+        addBelt(1, 2, Heading.NORTH);
+        placePlayer(0, 1, 1);
+        placePlayer(1, 2, 1);
+        placePlayer(2, 2, 2);
+        placePlayer(3, 1, 2);
+
+        gameController.executeFieldActions();
+
+        Assertions.assertEquals(board.getSpace(1, 1), board.getPlayer(0).getSpace(), "Players on a full cycle should not move");
+        Assertions.assertEquals(board.getSpace(2, 1), board.getPlayer(1).getSpace(), "Players on a full cycle should not move");
+        Assertions.assertEquals(board.getSpace(2, 2), board.getPlayer(2).getSpace(), "Players on a full cycle should not move");
+        Assertions.assertEquals(board.getSpace(1, 2), board.getPlayer(3).getSpace(), "Players on a full cycle should not move");
+        Assertions.assertEquals(4, gameController.getBlockedConveyorMoves(), "All four conveyor moves should be blocked");
+    }
+
+    @Test
+    void conflictCreatedByEarlierMove() {
+        Board board = gameController.board;
+        // (1,3) and (3,3) both point to (2,3); (3,4) points to (3,3)
+        addBelt(1, 3, Heading.EAST);
+        addBelt(3, 3, Heading.WEST);
+        addBelt(3, 4, Heading.NORTH);
+        Player p0 = placePlayer(0, 3, 4);
+        Player p1 = placePlayer(1, 1, 3);
+        placePlayer(2, 6, 6);
+        placePlayer(3, 7, 7);
+
+        gameController.executeFieldActions();
+
+        // the first player moves onto the conflicting belt first, so the second player is blocked
+        Assertions.assertEquals(board.getSpace(3, 3), p0.getSpace(), p0.getName() + " should be moved onto the conflicting belt");
+        Assertions.assertEquals(board.getSpace(1, 3), p1.getSpace(), p1.getName() + " should be blocked by the conflicting belt");
+        Assertions.assertEquals(1, gameController.getBlockedConveyorMoves(), "One conveyor move should be blocked");
+    }
+
+    @Test
+    void resultsMatchTheRetryLoop() {
+        for (long seed = 0; seed < 2000; seed++) {
+            Board board = createRandomBoard(seed);
+            Board expected = createRandomBoard(seed);
+            GameController controller = new GameController(board);
+
+            controller.executeFieldActions();
+            int expectedBlocked = executeWithRetryLoop(expected);
+
+            for (int i = 0; i < board.getPlayersNumber(); i++) {
+                Space space = board.getPlayer(i).getSpace();
+                Space expectedSpace = expected.getPlayer(i).getSpace();
+                Assertions.assertEquals(expectedSpace.x + "," + expectedSpace.y, space.x + "," + space.y,
+                        "Player " + i + " should be at the same space as with the retry loop for seed " + seed);
+            }
+            Assertions.assertEquals(expectedBlocked, controller.getBlockedConveyorMoves(),
+                    "The same number of moves should be blocked as with the retry loop for seed " + seed);
+        }
+    }
+
+    /**
+     * Creates a board with random conveyor belts, walls and players; the same
+     * seed gives the same board. Every other board has a conflict index.
+     */
+    private static Board createRandomBoard(long seed) {
+        Random random = new Random(seed);
+        Board board = new Board(3 + random.nextInt(6), 3 + random.nextInt(6));
+        board.setNoOfCheckpoints(999);
+        Heading[] headings = Heading.values();
+        List<Space> free = new ArrayList<>();
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                Space space = board.getSpace(x, y);
+                if (random.nextInt(4) > 0) {
+                    space.getActions().add(ConveyorBelt.of(headings[random.nextInt(headings.length)]));
+                }
+                if (random.nextInt(6) == 0) {
+                    space.addWall(headings[random.nextInt(headings.length)]);
+                }
+                free.add(space);
+            }
+        }
+        if (seed % 2 == 0) {
+            ConveyorConflictIndex.build(board);
+        }
+        int players = 1 + random.nextInt(Math.min(free.size(), 16));
+        for (int i = 0; i < players; i++) {
+            Player player = new Player(board, null, "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(free.remove(random.nextInt(free.size())));
+        }
+        return board;
+    }
+
+    /**
+     * Moves the players on the conveyor belts like the game did before the
+     * resolver: every player is moved once in player order, and the players
+     * whose target is occupied are retried in a loop, until the set of the
+     * waiting players does not change anymore.
+     *
+     * @return the number of players on belts, who were not moved
+     */
+    private static int executeWithRetryLoop(Board board) {
+        List<Player> queue = new ArrayList<>();
+        List<Player> copy = new ArrayList<>();
+        int blocked = 0;
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            if (player.getSpace().getConveyorBelt() != null) {
+                blocked++;
+                if (moveWithBelt(board, player, queue)) {
+                    blocked--;
+                }
+            }
+        }
+        while (!queue.isEmpty() && !new HashSet<>(queue).equals(new HashSet<>(copy))) {
+            copy = new ArrayList<>(queue);
+            queue.clear();
+            for (int i = copy.size() - 1; i >= 0; i--) {
+                if (moveWithBelt(board, copy.get(i), queue)) {
+                    blocked--;
+                }
+            }
+        }
+        return blocked;
+    }
+
+    private static boolean moveWithBelt(Board board, Player player, List<Player> queue) {
+        Space space = player.getSpace();
+        for (Space conflictingSpace : ConveyorBelt.getConflictingConveyorSpaces(space)) {
+            if (conflictingSpace.getPlayer() != null) {
+                return false;
+            }
+        }
+        Space target = board.getNeighbour(space, space.getConveyorBelt().getHeading());
+        if (target != null && target.getPlayer() == null) {
+            player.setSpace(target);
+            return true;
+        }
+        queue.add(player);
+        return false;
+    }
+
+}
@@ -100,7 +100,7 @@ class GameControllerTest {
         current.setSpace(board.getSpace(5, 5));
         current.setHeading(Heading.SOUTH);
         Space space = board.getSpace(5, 5);
-        space.getWalls().add(Heading.SOUTH);
+        space.addWall(Heading.SOUTH);
         gameController.moveForward(current);
         Assertions.assertEquals(current, board.getSpace(5, 5).getPlayer(), "Player " + current.getName() + " has moved should be on space (5, 5)");
         Assertions.assertEquals(Heading.SOUTH, current.getHeading(), "Player " + current.getName() + " should be heading SOUTH!");
@@ -108,7 +108,7 @@ class GameControllerTest {
         current.setSpace(board.getSpace(6, 5));
         current.setHeading(Heading.SOUTH);
         space = board.getSpace(6, 6);
-        space.getWalls().add(Heading.NORTH);
+        space.addWall(Heading.NORTH);
         gameController.moveForward(current);
         Assertions.assertEquals(current, board.getSpace(6, 5).getPlayer(), "Player " + current.getName() + " has moved should be on space (6, 5)");
         Assertions.assertEquals(Heading.SOUTH, current.getHeading(), "Player " + current.getName() + " should be heading SOUTH!");
@@ -280,7 +280,7 @@ class GameControllerTest {
         Player current = board.getCurrentPlayer();
         Player neighbour = board.getNextPlayer();
         Space wall = gameController.board.getSpace(6, 3);
-        wall.getWalls().add(Heading.WEST);
+        wall.addWall(Heading.WEST);
         current.setSpace(board.getSpace(4, 3));
         current.setHeading(Heading.EAST);
         neighbour.setSpace(board.getSpace(5, 3));
@@ -315,7 +315,7 @@ class GameControllerTest {
         space = gameController.board.getSpace(7, 5);
         player2.setSpace(space);
         space = gameController.board.getSpace(7, 4);
-        space.getWalls().add(Heading.NORTH);
+        space.addWall(Heading.NORTH);
 
         // test chain bumping.
         gameController.moveForward(player0);
@@ -336,7 +336,7 @@ class GameControllerTest {
         Player current = board.getCurrentPlayer();
         Player neighbour = board.getNextPlayer();
         Space wall = gameController.board.getSpace(6, 4);
-        wall.getWalls().add(Heading.EAST);
+        wall.addWall(Heading.EAST);
         current.setSpace(board.getSpace(3, 4));
         current.setHeading(Heading.EAST);
         neighbour.setSpace(board.getSpace(5, 4));
@@ -369,8 +369,7 @@ class GameControllerTest {
 
         //Setting Conveyorbelt and executing action
         Space space = board.getSpace(3, 4);
-        ConveyorBelt action = new ConveyorBelt();
-        action.setHeading(Heading.WEST);
+        ConveyorBelt action = ConveyorBelt.of(Heading.WEST);
         space.getActions().add(action);
         action.doAction(gameController, board.getSpace(3, 4));
 
@@ -391,12 +390,11 @@ class GameControllerTest {
 
         //Setting Wall to stop conveyorbelt action
         Space wall = gameController.board.getSpace(6, 3);
-        wall.getWalls().add(Heading.NORTH);
+        wall.addWall(Heading.NORTH);
 
         //Setting Conveyorbelt and executing action
         Space space = board.getSpace(6, 3);
-        ConveyorBelt action = new ConveyorBelt();
-        action.setHeading(Heading.NORTH);
+        ConveyorBelt action = ConveyorBelt.of(Heading.NORTH);
         space.getActions().add(action);
         action.doAction(gameController, board.getSpace(6, 3));
 
@@ -416,7 +414,7 @@ class GameControllerTest {
         //Creates checkpoint and does checkpoint action on the player,
         //which should increment nextCheckpoint attribute
         Space space = board.getSpace(4, 4);
-        Checkpoint point = new Checkpoint(1);
+        Checkpoint point = Checkpoint.of(1);
         space.getActions().add(point);
         runWithInitializedJavaFX(() -> {
             point.doAction(gameController, board.getSpace(4, 4));
@@ -436,9 +434,8 @@ class GameControllerTest {
         // creates a conveyor belt then a check point at the same space. execute doActions and check that check point
         // is correct. Obviously it is since we use addFirst for to add the check point to the FieldActions..
         Space space = board.getSpace(4, 4);
-        Checkpoint point = new Checkpoint(1);
-        ConveyorBelt belt = new ConveyorBelt();
-        belt.setHeading(Heading.EAST);
+        Checkpoint point = Checkpoint.of(1);
+        ConveyorBelt belt = ConveyorBelt.of(Heading.EAST);
         space.getActions().add(belt);
         space.getActions().addFirst(point);
         runWithInitializedJavaFX(() -> {
@@ -460,7 +457,7 @@ class GameControllerTest {
         board.setNoOfCheckpoints(3);
 
         Space space = board.getSpace(6, 3);
-        Checkpoint point1 = new Checkpoint(1);
+        Checkpoint point1 = Checkpoint.of(1);
         space.getActions().add(point1);
         gameController.moveForward(current);
         point1.doAction(gameController, board.getSpace(6, 3));
@@ -468,7 +465,7 @@ class GameControllerTest {
         Assertions.assertEquals(2, current.getNextCheckpoint(), current.getName() + "next checkpoint should be 2");
 
         space = board.getSpace(6, 2);
-        Checkpoint point2 = new Checkpoint(3);
+        Checkpoint point2 = Checkpoint.of(3);
         space.getActions().add(point2);
         gameController.moveForward(current);
         point2.doAction(gameController, board.getSpace(6, 2));
@@ -476,7 +473,7 @@ class GameControllerTest {
         Assertions.assertFalse(gameController.isPlayerAWinner(current), "isPlayerAWinner should be false");
 
         space = board.getSpace(6, 1);
-        Checkpoint point3 = new Checkpoint(2);
+        Checkpoint point3 = Checkpoint.of(2);
         space.getActions().add(point3);
         gameController.moveForward(current);
         point3.doAction(gameController, board.getSpace(6, 1));
@@ -513,7 +510,7 @@ class GameControllerTest {
         board.setNoOfCheckpoints(2);
 
         Space space = board.getSpace(4, 3);
-        final Checkpoint cp1 = new Checkpoint(1);
+        final Checkpoint cp1 = Checkpoint.of(1);
         space.getActions().add(cp1);
 
         runWithInitializedJavaFX(() -> {
@@ -522,7 +519,7 @@ class GameControllerTest {
 
         //Creates another checkpoint and moves the player there and does checkpoint action
         space = board.getSpace(6, 6);
-        final Checkpoint cp2 = new Checkpoint(2);
+        final Checkpoint cp2 = Checkpoint.of(2);
         space.getActions().add(cp2);
         current.setSpace(board.getSpace(6, 6));
 
@@ -543,11 +540,11 @@ class GameControllerTest {
         current.setHeading(Heading.NORTH);
 
         Space space = board.getSpace(3, 2);
-        Checkpoint checkpoint1 = new Checkpoint(1);
+        Checkpoint checkpoint1 = Checkpoint.of(1);
         space.getActions().add(checkpoint1);
 
         space = board.getSpace(3, 1);
-        Checkpoint checkpoint2 = new Checkpoint(2);
+        Checkpoint checkpoint2 = Checkpoint.of(2);
         space.getActions().add(checkpoint2);
 
         Assertions.assertEquals(1, current.getNextCheckpoint(), "Player " + current.getName() + " should be heading for first!");
@@ -575,8 +572,8 @@ class GameControllerTest {
         current.setHeading(Heading.NORTH);
 
         gameController.startProgrammingPhase();
-        current.getProgramField(0).setCard(new CommandCard(Command.FORWARD));
-        current.getProgramField(1).setCard(new CommandCard(Command.AGAIN));
+        current.getProgramField(0).setCard(CommandCard.of(Command.FORWARD));
+        current.getProgramField(1).setCard(CommandCard.of(Command.AGAIN));
         gameController.finishProgrammingPhase();
         gameController.executePrograms();
         Assertions.assertEquals(current, board.getSpace(3, 1).getPlayer(), "Player " + current.getName() + " should be on Space (3,1)!");
@@ -590,8 +587,8 @@ class GameControllerTest {
         current.setHeading(Heading.NORTH);
 
         gameController.startProgrammingPhase();
-        current.getProgramField(0).setCard(new CommandCard(Command.FORWARD));
-        current.getProgramField(1).setCard(new CommandCard(Command.AGAIN));
+        current.getProgramField(0).setCard(CommandCard.of(Command.FORWARD));
+        current.getProgramField(1).setCard(CommandCard.of(Command.AGAIN));
         gameController.finishProgrammingPhase();
         Assertions.assertEquals(current, board.getSpace(5, 3).getPlayer(), "Player " + current.getName() + " should be on Space (5,3)!");
         gameController.executeStep();
@@ -615,10 +612,8 @@ class GameControllerTest {
         Player p2 = board.getPlayer(1);
         Space s1 = board.getSpace(2, 4);
         Space s2 = board.getSpace(3, 4);
-        ConveyorBelt c1 = new ConveyorBelt();
-        c1.setHeading(Heading.WEST);
-        ConveyorBelt c2 = new ConveyorBelt();
-        c2.setHeading(Heading.WEST);
+        ConveyorBelt c1 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c2 = ConveyorBelt.of(Heading.WEST);
 
         //Put conveyor belts and players on their respective spaces
         s1.getActions().add(c1);
@@ -642,11 +637,11 @@ class GameControllerTest {
         current.setHeading(Heading.SOUTH);
 
         gameController.startProgrammingPhase();
-        current.getProgramField(0).setCard(new CommandCard(Command.RIGHT));
-        current.getProgramField(1).setCard(new CommandCard(Command.LEFT));
-        current.getProgramField(2).setCard(new CommandCard(Command.FAST_FORWARD));
-        current.getProgramField(3).setCard(new CommandCard(Command.FAST_FAST_FORWARD));
-        current.getProgramField(4).setCard(new CommandCard(Command.U_TURN));
+        current.getProgramField(0).setCard(CommandCard.of(Command.RIGHT));
+        current.getProgramField(1).setCard(CommandCard.of(Command.LEFT));
+        current.getProgramField(2).setCard(CommandCard.of(Command.FAST_FORWARD));
+        current.getProgramField(3).setCard(CommandCard.of(Command.FAST_FAST_FORWARD));
+        current.getProgramField(4).setCard(CommandCard.of(Command.U_TURN));
         gameController.finishProgrammingPhase();
         gameController.executePrograms();
 
@@ -656,10 +651,10 @@ class GameControllerTest {
 
         //Another round to get check last command card, backward
         gameController.startProgrammingPhase();
-        current.getProgramField(0).setCard(new CommandCard(Command.BACKWARD));
-        current.getProgramField(1).setCard(new CommandCard(Command.RIGHT_OR_LEFT));
+        current.getProgramField(0).setCard(CommandCard.of(Command.BACKWARD));
+        current.getProgramField(1).setCard(CommandCard.of(Command.RIGHT_OR_LEFT));
         gameController.turnRightOrLeft(current, "Left");
-        current.getProgramField(2).setCard(new CommandCard(Command.RIGHT_OR_LEFT));
+        current.getProgramField(2).setCard(CommandCard.of(Command.RIGHT_OR_LEFT));
         gameController.turnRightOrLeft(current, "Right");
         gameController.finishProgrammingPhase();
         gameController.executePrograms();
@@ -679,14 +674,10 @@ class GameControllerTest {
         Space s2 = board.getSpace(2, 0);
         Space s3 = board.getSpace(3, 0);
         Space s4 = board.getSpace(4, 0);
-        ConveyorBelt c1 = new ConveyorBelt();
-        c1.setHeading(Heading.WEST);
-        ConveyorBelt c2 = new ConveyorBelt();
-        c2.setHeading(Heading.WEST);
-        ConveyorBelt c3 = new ConveyorBelt();
-        c3.setHeading(Heading.WEST);
-        ConveyorBelt c4 = new ConveyorBelt();
-        c4.setHeading(Heading.WEST);
+        ConveyorBelt c1 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c2 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c3 = ConveyorBelt.of(Heading.WEST);
+        ConveyorBelt c4 = ConveyorBelt.of(Heading.WEST);
 
         s1.getActions().add(c1);
         s2.getActions().add(c2);
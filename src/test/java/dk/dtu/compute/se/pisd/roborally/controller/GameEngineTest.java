@@ -0,0 +1,98 @@
+package dk.dtu.compute.se.pisd.roborally.controller;
+
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Deck;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Testing the headless game engine, which must be able to play games
+ * without JavaFX being started.
+ */
+class GameEngineTest {
+
+    @Test
+    void createGame() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4);
+        Board board = engine.board;
+
+        Assertions.assertEquals(4, board.getPlayersNumber(), "The game should have 4 players");
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            Assertions.assertNotNull(player.getSpace(), player.getName() + " should be placed on the board");
+        }
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameEngine.createGame("Simple board", 0));
+    }
+
+    @Test
+    void playRound() {
+        GameEngine engine = GameEngine.createGame("Belts belts belts board", 6);
+        Board board = engine.board;
+
+        boolean running = engine.playRound();
+
+        Assertions.assertTrue(running, "Nobody can win the game in the first round");
+        Assertions.assertEquals(Phase.PROGRAMMING, board.getPhase(), "The next round should be ready for programming");
+        Assertions.assertEquals(2, board.getCounter(), "The game should be in its second round");
+    }
+
+    @Test
+    void gamesWithTheSameSeedAreTheSame() {
+        GameEngine first = GameEngine.createGame("Belts belts belts board", 4, 42);
+        GameEngine second = GameEngine.createGame("Belts belts belts board", 4, 42);
+        Assertions.assertEquals(Long.valueOf(42), first.gameController.getSeed());
+
+        for (int round = 0; round < 10; round++) {
+            first.playRound();
+            second.playRound();
+            for (int i = 0; i < first.board.getPlayersNumber(); i++) {
+                Player player = first.board.getPlayer(i);
+                Player other = second.board.getPlayer(i);
+                Assertions.assertEquals(player.getSpace().toString(), other.getSpace().toString(),
+                        "The players should be on the same spaces in round " + round);
+                Assertions.assertEquals(player.getHeading(), other.getHeading());
+                for (int j = 0; j < Player.NO_CARDS; j++) {
+                    Assertions.assertEquals(player.getCardField(j).getCard().command,
+                            other.getCardField(j).getCard().command, "The same cards should be dealt");
+                }
+            }
+        }
+    }
+
+    @Test
+    void cardsAreDealtFromTheDecks() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 2, 7);
+        for (int round = 0; round < 20; round++) {
+            engine.playRound();
+            for (int i = 0; i < engine.board.getPlayersNumber(); i++) {
+                Player player = engine.board.getPlayer(i);
+                Deck deck = player.getDeck();
+                int dealt = 0;
+                for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+                    dealt += player.getProgramField(j).getCard() != null ? 1 : 0;
+                }
+                for (int j = 0; j < Player.NO_CARDS; j++) {
+                    dealt += player.getCardField(j).getCard() != null ? 1 : 0;
+                }
+                Assertions.assertEquals(Player.NO_CARDS, dealt, "Every player should have the dealt cards");
+                Assertions.assertEquals(deck.size(), deck.getDrawPileSize() + deck.getDiscardPileSize() + dealt,
+                        "No card should be lost or added in round " + round);
+            }
+        }
+    }
+
+    @Test
+    void outcomeListener() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 2);
+        Player player = engine.board.getPlayer(1);
+
+        engine.gameController.startWinning(player);
+
+        Assertions.assertTrue(engine.isFinished(), "The game should be finished");
+        Assertions.assertSame(player, engine.getWinner(), player.getName() + " should be the winner");
+        Assertions.assertFalse(engine.playRound(), "A finished game should not be continued");
+    }
+
+}
@@ -0,0 +1,121 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConnectorTest {
+
+    private final List<Connection> opened = Collections.synchronizedList(new ArrayList<>());
+    private final List<Connection> closed = Collections.synchronizedList(new ArrayList<>());
+    // the connections, which are not valid anymore (e.g. closed by the database)
+    private final List<Connection> invalid = Collections.synchronizedList(new ArrayList<>());
+
+    // the time of the clock of the connector in milliseconds
+    private long now = 1000;
+
+    private Connection open() {
+        Connection[] connection = new Connection[1];
+        connection[0] = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "close" -> closed.add(connection[0]);
+                    case "isClosed" -> closed.contains(connection[0]);
+                    case "getAutoCommit" -> true;
+                    case "isValid" -> !invalid.contains(connection[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> null;
+                });
+        opened.add(connection[0]);
+        return connection[0];
+    }
+
+    @Test
+    void idleConnectionsAreEvictedWhenBorrowing() throws SQLException {
+        Connector connector = new Connector(2, 200, () -> now, this::open);
+        Connection first = connector.getConnection();
+        connector.releaseConnection(first);
+        now += 200;
+        Assertions.assertSame(first, connector.getConnection(), "A recently used connection should be reused");
+        connector.releaseConnection(first);
+
+        now += 201;
+        Connection second = connector.getConnection();
+        Assertions.assertNotSame(first, second, "An idle connection should not be reused");
+        Assertions.assertTrue(closed.contains(first), "An idle connection should be closed when a connection is borrowed");
+        connector.releaseConnection(second);
+    }
+
+    @Test
+    void closeClosesTheIdleConnections() throws SQLException {
+        Connector connector = new Connector(2, 60000, this::open);
+        Connection first = connector.getConnection();
+        Connection second = connector.getConnection();
+        connector.releaseConnection(first);
+
+        connector.close();
+        Assertions.assertEquals(List.of(first), closed);
+        connector.releaseConnection(second);
+        Assertions.assertEquals(List.of(first, second), closed, "A connection in use should be closed when it is released");
+        Assertions.assertThrows(SQLException.class, connector::getConnection);
+    }
+
+    @Test
+    void invalidConnectionsAreNotBorrowed() throws SQLException {
+        Connector connector = new Connector(2, 60000, () -> now, this::open);
+        Connection first = connector.getConnection();
+        Connection second = connector.getConnection();
+        connector.releaseConnection(first);
+        connector.releaseConnection(second);
+
+        invalid.add(second);
+        Assertions.assertSame(first, connector.getConnection(),
+                "The next valid connection should be borrowed instead of an invalid one");
+        Assertions.assertEquals(List.of(second), closed, "An invalid connection should be closed");
+
+        invalid.add(first);
+        connector.releaseConnection(first);
+        Connection third = connector.getConnection();
+        Assertions.assertEquals(3, opened.size(), "A new connection should be opened instead of an invalid one");
+        Assertions.assertSame(opened.get(2), third);
+        Assertions.assertEquals(List.of(second, first), closed);
+        connector.releaseConnection(third);
+    }
+
+    @Test
+    void borrowersWaitWhenAllConnectionsAreInUse() throws SQLException, InterruptedException {
+        Connector connector = new Connector(1, 60000, () -> now, this::open);
+        Connection first = connector.getConnection();
+        AtomicReference<Object> borrowed = new AtomicReference<>();
+        Thread borrower = new Thread(() -> {
+            try {
+                borrowed.set(connector.getConnection());
+            } catch (SQLException e) {
+                borrowed.set(e);
+            }
+        });
+        borrower.start();
+
+        // the borrower waits for a connection without a time limit
+        while (borrower.getState() != Thread.State.WAITING) {
+            Assertions.assertTrue(borrower.isAlive(), "The borrower should wait for a connection");
+            Thread.onSpinWait();
+        }
+        Assertions.assertNull(borrowed.get());
+        Assertions.assertEquals(1, opened.size(), "No connection should be opened beyond the pool size");
+
+        connector.releaseConnection(first);
+        borrower.join(10000);
+        Assertions.assertSame(first, borrowed.get(), "The waiting borrower should get the released connection");
+        Assertions.assertEquals(1, opened.size());
+        connector.releaseConnection(first);
+    }
+
+}
@@ -0,0 +1,244 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class GameReplayTest {
+
+    @Test
+    void replayRestoresEveryRound() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4, 42);
+        GameEventLog log = new GameEventLog(0, 0, false);
+        log.attach(engine.gameController);
+
+        List<Long> eventCounts = new ArrayList<>();
+        List<byte[]> states = new ArrayList<>();
+        eventCounts.add(log.getEventCount());
+        states.add(GameSnapshotCodec.encode(GameSnapshot.of(engine.board)));
+        for (int round = 0; round < 30 && engine.playRound(); round++) {
+            eventCounts.add(log.getEventCount());
+            states.add(GameSnapshotCodec.encode(GameSnapshot.of(engine.board)));
+            if (round % 10 == 9) {
+                log.takeSnapshot();
+            }
+        }
+        eventCounts.add(log.getEventCount());
+        states.add(GameSnapshotCodec.encode(GameSnapshot.of(engine.board)));
+        Assertions.assertEquals(4, log.getSnapshotCount());
+
+        GameReplay replay = new GameReplay(log);
+        for (int i = 0; i < states.size(); i++) {
+            Board board = replay.seek(eventCounts.get(i));
+            Assertions.assertArrayEquals(states.get(i), GameSnapshotCodec.encode(GameSnapshot.of(board)),
+                    "The replay should restore the game after " + eventCounts.get(i) + " events");
+        }
+    }
+
+    @Test
+    void snapshotsAreTakenRegularly() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4, 42);
+        GameEventLog log = new GameEventLog(5, 100, false);
+        log.attach(engine.gameController);
+
+        List<byte[]> states = new ArrayList<>();
+        for (int round = 0; round < 30 && engine.playRound(); round++) {
+            states.add(GameSnapshotCodec.encode(GameSnapshot.of(engine.board)));
+        }
+        Assertions.assertTrue(log.getSnapshotCount() > 30 / 5, "Snapshots should be taken by rounds and events");
+
+        GameReplay replay = new GameReplay(log);
+        for (byte[] state : states) {
+            int counter = GameSnapshotCodec.decode(state).counter;
+            long position = log.getRoundPosition(counter);
+            Assertions.assertTrue(position - log.getSnapshot(position).eventIndex() <= 100,
+                    "The replay of a round should start from a recent snapshot");
+            Assertions.assertArrayEquals(state, GameSnapshotCodec.encode(GameSnapshot.of(replay.seekRound(counter))),
+                    "The replay should restore round " + counter);
+        }
+        Assertions.assertEquals(-1, log.getRoundPosition(1000));
+    }
+
+    @Test
+    void seekingAtSnapshotsGivesTheStateAfterTheirEvents() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4, 42);
+        GameEventLog log = new GameEventLog(3, 40, false);
+        log.attach(engine.gameController);
+        engine.playGame(20);
+        Assertions.assertTrue(log.getSnapshotCount() > 5, "Snapshots should be taken by rounds and events");
+
+        // the reference is the replay of all events from the first snapshot
+        Board replayed = GameReplay.createBoard(GameSnapshotCodec.decode(log.getSnapshot(0).data()));
+        List<GameEvent> events = log.getEvents(0, log.getEventCount());
+        GameReplay replay = new GameReplay(log);
+        int snapshots = 0;
+        for (long i = 0; i <= log.getEventCount(); i++) {
+            if (i > 0) {
+                GameReplay.apply(replayed, events.get((int) (i - 1)));
+            }
+            GameEventLog.Snapshot snapshot = log.getSnapshot(i);
+            if (snapshot.eventIndex() == i) {
+                snapshots++;
+                byte[] state = GameSnapshotCodec.encode(GameSnapshot.of(replayed));
+                Assertions.assertArrayEquals(state, snapshot.data(),
+                        "The snapshot at " + i + " should be the state after " + i + " events");
+                Assertions.assertArrayEquals(state, GameSnapshotCodec.encode(GameSnapshot.of(replay.seek(i))),
+                        "Seeking the snapshot at " + i + " should give the state after " + i + " events");
+            }
+        }
+        Assertions.assertEquals(log.getSnapshotCount(), snapshots);
+    }
+
+    @Test
+    void compactingLogKeepsTheLatestRounds() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4, 42);
+        GameEventLog log = new GameEventLog(3, 0, true);
+        log.attach(engine.gameController);
+
+        int maxSize = 0;
+        byte[] state = null;
+        int counter = 0;
+        for (int round = 0; round < 30 && engine.playRound(); round++) {
+            maxSize = Math.max(maxSize, log.getSize());
+            state = GameSnapshotCodec.encode(GameSnapshot.of(engine.board));
+            counter = engine.board.getCounter();
+        }
+        Assertions.assertEquals(1, log.getSnapshotCount());
+        Assertions.assertTrue(log.getFirstEventIndex() > 0, "The log should be compacted");
+        Assertions.assertTrue(maxSize < log.getEventCount(), "The log should not keep all events");
+
+        GameReplay replay = new GameReplay(log);
+        Assertions.assertArrayEquals(state, GameSnapshotCodec.encode(GameSnapshot.of(replay.seekRound(counter))),
+                "The replay should restore the latest round");
+        Assertions.assertArrayEquals(state, GameSnapshotCodec.encode(GameSnapshot.of(replay.seek(log.getEventCount()))),
+                "The replay should restore the end of the log");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> replay.seek(0));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> replay.seekRound(1));
+    }
+
+    @Test
+    void restoredLogContinuesTheGame() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 3, 11);
+        GameEventLog log = new GameEventLog(4, 0, true);
+        log.attach(engine.gameController);
+        List<GameEventSegment> segments = new ArrayList<>();
+        for (int round = 0; round < 10 && engine.playRound(); round++) {
+            GameEventSegment segment = log.nextSegment();
+            Assertions.assertNotNull(segment);
+            segments.add(GameEventSegment.decode(segment.encode()));
+        }
+        Assertions.assertNull(log.nextSegment(), "Nothing should be saved twice");
+        for (int i = 1; i < segments.size(); i++) {
+            Assertions.assertEquals(segments.get(i - 1).getEndEvent(), segments.get(i).getFirstEvent());
+        }
+
+        GameEventLog restored = new GameEventLog(4, 0, true);
+        Assertions.assertTrue(restored.restore(segments));
+        Assertions.assertEquals(log.getEventCount(), restored.getEventCount());
+        Assertions.assertTrue(restored.getFirstEventIndex() >= log.getFirstEventIndex(),
+                "The log should be restored from the latest saved snapshot");
+        int counter = engine.board.getCounter();
+        Assertions.assertEquals(log.getRoundPosition(counter), restored.getRoundPosition(counter));
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(log).seekRound(counter))),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seekRound(counter))),
+                "The restored log should replay the same game");
+
+        // the restored log is attached to the loaded game and records the
+        // following events with the next event indices
+        InMemoryRepository repository = new InMemoryRepository();
+        repository.createGameInDB(engine.board);
+        GameEngine loaded = new GameEngine(repository.loadGameFromDB(engine.board.getGameId()), 11);
+        long eventCount = restored.getEventCount();
+        restored.attach(loaded.gameController);
+        loaded.playRound();
+        Assertions.assertTrue(restored.getEventCount() > eventCount, "The restored log should record the new events");
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(loaded.board)),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seek(restored.getEventCount()))),
+                "The replay should restore the continued game");
+        GameEventSegment next = restored.nextSegment();
+        Assertions.assertEquals(eventCount, next.getFirstEvent(), "Only the new events should be saved");
+        Assertions.assertEquals(restored.getEventCount(), next.getEndEvent());
+
+        Assertions.assertThrows(IllegalStateException.class, () -> restored.restore(segments));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameEventSegment.decode(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void logIsNotRestoredFromSegmentsAfterAGap() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 2, 5);
+        GameEventLog log = new GameEventLog(100, 0, false);
+        log.attach(engine.gameController);
+        engine.playRound();
+        GameEventSegment first = log.nextSegment();
+        engine.playRound();
+        log.nextSegment();
+        engine.playRound();
+        GameEventSegment third = log.nextSegment();
+
+        Assertions.assertEquals(0, third.getSnapshotCount());
+        Assertions.assertFalse(new GameEventLog().restore(List.of(first, third)),
+                "The events after a missing segment cannot be replayed");
+        Assertions.assertFalse(new GameEventLog().restore(List.of()));
+        Assertions.assertTrue(new GameEventLog().restore(List.of(first)));
+    }
+
+    @Test
+    void compactingKeepsTheEventsWhichWereNotSaved() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 2, 8);
+        GameEventLog log = new GameEventLog(1, 0, true);
+        log.attach(engine.gameController);
+        engine.playRound();
+        GameEventSegment first = log.nextSegment();
+        for (int round = 0; round < 5; round++) {
+            engine.playRound();
+        }
+        Assertions.assertTrue(log.getSnapshotCount() > 1, "The snapshots after the saved events should be kept");
+        Assertions.assertTrue(log.getFirstEventIndex() <= first.getEndEvent(),
+                "The events after the saved events should be kept");
+
+        GameEventSegment second = log.nextSegment();
+        Assertions.assertEquals(first.getEndEvent(), second.getFirstEvent());
+        GameEventLog restored = new GameEventLog();
+        Assertions.assertTrue(restored.restore(List.of(first, second)));
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(engine.board)),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seek(restored.getEventCount()))));
+
+        engine.playRound();
+        Assertions.assertTrue(log.getFirstEventIndex() > first.getEndEvent(), "The saved events should be compacted");
+    }
+
+    @Test
+    void decodedEventsAreTheRecordedEvents() {
+        GameEngine engine = GameEngine.createGame("Belts belts belts board", 4, 7);
+        GameEventLog log = new GameEventLog();
+        log.attach(engine.gameController);
+        engine.playGame(5);
+
+        List<GameEvent> events = log.getEvents(0, log.getEventCount());
+        Assertions.assertEquals(log.getEventCount(), events.size());
+        Assertions.assertInstanceOf(GameEvent.RoundStarted.class, events.get(0));
+        byte[] data = encode(events);
+        Assertions.assertEquals(log.getSize(), data.length, "The events should be encoded in the same way");
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        for (GameEvent event : events) {
+            Assertions.assertEquals(event.getClass(), GameEventCodec.decode(buffer).getClass());
+        }
+        Assertions.assertArrayEquals(encode(events.subList(3, 8)), encode(log.getEvents(3, 8)),
+                "A range of the events should be the same events");
+    }
+
+    private static byte[] encode(List<GameEvent> events) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        for (GameEvent event : events) {
+            GameEventCodec.encode(event, buffer);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+}
@@ -0,0 +1,86 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+public class GameSnapshotCodecTest {
+
+    @Test
+    void decodedSnapshotRestoresTheGame() {
+        GameEngine engine = GameEngine.createGame("Advanced board", 4);
+        engine.playRound();
+        Board board = engine.board;
+        Player first = board.getPlayer(0);
+        first.getProgramField(0).setCard(first.getCardField(0).getCard());
+        first.getCardField(0).setCard(null);
+        board.setGameId(17);
+        board.getPlayer(2).setLastCommand(Command.FAST_FORWARD);
+        board.getPlayer(3).getCardField(5).setVisible(false);
+
+        byte[] data = GameSnapshotCodec.encode(GameSnapshot.of(board));
+        GameSnapshot decoded = GameSnapshotCodec.decode(data);
+        Assertions.assertArrayEquals(data, GameSnapshotCodec.encode(decoded), "Encoding the decoded snapshot should give the same data");
+
+        Board restored = decoded.toBoard(decoded.gameId);
+        Assertions.assertEquals(17, restored.getGameId());
+        Assertions.assertEquals(board.boardName, restored.boardName);
+        Assertions.assertEquals(board.getPhase(), restored.getPhase());
+        Assertions.assertEquals(board.getStep(), restored.getStep());
+        Assertions.assertEquals(board.getCounter(), restored.getCounter());
+        Assertions.assertEquals(board.getPlayerNumber(board.getCurrentPlayer()), restored.getPlayerNumber(restored.getCurrentPlayer()));
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            Player other = restored.getPlayer(i);
+            Assertions.assertEquals(player.getName(), other.getName());
+            Assertions.assertEquals(player.getColor(), other.getColor());
+            Assertions.assertEquals(player.getSpace().x, other.getSpace().x);
+            Assertions.assertEquals(player.getSpace().y, other.getSpace().y);
+            Assertions.assertEquals(player.getHeading(), other.getHeading());
+            Assertions.assertEquals(player.getNextCheckpoint(), other.getNextCheckpoint());
+            Assertions.assertEquals(player.getLastCommand(), other.getLastCommand());
+            for (int j = 0; j < Player.NUMBER_OF_REGISTERS; j++) {
+                Assertions.assertEquals(command(player.getProgramField(j).getCard()), command(other.getProgramField(j).getCard()));
+            }
+            for (int j = 0; j < Player.NO_CARDS; j++) {
+                Assertions.assertEquals(command(player.getCardField(j).getCard()), command(other.getCardField(j).getCard()));
+                Assertions.assertEquals(player.getCardField(j).isVisible(), other.getCardField(j).isVisible());
+            }
+        }
+    }
+
+    private static Command command(dk.dtu.compute.se.pisd.roborally.model.CommandCard card) {
+        return card != null ? card.command : null;
+    }
+
+    @Test
+    void snapshotsCanBeReadFromAStream() {
+        Board first = GameEngine.createGame("Simple board", 2).board;
+        Board second = GameEngine.createGame("Simple board", 3).board;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        GameSnapshotCodec.encode(GameSnapshot.of(first), buffer);
+        GameSnapshotCodec.encode(GameSnapshot.of(second), buffer);
+        buffer.flip();
+
+        Assertions.assertEquals(2, GameSnapshotCodec.decode(buffer).players.size());
+        Assertions.assertEquals(3, GameSnapshotCodec.decode(buffer).players.size());
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void invalidDataIsRejected() {
+        byte[] data = GameSnapshotCodec.encode(GameSnapshot.of(GameEngine.createGame("Simple board", 2).board));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> GameSnapshotCodec.decode(Arrays.copyOf(data, data.length - 3)));
+        data[2] = GameSnapshotCodec.VERSION + 1;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(data));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GameSnapshotCodec.decode(new byte[]{1, 2, 3}));
+    }
+
+}
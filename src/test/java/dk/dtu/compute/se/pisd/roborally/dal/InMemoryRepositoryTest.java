@@ -0,0 +1,67 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Phase;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class InMemoryRepositoryTest {
+
+    @Test
+    void savedGameCanBeLoaded() {
+        InMemoryRepository repository = new InMemoryRepository();
+        GameEngine engine = GameEngine.createGame("Advanced board", 3);
+        Board board = engine.board;
+
+        Assertions.assertTrue(repository.createGameInDB(board));
+        Assertions.assertNotNull(board.getGameId());
+        engine.playRound();
+        Assertions.assertTrue(repository.updateGameInDB(board));
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        Assertions.assertNotNull(loaded);
+        Assertions.assertEquals(board.getGameId(), loaded.getGameId());
+        Assertions.assertEquals(board.boardName, loaded.boardName);
+        Assertions.assertEquals(board.getPhase(), loaded.getPhase());
+        Assertions.assertEquals(board.getPlayersNumber(), loaded.getPlayersNumber());
+        for (int i = 0; i < board.getPlayersNumber(); i++) {
+            Player player = board.getPlayer(i);
+            Player loadedPlayer = loaded.getPlayer(i);
+            Assertions.assertEquals(player.getSpace().x, loadedPlayer.getSpace().x);
+            Assertions.assertEquals(player.getSpace().y, loadedPlayer.getSpace().y);
+            Assertions.assertEquals(player.getHeading(), loadedPlayer.getHeading());
+            Assertions.assertEquals(player.getNextCheckpoint(), loadedPlayer.getNextCheckpoint());
+        }
+        Assertions.assertEquals(board.getNoOfCheckpoints(), loaded.getNoOfCheckpoints(),
+                "The loaded game should have the elements of its board");
+        Assertions.assertNull(repository.loadGameFromDB(board.getGameId() + 1));
+    }
+
+    @Test
+    void gamesAreListedPageByPage() {
+        InMemoryRepository repository = new InMemoryRepository();
+        for (int i = 0; i < 5; i++) {
+            Board board = GameEngine.createGame("Simple board", 2).board;
+            board.setPhase(i % 2 == 0 ? Phase.PROGRAMMING : Phase.ACTIVATION);
+            repository.createGameInDB(board);
+        }
+
+        GameQuery query = new GameQuery(null, null, null, null, 2);
+        GamePage first = repository.getGames(query, null);
+        Assertions.assertEquals(List.of(5, 4), first.games.stream().map(game -> game.id).toList());
+        Assertions.assertTrue(first.hasNext());
+        GamePage second = repository.getGames(query, first.nextKey);
+        Assertions.assertEquals(List.of(3, 2), second.games.stream().map(game -> game.id).toList());
+        GamePage third = repository.getGames(query, second.nextKey);
+        Assertions.assertEquals(List.of(1), third.games.stream().map(game -> game.id).toList());
+        Assertions.assertFalse(third.hasNext());
+
+        GamePage programming = repository.getGames(new GameQuery(null, Phase.PROGRAMMING, null, null, 10), null);
+        Assertions.assertEquals(List.of(5, 3, 1), programming.games.stream().map(game -> game.id).toList());
+    }
+
+}
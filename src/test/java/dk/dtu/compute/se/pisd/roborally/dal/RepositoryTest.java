@@ -0,0 +1,375 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class RepositoryTest {
+
+    /**
+     * A fake of the database, which keeps the rows of the tables in memory.
+     * It understands only the forms of the statements, which the repository
+     * uses for creating, updating and loading games: inserts (with the row
+     * alias form of ON DUPLICATE KEY UPDATE), updates and selects with
+     * comparisons of the columns with parameters or numbers.
+     */
+    private static class FakeDatabase {
+
+        private static final Map<String, List<String>> PRIMARY_KEYS = Map.of(
+                "Game", List.of("gameID"),
+                "Player", List.of("gameID", "playerID"),
+                "CardField", List.of("gameID", "playerID", "type", "position"),
+                "GameEventSegment", List.of("gameID", "firstEvent"));
+
+        private static final Pattern INSERT = Pattern.compile(
+                "INSERT INTO (\\w+)\\s*\\(([^)]*)\\) VALUES \\([^)]*\\)(?: AS new ON DUPLICATE KEY UPDATE (.*))?");
+        private static final Pattern UPDATE = Pattern.compile("UPDATE (\\w+) SET (.*) WHERE (.*)");
+        private static final Pattern SELECT = Pattern.compile(
+                "SELECT .* FROM (\\w+) WHERE (.*?)(?: ORDER BY (\\w+) (ASC|DESC))?(?: LIMIT (\\d+))?");
+        private static final Pattern ASSIGNMENT = Pattern.compile("(\\w+) = new\\.(\\w+)");
+        private static final Pattern COMPARISON = Pattern.compile("(\\w+) (=|>|>=) (\\?|-?\\d+)");
+
+        // a comparison of a column with a value in a WHERE clause
+        private record Comparison(String column, String operator, Object value) {
+
+            boolean matches(Map<String, Object> row) {
+                Object actual = row.get(column);
+                if (operator.equals("=")) {
+                    return Objects.equals(actual, value) || actual instanceof Number a && value instanceof Number b
+                            && a.longValue() == b.longValue();
+                }
+                if (actual == null || value == null) {
+                    return false;
+                }
+                long difference = ((Number) actual).longValue() - ((Number) value).longValue();
+                return operator.equals(">") ? difference > 0 : difference >= 0;
+            }
+        }
+
+        // the rows of the tables by the name of the table
+        final Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+
+        int commits;
+        int rollbacks;
+
+        private int nextGameId = 1;
+
+        List<Map<String, Object>> table(String name) {
+            return tables.computeIfAbsent(name, key -> new ArrayList<>());
+        }
+
+        Connection open() {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "prepareStatement" -> prepare((String) args[0]);
+                        case "commit" -> commits++;
+                        case "rollback" -> rollbacks++;
+                        case "getAutoCommit", "isValid" -> true;
+                        case "isClosed" -> false;
+                        default -> null;
+                    });
+        }
+
+        private PreparedStatement prepare(String sql) {
+            Map<Integer, Object> parameters = new HashMap<>();
+            List<Map<Integer, Object>> batch = new ArrayList<>();
+            List<Object> generatedKeys = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "setInt", "setBoolean", "setString", "setBytes", "setLong" -> parameters.put((int) args[0], args[1]);
+                        case "setNull" -> parameters.put((int) args[0], null);
+                        case "addBatch" -> batch.add(new HashMap<>(parameters));
+                        case "executeUpdate" -> execute(sql, parameters, generatedKeys);
+                        case "executeBatch" -> {
+                            int[] counts = new int[batch.size()];
+                            for (int i = 0; i < counts.length; i++) {
+                                counts[i] = execute(sql, batch.get(i), generatedKeys);
+                            }
+                            batch.clear();
+                            yield counts;
+                        }
+                        case "executeQuery" -> resultSet(query(sql, parameters));
+                        case "getGeneratedKeys" -> {
+                            List<Map<String, Object>> keys = new ArrayList<>();
+                            for (Object key : generatedKeys) {
+                                keys.add(Map.of("1", key));
+                            }
+                            yield resultSet(keys);
+                        }
+                        default -> null;
+                    });
+        }
+
+        private int execute(String sql, Map<Integer, Object> parameters, List<Object> generatedKeys) throws SQLException {
+            Matcher insert = INSERT.matcher(sql);
+            if (insert.matches()) {
+                String table = insert.group(1);
+                List<String> columns = split(insert.group(2), ",");
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    row.put(columns.get(i), parameters.get(i + 1));
+                }
+                if (table.equals("Game") && !row.containsKey("gameID")) {
+                    row.put("gameID", nextGameId);
+                    generatedKeys.add(nextGameId++);
+                }
+                Map<String, Object> existing = find(table, row);
+                if (existing == null) {
+                    table(table).add(row);
+                    return 1;
+                }
+                if (insert.group(3) == null) {
+                    throw new SQLException("Duplicate key in " + table);
+                }
+                boolean changed = false;
+                for (String assignment : split(insert.group(3), ",")) {
+                    Matcher matcher = ASSIGNMENT.matcher(assignment);
+                    if (!matcher.matches()) {
+                        throw new SQLException("Unsupported assignment " + assignment);
+                    }
+                    Object value = row.get(matcher.group(2));
+                    changed |= !Objects.deepEquals(existing.put(matcher.group(1), value), value);
+                }
+                return changed ? 2 : 0;
+            }
+            Matcher update = UPDATE.matcher(sql);
+            if (update.matches()) {
+                List<String> assignments = split(update.group(2), ",");
+                List<Comparison> condition = condition(update.group(3), parameters, assignments.size());
+                int count = 0;
+                for (Map<String, Object> row : select(update.group(1), condition)) {
+                    for (int i = 0; i < assignments.size(); i++) {
+                        row.put(assignments.get(i).replace(" = ?", "").trim(), parameters.get(i + 1));
+                    }
+                    count++;
+                }
+                return count;
+            }
+            if (sql.startsWith("DELETE FROM ")) {
+                String[] parts = sql.substring("DELETE FROM ".length()).split(" WHERE ");
+                List<Map<String, Object>> rows = select(parts[0], condition(parts[1], parameters, 0));
+                table(parts[0]).removeAll(rows);
+                return rows.size();
+            }
+            throw new SQLException("Unsupported statement " + sql);
+        }
+
+        private List<Map<String, Object>> query(String sql, Map<Integer, Object> parameters) throws SQLException {
+            Matcher select = SELECT.matcher(sql);
+            if (!select.matches()) {
+                throw new SQLException("Unsupported query " + sql);
+            }
+            List<Map<String, Object>> rows = select(select.group(1), condition(select.group(2), parameters, 0));
+            if (select.group(3) != null) {
+                Comparator<Map<String, Object>> order =
+                        Comparator.comparingLong(row -> ((Number) row.get(select.group(3))).longValue());
+                rows.sort(select.group(4).equals("DESC") ? order.reversed() : order);
+            }
+            if (select.group(5) != null) {
+                rows = rows.subList(0, Math.min(rows.size(), Integer.parseInt(select.group(5))));
+            }
+            return rows;
+        }
+
+        private static List<Comparison> condition(String where, Map<Integer, Object> parameters, int offset)
+                throws SQLException {
+            List<Comparison> condition = new ArrayList<>();
+            int parameter = offset;
+            for (String comparison : split(where, " AND ")) {
+                Matcher matcher = COMPARISON.matcher(comparison);
+                if (!matcher.matches()) {
+                    throw new SQLException("Unsupported condition " + comparison);
+                }
+                Object value = matcher.group(3).equals("?")
+                        ? parameters.get(++parameter) : Long.valueOf(matcher.group(3));
+                condition.add(new Comparison(matcher.group(1), matcher.group(2), value));
+            }
+            return condition;
+        }
+
+        private List<Map<String, Object>> select(String table, List<Comparison> condition) {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (Map<String, Object> row : table(table)) {
+                if (condition.stream().allMatch(comparison -> comparison.matches(row))) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+
+        private Map<String, Object> find(String table, Map<String, Object> row) {
+            List<Comparison> key = new ArrayList<>();
+            for (String column : PRIMARY_KEYS.get(table)) {
+                key.add(new Comparison(column, "=", row.get(column)));
+            }
+            List<Map<String, Object>> rows = select(table, key);
+            return rows.isEmpty() ? null : rows.getFirst();
+        }
+
+        private static List<String> split(String list, String separator) {
+            List<String> result = new ArrayList<>();
+            for (String element : list.split(Pattern.quote(separator))) {
+                result.add(element.trim());
+            }
+            return result;
+        }
+
+        private ResultSet resultSet(List<Map<String, Object>> rows) {
+            Iterator<Map<String, Object>> iterator = new ArrayList<>(rows).iterator();
+            Object[] state = new Object[2]; // the current row and the last value
+            return (ResultSet) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{ResultSet.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next" -> {
+                                state[0] = iterator.hasNext() ? iterator.next() : null;
+                                return state[0] != null;
+                            }
+                            case "wasNull" -> {
+                                return state[1] == null;
+                            }
+                            case "close" -> {
+                                return null;
+                            }
+                        }
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> row = (Map<String, Object>) state[0];
+                        Object value = row.get(args[0] instanceof Integer index ? String.valueOf(index) : args[0]);
+                        state[1] = value;
+                        return switch (method.getName()) {
+                            case "getInt" -> value != null ? ((Number) value).intValue() : 0;
+                            case "getLong" -> value != null ? ((Number) value).longValue() : 0L;
+                            case "getBoolean" -> value != null && (Boolean) value;
+                            default -> value;
+                        };
+                    });
+        }
+    }
+
+    private static Repository createRepository(FakeDatabase database) {
+        return new Repository(new Connector(1, 60000, database::open));
+    }
+
+    @Test
+    void updateGameWithoutCardFields() {
+        FakeDatabase database = new FakeDatabase();
+        Repository repository = createRepository(database);
+        GameEngine engine = GameEngine.createGame("Advanced board", 2, 3);
+        engine.playRound();
+        Assertions.assertTrue(repository.createGameInDB(engine.board));
+        // like the games saved before the card fields were saved
+        database.table("CardField").clear();
+        engine.playRound();
+        Board board = engine.board;
+
+        Assertions.assertTrue(repository.updateGameInDB(board), "The game should be updated");
+        Assertions.assertEquals(2, database.commits);
+        Assertions.assertEquals(0, database.rollbacks);
+        Assertions.assertEquals(2 * (Player.NUMBER_OF_REGISTERS + Player.NO_CARDS), database.table("CardField").size(),
+                "The missing card fields should be inserted");
+
+        Player player = board.getPlayer(1);
+        Assertions.assertNotNull(player.getCardField(0).getCard());
+        player.getCardField(0).setCard(null);
+        Assertions.assertTrue(repository.updateGameInDB(board), "The game should be updated again");
+        Assertions.assertEquals(3, database.commits);
+        Assertions.assertEquals(2 * (Player.NUMBER_OF_REGISTERS + Player.NO_CARDS), database.table("CardField").size());
+        Assertions.assertNull(repository.loadGameFromDB(board.getGameId()).getPlayer(1).getCardField(0).getCard(),
+                "The card field should be updated");
+    }
+
+    @Test
+    void loadedGameHasTheSavedState() {
+        FakeDatabase database = new FakeDatabase();
+        Repository repository = createRepository(database);
+        // the repository loads every game on the first board
+        GameEngine engine = GameEngine.createGame(BoardFactory.getBoardNames().getFirst(), 3, 9);
+        engine.playRound();
+        Assertions.assertTrue(repository.createGameInDB(engine.board));
+        engine.playGame(6);
+        Board board = engine.board;
+        board.getPlayer(2).incrementNextCheckpoint();
+        board.getPlayer(1).setLastCommand(Command.U_TURN);
+        board.getPlayer(0).setLastCommand(null);
+        Assertions.assertTrue(repository.updateGameInDB(board));
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        Assertions.assertNotNull(loaded);
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(board)),
+                GameSnapshotCodec.encode(GameSnapshot.of(loaded)),
+                "The loaded game should have the same state as the saved game");
+        Assertions.assertEquals(board.getCounter(), loaded.getCounter());
+        Assertions.assertEquals(2, loaded.getPlayer(2).getNextCheckpoint());
+        Assertions.assertEquals(Command.U_TURN, loaded.getPlayer(1).getLastCommand());
+        Assertions.assertNull(loaded.getPlayer(0).getLastCommand());
+    }
+
+    @Test
+    void loadedGameContinuesItsEventLog() {
+        FakeDatabase database = new FakeDatabase();
+        Repository repository = createRepository(database);
+        SaveQueue queue = new SaveQueue(() -> repository);
+        GameEngine engine = GameEngine.createGame(BoardFactory.getBoardNames().getFirst(), 2, 4);
+        GameEventLog log = new GameEventLog(2, 0, true);
+        log.attach(engine.gameController);
+        int saves = 0;
+        for (int round = 0; round < 7; round++) {
+            Assertions.assertTrue(engine.playRound());
+            queue.save(engine.board, log);
+            saves++;
+        }
+        queue.close();
+        Board board = engine.board;
+        Assertions.assertEquals(saves, database.table("GameEventSegment").size(),
+                "Every save should add the new events only");
+
+        Board loaded = repository.loadGameFromDB(board.getGameId());
+        Assertions.assertEquals(board.getCounter(), loaded.getCounter());
+        GameEventLog restored = new GameEventLog(2, 0, true);
+        Assertions.assertTrue(restored.restore(repository.loadEventLogFromDB(board.getGameId())));
+        Assertions.assertTrue(restored.getFirstEventIndex() > 0, "Only the segments from the latest snapshot should be loaded");
+        long eventCount = restored.getEventCount();
+        Assertions.assertEquals(log.getEventCount(), eventCount);
+
+        GameEngine continued = new GameEngine(loaded, 4);
+        restored.attach(continued.gameController);
+        int counter = loaded.getCounter();
+        long position = restored.getRoundPosition(counter);
+        Assertions.assertEquals(log.getRoundPosition(counter), position);
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(loaded)),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seek(eventCount))),
+                "The restored log should replay the loaded game");
+
+        int snapshots = restored.getSnapshotCount();
+        for (int round = 0; round < 3; round++) {
+            Assertions.assertTrue(continued.playRound());
+        }
+        Assertions.assertEquals(position, restored.getRoundPosition(counter),
+                "The rounds before loading should stay in the log");
+        Assertions.assertTrue(restored.getRoundPosition(counter + 2) > eventCount);
+        Assertions.assertTrue(restored.getSnapshotCount() > snapshots || restored.getFirstEventIndex() > eventCount,
+                "The snapshots should be taken by the rounds of the loaded game");
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(continued.board)),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seek(restored.getEventCount()))));
+    }
+
+}
@@ -0,0 +1,179 @@
+package dk.dtu.compute.se.pisd.roborally.dal;
+
+import dk.dtu.compute.se.pisd.roborally.controller.GameEngine;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Command;
+import dk.dtu.compute.se.pisd.roborally.model.CommandCard;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Player;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class SaveQueueTest {
+
+    /**
+     * A repository, which records the saved games. The first write waits
+     * until the latch is released.
+     */
+    private static class TestRepository implements IRepository {
+
+        final List<Board> created = Collections.synchronizedList(new ArrayList<>());
+        final List<Board> updated = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public boolean createGameInDB(Board game) {
+            await();
+            game.setGameId(42);
+            created.add(game);
+            return true;
+        }
+
+        @Override
+        public boolean updateGameInDB(Board game) {
+            await();
+            updated.add(game);
+            return true;
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public Board loadGameFromDB(int id) {
+            return null;
+        }
+
+        @Override
+        public List<GameInDB> getGames() {
+            return List.of();
+        }
+
+        @Override
+        public GamePage getGames(GameQuery query, Integer afterKey) {
+            return new GamePage(List.of(), null);
+        }
+
+        @Override
+        public boolean saveEventLogInDB(int gameId, GameEventSegment segment) {
+            return true;
+        }
+
+        @Override
+        public List<GameEventSegment> loadEventLogFromDB(int gameId) {
+            return List.of();
+        }
+    }
+
+    private Board createBoard() {
+        Board board = new Board(8, 8);
+        for (int i = 0; i < 2; i++) {
+            Player player = new Player(board, null, "Player " + i);
+            board.addPlayer(player);
+            player.setSpace(board.getSpace(i, i));
+        }
+        board.setCurrentPlayer(board.getPlayer(0));
+        return board;
+    }
+
+    @Test
+    void repeatedSavesAreCoalesced() throws InterruptedException {
+        TestRepository repository = new TestRepository();
+        SaveQueue queue = new SaveQueue(() -> repository);
+        Board board = createBoard();
+
+        queue.save(board);
+        repository.started.await();
+        // while the game is created, it is saved three more times
+        for (int i = 1; i <= 3; i++) {
+            board.setStep(i);
+            queue.save(board);
+        }
+        repository.release.countDown();
+        queue.flush();
+
+        Assertions.assertEquals(1, repository.created.size(), "The game should be created once");
+        Assertions.assertEquals(42, board.getGameId(), "The board should get the id of the created game");
+        Assertions.assertEquals(1, repository.updated.size(), "The pending saves should be coalesced into one update");
+        Board saved = repository.updated.get(0);
+        Assertions.assertEquals(3, saved.getStep(), "The latest state of the game should be saved");
+        Assertions.assertEquals(42, saved.getGameId(), "The update should use the id of the created game");
+        queue.close();
+    }
+
+    @Test
+    void snapshotIsIndependentOfBoard() {
+        Board board = createBoard();
+        Player player = board.getPlayer(1);
+        player.setHeading(Heading.EAST);
+        player.getProgramField(2).setCard(CommandCard.of(Command.LEFT));
+        player.getCardField(0).setVisible(false);
+
+        GameSnapshot snapshot = GameSnapshot.of(board);
+        player.setSpace(board.getSpace(5, 5));
+        player.getProgramField(2).setCard(null);
+
+        Board copy = snapshot.toBoard(7);
+        Player copied = copy.getPlayer(1);
+        Assertions.assertEquals(7, copy.getGameId());
+        Assertions.assertEquals(copy.getSpace(1, 1), copied.getSpace(), "The copy should have the position at the time of the snapshot");
+        Assertions.assertEquals(Heading.EAST, copied.getHeading());
+        Assertions.assertEquals(Command.LEFT, copied.getProgramField(2).getCard().command);
+        Assertions.assertFalse(copied.getCardField(0).isVisible());
+        Assertions.assertEquals(copy.getPlayer(0), copy.getCurrentPlayer());
+    }
+
+    @Test
+    void eventLogIsSavedWithTheGame() {
+        InMemoryRepository repository = new InMemoryRepository();
+        SaveQueue queue = new SaveQueue(() -> repository);
+        GameEngine engine = GameEngine.createGame("Advanced board", 2, 5);
+        GameEventLog log = new GameEventLog();
+        log.attach(engine.gameController);
+        engine.playRound();
+
+        queue.save(engine.board, log);
+        queue.flush();
+        Assertions.assertNotNull(engine.board.getGameId(), "The game should be created");
+        List<GameEventSegment> saved = repository.loadEventLogFromDB(engine.board.getGameId());
+        Assertions.assertEquals(1, saved.size(), "The log should be saved with the created game");
+        Assertions.assertEquals(0, saved.getFirst().getFirstEvent());
+        Assertions.assertEquals(log.getEventCount(), saved.getFirst().getEndEvent());
+
+        engine.playRound();
+        queue.save(engine.board, log);
+        queue.save(engine.board, log);
+        queue.close();
+        saved = repository.loadEventLogFromDB(engine.board.getGameId());
+        Assertions.assertEquals(2, saved.size(), "Only the new events should be saved with the updated game");
+        Assertions.assertEquals(saved.getFirst().getEndEvent(), saved.getLast().getFirstEvent());
+        Assertions.assertEquals(log.getEventCount(), saved.getLast().getEndEvent());
+
+        GameEventLog restored = new GameEventLog();
+        Assertions.assertTrue(restored.restore(saved));
+        Assertions.assertEquals(log.getEventCount(), restored.getEventCount());
+        Assertions.assertArrayEquals(GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(log).seek(log.getEventCount()))),
+                GameSnapshotCodec.encode(GameSnapshot.of(new GameReplay(restored).seek(restored.getEventCount()))),
+                "The restored log should replay the saved game");
+    }
+
+    @Test
+    void closedQueueRejectsSaves() {
+        SaveQueue queue = new SaveQueue(TestRepository::new);
+        queue.close();
+        Assertions.assertThrows(IllegalStateException.class, () -> queue.save(createBoard()));
+    }
+
+}
@@ -0,0 +1,66 @@
+package dk.dtu.compute.se.pisd.roborally.fileaccess;
+
+import dk.dtu.compute.se.pisd.roborally.controller.Checkpoint;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import dk.dtu.compute.se.pisd.roborally.model.Board;
+import dk.dtu.compute.se.pisd.roborally.model.Heading;
+import dk.dtu.compute.se.pisd.roborally.model.Space;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Set;
+
+public class LoadBoardTest {
+
+    private static final String CONVEYOR_BELT =
+            "\"dk.dtu.compute.se.pisd.roborally.fileaccess.model.ConveyorBeltTemplate\"";
+
+    @Test
+    void defaultBoardIsLoaded() {
+        Board board = LoadBoard.loadBoard(null);
+        Assertions.assertNotNull(board);
+        Assertions.assertEquals(8, board.width);
+        Assertions.assertEquals(8, board.height);
+
+        Space space = board.getSpace(0, 0);
+        Assertions.assertEquals(Set.of(Heading.SOUTH), space.getWalls());
+        Assertions.assertEquals(1, space.getActions().size());
+        ConveyorBelt belt = (ConveyorBelt) space.getActions().getFirst();
+        Assertions.assertEquals(Heading.WEST, belt.getHeading());
+
+        Assertions.assertEquals(List.of(Checkpoint.of(1)), board.getSpace(4, 0).getActions());
+        Assertions.assertEquals(List.of(Checkpoint.of(2)), board.getSpace(6, 2).getActions());
+        Assertions.assertEquals(2, board.getNoOfCheckpoints());
+    }
+
+    @Test
+    void propertiesCanComeInAnyOrder() throws IOException {
+        String json = "{\"spaces\": ["
+                + "{\"actions\": [{\"INSTANCE\": {\"heading\": \"NORTH\"}, \"CLASSNAME\": " + CONVEYOR_BELT + "}],"
+                + " \"walls\": [\"EAST\", \"WEST\"], \"y\": 2, \"x\": 1, \"comment\": [1, 2]},"
+                + "{\"x\": 0, \"y\": 0, \"actions\": [{\"CLASSNAME\": \"unknown.Action\", \"INSTANCE\": {}}]}"
+                + "], \"height\": 3, \"width\": 2}";
+        Board board = LoadBoard.loadBoard(new StringReader(json), "test");
+
+        Assertions.assertEquals(2, board.width);
+        Assertions.assertEquals(3, board.height);
+        Space space = board.getSpace(1, 2);
+        Assertions.assertEquals(Set.of(Heading.EAST, Heading.WEST), space.getWalls());
+        List<FieldAction> actions = space.getActions();
+        Assertions.assertEquals(1, actions.size());
+        Assertions.assertEquals(Heading.NORTH, ((ConveyorBelt) actions.getFirst()).getHeading());
+        Assertions.assertTrue(board.getSpace(0, 0).getActions().isEmpty(),
+                "Actions of unknown types should be ignored");
+    }
+
+    @Test
+    void boardWithoutSizeIsRejected() {
+        Assertions.assertThrows(IOException.class,
+                () -> LoadBoard.loadBoard(new StringReader("{\"spaces\": []}"), "test"));
+    }
+
+}
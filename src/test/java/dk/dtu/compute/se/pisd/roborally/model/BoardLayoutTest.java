@@ -0,0 +1,90 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import dk.dtu.compute.se.pisd.roborally.controller.BoardFactory;
+import dk.dtu.compute.se.pisd.roborally.controller.ConveyorBelt;
+import dk.dtu.compute.se.pisd.roborally.controller.FieldAction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class BoardLayoutTest {
+
+    @Test
+    void boardsShareTheirLayout() {
+        Board first = BoardFactory.getInstance().createBoard("Advanced board");
+        Board second = BoardFactory.getInstance().createBoard("Advanced board");
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotNull(first.getLayout());
+        Assertions.assertSame(first.getLayout(), second.getLayout());
+        Assertions.assertSame(first.getConveyorConflictIndex(), second.getConveyorConflictIndex());
+        Assertions.assertEquals(2, second.getNoOfCheckpoints());
+
+        Space space = second.getSpace(0, 0);
+        Assertions.assertEquals(first.getSpace(0, 0).getActions(), space.getActions());
+        Assertions.assertSame(first.getSpace(0, 0).getConveyorBelt(), space.getConveyorBelt());
+        Assertions.assertTrue(space.getConveyorBelt() instanceof ConveyorBelt);
+        Assertions.assertTrue(space.hasWallInDirection(Heading.SOUTH));
+    }
+
+    @Test
+    void neighboursAreTheSameAsComputed() {
+        Board board = BoardFactory.getInstance().createBoard("Belts belts belts board");
+        Board copy = new Board(board.width, board.height, board.boardName);
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                for (Heading heading : Heading.values()) {
+                    if (board.getSpace(x, y).hasWallInDirection(heading)) {
+                        copy.getSpace(x, y).addWall(heading);
+                    }
+                }
+            }
+        }
+
+        for (int x = 0; x < board.width; x++) {
+            for (int y = 0; y < board.height; y++) {
+                for (Heading heading : Heading.values()) {
+                    Space neighbour = board.getNeighbour(board.getSpace(x, y), heading);
+                    Space expected = copy.getNeighbour(copy.getSpace(x, y), heading);
+                    Assertions.assertEquals(expected == null, neighbour == null);
+                    if (neighbour != null) {
+                        Assertions.assertSame(board, neighbour.board);
+                        Assertions.assertEquals(expected.toString(), neighbour.toString());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void changedWallsDoNotAffectOtherBoards() {
+        Board first = BoardFactory.getInstance().createBoard("Simple board");
+        Board second = BoardFactory.getInstance().createBoard("Simple board");
+
+        first.getSpace(3, 3).addWall(Heading.EAST);
+        Assertions.assertNull(first.getLayout());
+        Assertions.assertNull(first.getNeighbour(first.getSpace(3, 3), Heading.EAST));
+        Assertions.assertSame(second.getSpace(4, 3), second.getNeighbour(second.getSpace(3, 3), Heading.EAST));
+        Assertions.assertNotNull(second.getLayout());
+    }
+
+    @Test
+    void changedActionsDoNotAffectOtherBoards() {
+        Board first = BoardFactory.getInstance().createBoard("Advanced board");
+        Board second = BoardFactory.getInstance().createBoard("Advanced board");
+        List<FieldAction> actions = List.copyOf(second.getSpace(2, 2).getActions());
+
+        first.getSpace(2, 2).getActions().add(ConveyorBelt.of(Heading.NORTH));
+        Assertions.assertNull(first.getLayout());
+        Assertions.assertEquals(actions.size() + 1, first.getSpace(2, 2).getActions().size());
+        Assertions.assertSame(ConveyorBelt.of(Heading.NORTH), first.getSpace(2, 2).getActions().get(actions.size()));
+        Assertions.assertEquals(actions, second.getSpace(2, 2).getActions());
+        Assertions.assertNotNull(second.getLayout());
+
+        first.getSpace(2, 2).getActions().clear();
+        Assertions.assertTrue(first.getSpace(2, 2).getActions().isEmpty());
+        Assertions.assertEquals(actions, second.getSpace(2, 2).getActions());
+    }
+
+}
@@ -28,69 +28,83 @@ public class BoardTest {
     void testGetNeighbour() {
         // wall EAST
         Space zz = gameController.board.getSpace(0, 0);
-        zz.getWalls().add(Heading.EAST);
+        zz.addWall(Heading.EAST);
         Space result = gameController.board.getNeighbour(zz, Heading.EAST);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way in the same space");
 
-        zz.getWalls().clear();
+        zz.clearWalls();
         Space neighbour = gameController.board.getSpace(1, 0);
-        neighbour.getWalls().add(Heading.WEST);
+        neighbour.addWall(Heading.WEST);
         result = gameController.board.getNeighbour(zz, Heading.EAST);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way on the neighbour space");
 
-        neighbour.getWalls().clear();
+        neighbour.clearWalls();
         result = gameController.board.getNeighbour(zz, Heading.EAST);
         Assertions.assertNotNull(result, "Neighbour was null even though no walls exist");
 
         // wall WEST
         zz = gameController.board.getSpace(1, 0);
-        zz.getWalls().add(Heading.WEST);
+        zz.addWall(Heading.WEST);
         result = gameController.board.getNeighbour(zz, Heading.WEST);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way in the same space");
 
-        zz.getWalls().clear();
+        zz.clearWalls();
         neighbour = gameController.board.getSpace(0, 0);
-        neighbour.getWalls().add(Heading.EAST);
+        neighbour.addWall(Heading.EAST);
         result = gameController.board.getNeighbour(zz, Heading.WEST);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way on the neighbour space");
 
-        neighbour.getWalls().clear();
+        neighbour.clearWalls();
         result = gameController.board.getNeighbour(zz, Heading.WEST);
         Assertions.assertNotNull(result, "Neighbour was null even though no walls exist");
 
         // wall NORTH
         zz = gameController.board.getSpace(0, 1);
-        zz.getWalls().add(Heading.NORTH);
+        zz.addWall(Heading.NORTH);
         result = gameController.board.getNeighbour(zz, Heading.NORTH);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way in the same space");
 
-        zz.getWalls().clear();
+        zz.clearWalls();
         neighbour = gameController.board.getSpace(0, 0);
-        neighbour.getWalls().add(Heading.SOUTH);
+        neighbour.addWall(Heading.SOUTH);
         result = gameController.board.getNeighbour(zz, Heading.NORTH);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way on the neighbour space");
 
-        neighbour.getWalls().clear();
+        neighbour.clearWalls();
         result = gameController.board.getNeighbour(zz, Heading.NORTH);
         Assertions.assertNotNull(result, "Neighbour was null even though no walls exist");
 
         // wall SOUTH
         zz = gameController.board.getSpace(0, 0);
-        zz.getWalls().add(Heading.SOUTH);
+        zz.addWall(Heading.SOUTH);
         result = gameController.board.getNeighbour(zz, Heading.SOUTH);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way in the same space");
 
-        zz.getWalls().clear();
+        zz.clearWalls();
         neighbour = gameController.board.getSpace(0, 1);
-        neighbour.getWalls().add(Heading.NORTH);
+        neighbour.addWall(Heading.NORTH);
         result = gameController.board.getNeighbour(zz, Heading.SOUTH);
         Assertions.assertNull(result, "Neighbour was not null even though a wall was in the way on the neighbour space");
 
-        neighbour.getWalls().clear();
+        neighbour.clearWalls();
         result = gameController.board.getNeighbour(zz, Heading.SOUTH);
         Assertions.assertNotNull(result, "Neighbour was null even though no walls exist");
     }
 
+    @Test
+    void testGetNeighbourWrapsAround() {
+        Board board = gameController.board;
+        Space corner = board.getSpace(0, 0);
+        Assertions.assertEquals(board.getSpace(7, 0), board.getNeighbour(corner, Heading.WEST), "West of (0,0) should wrap around to (7,0)");
+        Assertions.assertEquals(board.getSpace(0, 7), board.getNeighbour(corner, Heading.NORTH), "North of (0,0) should wrap around to (0,7)");
+
+        board.getSpace(7, 0).addWall(Heading.EAST);
+        Assertions.assertNull(board.getNeighbour(corner, Heading.WEST), "A wall should also block the wrap around");
+
+        board.getSpace(7, 0).removeWall(Heading.EAST);
+        Assertions.assertEquals(board.getSpace(7, 0), board.getNeighbour(corner, Heading.WEST), "Removing the wall should open the wrap around again");
+    }
+
     // very simple tests but we want the coverage😍
     @Test
     void testGetters() {
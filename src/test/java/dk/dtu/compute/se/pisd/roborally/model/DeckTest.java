@@ -0,0 +1,64 @@
+package dk.dtu.compute.se.pisd.roborally.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+public class DeckTest {
+
+    @Test
+    void allCardsAreDrawnOnce() {
+        Deck deck = new Deck();
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[Command.values().length];
+
+        for (int i = 0; i < deck.size(); i++) {
+            CommandCard card = deck.draw(random);
+            Assertions.assertNotNull(card);
+            Assertions.assertSame(CommandCard.of(card.command), card, "The deck should have the shared cards");
+            counts[card.command.ordinal()]++;
+        }
+        Assertions.assertNull(deck.draw(random), "All cards of the deck were drawn");
+        for (int count : counts) {
+            Assertions.assertEquals(Deck.COPIES_PER_COMMAND, count);
+        }
+    }
+
+    @Test
+    void discardedCardsAreShuffledAgain() {
+        Deck deck = new Deck(1);
+        SplittableRandom random = new SplittableRandom(2);
+        CommandCard first = deck.draw(random);
+        for (int i = 1; i < deck.size(); i++) {
+            deck.discard(deck.draw(random));
+        }
+        Assertions.assertEquals(0, deck.getDrawPileSize());
+        Assertions.assertEquals(deck.size() - 1, deck.getDiscardPileSize());
+
+        CommandCard card = deck.draw(random);
+        Assertions.assertNotSame(first, card, "The card, which was not discarded, should not be drawn");
+        Assertions.assertEquals(deck.size() - 2, deck.getDrawPileSize());
+        Assertions.assertEquals(0, deck.getDiscardPileSize());
+    }
+
+    @Test
+    void cardsAreShared() {
+        Assertions.assertSame(CommandCard.of(Command.FORWARD), CommandCard.of(Command.FORWARD));
+        Assertions.assertNotSame(CommandCard.of(Command.FORWARD), CommandCard.of(Command.BACKWARD));
+        Assertions.assertEquals(Command.U_TURN, CommandCard.of(Command.U_TURN).command);
+    }
+
+    @Test
+    void cardsWhichWereNotDealtDoNotGrowTheDeck() {
+        Deck deck = new Deck();
+        deck.discard(CommandCard.of(Command.FORWARD));
+        Assertions.assertEquals(deck.size(), deck.getDrawPileSize() + deck.getDiscardPileSize());
+
+        deck.draw(new SplittableRandom(3));
+        deck.discard(CommandCard.of(Command.LEFT));
+        deck.discard(CommandCard.of(Command.LEFT));
+        Assertions.assertEquals(deck.size(), deck.getDrawPileSize() + deck.getDiscardPileSize());
+    }
+
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 public class SpaceTest {
 
     private GameController gameController;
@@ -28,7 +30,7 @@ public class SpaceTest {
     @Test
     void testHasWallInDirection() {
         Space zz = gameController.board.getSpace(0, 0);
-        zz.getWalls().add(Heading.EAST);
+        zz.addWall(Heading.EAST);
         boolean result = zz.hasWallInDirection(Heading.EAST);
         Assertions.assertTrue(result, "Result was false even though the space has a wall in the given direction");
 
@@ -36,6 +38,23 @@ public class SpaceTest {
         Assertions.assertFalse(result, "Result was true even though the space has no wall in the given direction");
     }
 
+    @Test
+    void testWalls() {
+        Space zz = gameController.board.getSpace(0, 0);
+        zz.addWall(Heading.EAST);
+        zz.addWall(Heading.EAST);
+        zz.addWall(Heading.SOUTH);
+        Assertions.assertEquals(Set.of(Heading.EAST, Heading.SOUTH), zz.getWalls(), "The space should have two walls, without duplicates");
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> zz.getWalls().add(Heading.NORTH), "The walls should be read-only");
+
+        zz.removeWall(Heading.EAST);
+        Assertions.assertFalse(zz.hasWallInDirection(Heading.EAST), "The removed wall should be gone");
+        Assertions.assertTrue(zz.hasWallInDirection(Heading.SOUTH), "The other wall should still be there");
+
+        zz.clearWalls();
+        Assertions.assertTrue(zz.getWalls().isEmpty(), "The space should not have any walls");
+    }
+
     @Test
     void testGetPlayer() {
         Space zz = gameController.board.getSpace(0, 0);
@@ -68,7 +87,7 @@ public class SpaceTest {
         Space zz = gameController.board.getSpace(0, 0);
         Assertions.assertFalse(zz.hasConveyorBelt());
 
-        zz.getActions().add(new ConveyorBelt());
+        zz.getActions().add(ConveyorBelt.of(Heading.NORTH));
         Assertions.assertTrue(zz.hasConveyorBelt());
     }
 
@@ -77,7 +96,7 @@ public class SpaceTest {
         Space zz = gameController.board.getSpace(0, 0);
         Assertions.assertNull(zz.getConveyorBelt());
 
-        zz.getActions().add(new ConveyorBelt());
+        zz.getActions().add(ConveyorBelt.of(Heading.NORTH));
         Assertions.assertInstanceOf(ConveyorBelt.class, zz.getConveyorBelt());
     }
 
@@ -0,0 +1,88 @@
+package dk.dtu.compute.se.pisd.roborally.simulation;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+public class SimulationRunnerTest {
+
+    private static final int MAX_ROUNDS = 40;
+
+    @Test
+    void seededRunsAreRepeatable() {
+        SimulationRunner runner = new SimulationRunner("Advanced board", 2, 40, MAX_ROUNDS, 7L);
+        SimulationResult first;
+        SimulationResult second;
+        try (ForkJoinPool parallel = new ForkJoinPool(4); ForkJoinPool sequential = new ForkJoinPool(1)) {
+            first = runner.run(parallel);
+            second = runner.run(sequential);
+        }
+
+        Assertions.assertEquals(40, first.getGames());
+        Assertions.assertEquals(first.toString(), second.toString(),
+                "Runs with the same seed should give the same result, independent of the parallelism");
+        Assertions.assertArrayEquals(first.getRoundsToWinHistogram(), second.getRoundsToWinHistogram());
+        Assertions.assertArrayEquals(first.getCheckpointHistogram(), second.getCheckpointHistogram());
+    }
+
+    @Test
+    void splitRunsAddUpToTheWholeRun() {
+        // game i is played with seed + i, so the games of a run can be split
+        // into two runs with consecutive seeds
+        SimulationResult whole = new SimulationRunner("Advanced board", 2, 40, MAX_ROUNDS, 100L).run();
+        SimulationResult merged = new SimulationRunner("Advanced board", 2, 25, MAX_ROUNDS, 100L).run()
+                .merge(new SimulationRunner("Advanced board", 2, 15, MAX_ROUNDS, 125L).run());
+
+        Assertions.assertEquals(whole.toString(), merged.toString());
+    }
+
+    @Test
+    void mergedResultsAddUp() {
+        SimulationResult advanced = new SimulationRunner("Advanced board", 2, 20, MAX_ROUNDS, 3L).run();
+        SimulationResult belts = new SimulationRunner("Belts belts belts board", 3, 20, MAX_ROUNDS, 3L).run();
+        SimulationResult merged = new SimulationResult(MAX_ROUNDS).merge(advanced).merge(belts);
+
+        Assertions.assertEquals(40, merged.getGames());
+        Assertions.assertEquals(advanced.getWins() + belts.getWins(), merged.getWins());
+        Assertions.assertEquals(advanced.getRoundsPlayed() + belts.getRoundsPlayed(), merged.getRoundsPlayed());
+        Assertions.assertEquals(advanced.getBlockedConveyorMoves() + belts.getBlockedConveyorMoves(),
+                merged.getBlockedConveyorMoves());
+        Assertions.assertArrayEquals(sum(advanced.getRoundsToWinHistogram(), belts.getRoundsToWinHistogram()),
+                merged.getRoundsToWinHistogram());
+        Assertions.assertArrayEquals(sum(advanced.getCheckpointHistogram(), belts.getCheckpointHistogram()),
+                merged.getCheckpointHistogram());
+
+        Assertions.assertEquals(merged.getWins(), Arrays.stream(merged.getRoundsToWinHistogram()).sum(),
+                "Every won game should be counted once in the rounds to win");
+        Assertions.assertEquals(20 * 2 + 20 * 3, Arrays.stream(merged.getCheckpointHistogram()).sum(),
+                "Every player should be counted once in the checkpoints reached");
+        Assertions.assertTrue(merged.getRoundsPlayed() <= 40L * MAX_ROUNDS);
+    }
+
+    @Test
+    void emptyRunHasNoGames() {
+        SimulationResult result = new SimulationRunner("Simple board", 2, 0, MAX_ROUNDS, 1L).run();
+        Assertions.assertEquals(0, result.getGames());
+        Assertions.assertEquals(0, result.getWins());
+        Assertions.assertEquals(0.0, result.getAverageRoundsToWin());
+    }
+
+    @Test
+    void illegalArgumentsAreRejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SimulationRunner("No board", 2, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SimulationRunner("Advanced board", 0, 10));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SimulationRunner("Advanced board", 2, -1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new SimulationRunner("Advanced board", 2, 10, 0));
+    }
+
+    private static int[] sum(int[] a, int[] b) {
+        int[] sum = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            sum[i] += b[i];
+        }
+        return sum;
+    }
+
+}